@@ -0,0 +1,75 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.VectorKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Scalar getValues of the bundled functions compared with the SIMD kernels on the same flat batch of points.
+// The kernels are called directly, so both versions are measured in the same JVM (scalar includes validation).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BatchEvaluationBenchmark {
+
+    @Param({"SphereFunction", "RastriginFunction", "AckleyFunction", "RosenbrockFunction"})
+    private String function;
+
+    @Param({"2", "30"})
+    private int dim;
+
+    @Param({"4096"})
+    private int points;
+
+    private AbstractTestFunction func;
+    private double[] positions;
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        if (!VectorKernels.isAvailable()) {
+            throw new IllegalStateException("Vector API is not available - run on Java 17+ with --add-modules jdk.incubator.vector");
+        }
+        func = TestFunctionUtils.createTestFunction(function, dim);
+        positions = new double[points * dim];
+        values = new double[points];
+
+        Random random = new Random(0);
+        for (int i = 0; i < positions.length; i++) {
+            int j = i % dim;
+            double lb = func.getLowerBoundaries()[j];
+            double ub = func.getUpperBoundaries()[j];
+            positions[i] = lb + random.nextDouble() * (ub - lb);
+        }
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        func.getValues(positions, values, 0, points);
+        return values;
+    }
+
+    @Benchmark
+    public double[] vector() {
+        switch (function) {
+            case "SphereFunction":
+                VectorKernels.sphere(positions, values, 0, points, dim);
+                break;
+            case "RastriginFunction":
+                VectorKernels.rastrigin(positions, values, 0, points, dim);
+                break;
+            case "AckleyFunction":
+                VectorKernels.ackley(positions, values, 0, points, dim);
+                break;
+            default:
+                VectorKernels.rosenbrock(positions, values, 0, points, dim);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A whole seeded run of the colony. Without history it measures the engine alone,
+// the full history shows what the GUI pays for recording every iteration.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColonyRunBenchmark {
+
+    @Param({"SphereFunction", "RastriginFunction"})
+    private String function;
+
+    @Param({"20", "100"})
+    private int foodSourcesCount;
+
+    @Param({"2", "10", "30"})
+    private int dim;
+
+    @Param({"200"})
+    private int maxIter;
+
+    @Param({"none", "full"})
+    private String history;
+
+    private AbstractTestFunction func;
+
+    @Setup
+    public void setup() {
+        func = TestFunctionUtils.createTestFunction(function, dim);
+    }
+
+    @Benchmark
+    public double run() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(foodSourcesCount, maxIter, func, 100, 0L);
+        abc.setHistoryRecorder(history.equals("full") ? new FullHistoryRecorder() : new NoHistoryRecorder());
+        abc.run();
+        return abc.getBestFxSoFar();
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The 2-D Rastrigin function typed as an expression against RastriginFunction, over one heatmap row of points
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionFunctionBenchmark {
+
+    private static final int POINTS = 1024;
+    private static final String RASTRIGIN_EXPRESSION = "20 + x^2 - 10*cos(2*pi*x) + y^2 - 10*cos(2*pi*y)";
+
+    @Param({"expression", "handWritten"})
+    private String implementation;
+
+    private AbstractTestFunction func;
+    private double[] positions;
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        RastriginFunction rastrigin = new RastriginFunction();
+        func = implementation.equals("expression")
+                ? new ExpressionFunction(RASTRIGIN_EXPRESSION, rastrigin.getLowerBoundaries(), rastrigin.getUpperBoundaries(),
+                rastrigin.getGlobalMinValuePos(), rastrigin.getMinValue())
+                : rastrigin;
+        positions = new double[POINTS * 2];
+        values = new double[POINTS];
+
+        Random random = new Random(0);
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = -5.12 + random.nextDouble() * 10.24;
+        }
+    }
+
+    @Benchmark
+    public double[] getValues() {
+        func.getValues(positions, values, 0, POINTS);
+        return values;
+    }
+}
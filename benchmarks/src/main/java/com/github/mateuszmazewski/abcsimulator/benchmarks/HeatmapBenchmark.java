@@ -0,0 +1,41 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.visualization.FunctionHeatmap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The function values behind the chart, computed as on every resize of the window - without a JavaFX toolkit.
+// Functions in log scale use getLog10Values. With more dimensions (e.g. -p dim=10 for Ackley and Rastrigin)
+// the chart is a slice through the first two.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HeatmapBenchmark {
+
+    @Param({"AckleyFunction", "RastriginFunction", "RosenbrockFunction", "BealeFunction"})
+    private String function;
+
+    @Param({"2"})
+    private int dim;
+
+    @Param({"400", "800"})
+    private int size; // Pixels on each side of the square chart
+
+    private FunctionHeatmap heatmap;
+
+    @Setup
+    public void setup() {
+        heatmap = new FunctionHeatmap(TestFunctionUtils.createTestFunction(function, dim));
+    }
+
+    @Benchmark
+    public double[] update() {
+        heatmap.update(size, size);
+        return heatmap.getFuncValues();
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResults;
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.PhaseStats;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Writing and reading a results file with the full history, as saved from the GUI.
+// 100 food sources in 10 dimensions and 1000 iterations give a file of about 100 000 rows.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResultsIOBenchmark {
+
+    @Param({"100", "1000"})
+    private int maxIter;
+
+    @Param({"100"})
+    private int foodSourcesCount;
+
+    @Param({"10"})
+    private int dim;
+
+    private ABCResults results;
+    private final ABCResultsIO resultsIO = new ABCResultsIO(null);
+    private File writtenFile, readFile;
+
+    @Setup
+    public void setup() throws IOException {
+        ArtificialBeeColony abc = new ArtificialBeeColony(foodSourcesCount, maxIter,
+                TestFunctionUtils.createTestFunction("RastriginFunction", dim), 100, 0L);
+        abc.setPhaseStats(new PhaseStats());
+        abc.run();
+        results = new ABCResults(abc);
+
+        writtenFile = File.createTempFile("abc-results-write", ".txt");
+        readFile = File.createTempFile("abc-results-read", ".txt");
+        resultsIO.writeToFile(readFile, results);
+    }
+
+    @TearDown
+    public void tearDown() {
+        writtenFile.delete();
+        readFile.delete();
+    }
+
+    @Benchmark
+    public File write() throws IOException {
+        resultsIO.writeToFile(writtenFile, results);
+        return writtenFile;
+    }
+
+    @Benchmark
+    public ABCResults read() throws IOException {
+        return resultsIO.readFromFile(readFile);
+    }
+}
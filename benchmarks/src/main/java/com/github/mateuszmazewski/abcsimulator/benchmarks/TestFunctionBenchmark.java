@@ -0,0 +1,71 @@
+package com.github.mateuszmazewski.abcsimulator.benchmarks;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TrustedEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// A single evaluation of every bundled function, cycling through random points in its ranges: getValue validates
+// the point like the GUI does, trustedGetValue evaluates it like the colony does. Functions defined only
+// in 2 dimensions fail the setup with another dim, e.g. -p dim=30.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TestFunctionBenchmark {
+
+    private static final int POINTS = 1024; // Power of 2, so the next point is chosen with a mask
+
+    // JMH needs constants here, so the setup fails when a bundled function is missing from the list
+    @Param({"AckleyFunction", "BealeFunction", "BoothFunction", "GoldsteinPriceFunction", "MatyasFunction",
+            "RastriginFunction", "RosenbrockFunction", "SphereFunction", "ThreeHumpCamelFunction"})
+    private String function;
+
+    @Param({"2"})
+    private int dim;
+
+    private AbstractTestFunction func;
+    private TrustedEvaluator evaluator;
+    private double[][] positions;
+    private int next;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        List<String> missing = new ArrayList<>(TestFunctionUtils.bundledTestFunctionNames);
+        missing.removeAll(Arrays.asList(TestFunctionBenchmark.class.getDeclaredField("function").getAnnotation(Param.class).value()));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Functions missing from @Param function: " + missing);
+        }
+
+        func = TestFunctionUtils.createTestFunction(function, dim);
+        evaluator = func.trustedEvaluator(func.getLowerBoundaries(), func.getUpperBoundaries());
+        positions = new double[POINTS][dim];
+
+        Random random = new Random(0);
+        for (double[] pos : positions) {
+            for (int j = 0; j < dim; j++) {
+                double lb = func.getLowerBoundaries()[j];
+                double ub = func.getUpperBoundaries()[j];
+                pos[j] = lb + random.nextDouble() * (ub - lb);
+            }
+        }
+    }
+
+    @Benchmark
+    public double getValue() {
+        return func.getValue(positions[next++ & (POINTS - 1)]);
+    }
+
+    @Benchmark
+    public double trustedGetValue() {
+        return evaluator.getValue(positions[next++ & (POINTS - 1)]);
+    }
+}
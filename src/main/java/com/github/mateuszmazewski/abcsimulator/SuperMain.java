@@ -1,9 +1,36 @@
 package com.github.mateuszmazewski.abcsimulator;
 
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.batch.BatchMain;
+import com.github.mateuszmazewski.abcsimulator.batch.IslandsMain;
+import com.github.mateuszmazewski.abcsimulator.batch.SuiteMain;
+import com.github.mateuszmazewski.abcsimulator.batch.TuneMain;
+
+import java.util.Arrays;
+
 // This class exists in order to be able to run the app from the *.jar file on java11+
 public class SuperMain {
 
     public static void main(String[] args) {
-        Main.main(args);
+        if (args.length > 0 && args[0].startsWith("--")) {
+            reportPluginErrors(); // The application shows them in a dialog
+        }
+        if (args.length > 0 && args[0].equals(BatchMain.BATCH_ARG)) {
+            BatchMain.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(SuiteMain.SUITE_ARG)) {
+            SuiteMain.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals(TuneMain.TUNE_ARG)) {
+            TuneMain.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && (args[0].equals(IslandsMain.COORDINATOR_ARG) || args[0].equals(IslandsMain.WORKER_ARG))) {
+            IslandsMain.main(args);
+        } else {
+            Main.main(args);
+        }
+    }
+
+    private static void reportPluginErrors() {
+        for (String error : TestFunctionUtils.getPlugins().getErrors()) {
+            System.err.println("Plugin skipped: " + error);
+        }
     }
 }
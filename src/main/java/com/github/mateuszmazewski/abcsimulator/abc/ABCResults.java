@@ -1,47 +1,85 @@
 package com.github.mateuszmazewski.abcsimulator.abc;
 
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
 
 public class ABCResults {
 
     private String testFunctionName;
+    private String expression; // Only for ExpressionFunction, which cannot be created by its name
     private double[] minValuePos, foundMinValuePos;
     private double minValue, foundMinValue;
     private double[] lowerBoundaries, upperBoundaries;
     private int maxIter, foodSourcesCount, trialsLimit, bestIter;
-    private double[][][] allFoodSources;
-    private double[][] bestFoodSources;
-    private double[] bestFx;
-    private double[][] allFx;
+    private long seed;
+    private int lastIter;
+    private StopReason stopReason = StopReason.MAX_ITER;
+    private SelectionMode selectionMode = SelectionMode.FITNESS;
+    private IHistoryRecorder history;
+    private long cacheHits, cacheMisses; // Both 0 if the run did not use an evaluation cache
+    private int asyncEvaluations; // Evaluations kept in flight, 0 = synchronous run
+    private double iterationEquivalents;
+    private long evaluations, bestEvaluations; // Objective function evaluations in total and until the best was found
+    private PhaseStats phaseStats; // null if the phases were not measured
 
     public ABCResults(ArtificialBeeColony abc) {
         createResults(abc);
     }
 
     public ABCResults() {
-        minValuePos = new double[2];
-        foundMinValuePos = new double[2];
-        lowerBoundaries = new double[2];
-        upperBoundaries = new double[2];
+        this(2);
+    }
+
+    public ABCResults(int dim) {
+        setDim(dim);
     }
 
     private void createResults(ArtificialBeeColony abc) {
         AbstractTestFunction func = abc.getFunc();
         minValue = func.getMinValue();
         minValuePos = func.getMinValuePos();
-        testFunctionName = func.getClass().getSimpleName();
+        testFunctionName = func.getRegistryName();
+        if (func instanceof ExpressionFunction) {
+            expression = ((ExpressionFunction) func).getExpression();
+        }
         lowerBoundaries = func.getLowerBoundaries();
         upperBoundaries = func.getUpperBoundaries();
         maxIter = abc.getMaxIter();
         foodSourcesCount = abc.getFoodSourcesCount();
         trialsLimit = abc.getTrialsLimit();
-        allFoodSources = abc.getAllFoodSources();
-        bestFoodSources = abc.getBestFoodSources();
+        seed = abc.getSeed();
+        lastIter = abc.getLastIter();
+        stopReason = abc.getStopReason();
+        selectionMode = abc.getSelectionMode();
+        history = abc.getHistoryRecorder();
         bestIter = abc.getBestIter();
-        bestFx = abc.getBestFx();
-        allFx = abc.getAllFx();
-        foundMinValue = abc.getBestFx()[maxIter];
-        foundMinValuePos = abc.getBestFoodSources()[maxIter];
+        foundMinValue = abc.getBestFxSoFar();
+        foundMinValuePos = abc.getBestFoodSourceSoFar().clone();
+        asyncEvaluations = abc.getAsyncMaxInFlight();
+        iterationEquivalents = abc.getIterationEquivalents();
+        evaluations = abc.getEvaluations();
+        bestEvaluations = abc.getBestEvaluations();
+        phaseStats = abc.getPhaseStats();
+        if (abc.getEvaluationCache() != null) {
+            cacheHits = abc.getEvaluationCache().getHits();
+            cacheMisses = abc.getEvaluationCache().getMisses();
+        }
+    }
+
+    public int getDim() {
+        return lowerBoundaries.length;
+    }
+
+    // Replaces all position and boundary arrays with zeroed arrays of the given dimension
+    public void setDim(int dim) {
+        if (dim <= 0) {
+            throw new IllegalArgumentException("dim must be positive");
+        }
+        minValuePos = new double[dim];
+        foundMinValuePos = new double[dim];
+        lowerBoundaries = new double[dim];
+        upperBoundaries = new double[dim];
     }
 
     public String getTestFunctionName() {
@@ -52,6 +90,14 @@ public class ABCResults {
         this.testFunctionName = testFunctionName;
     }
 
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
     public double[] getMinValuePos() {
         return minValuePos;
     }
@@ -124,36 +170,44 @@ public class ABCResults {
         this.trialsLimit = trialsLimit;
     }
 
-    public double[][][] getAllFoodSources() {
-        return allFoodSources;
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public int getLastIter() {
+        return lastIter;
     }
 
-    public void setAllFoodSources(double[][][] allFoodSources) {
-        this.allFoodSources = allFoodSources;
+    public void setLastIter(int lastIter) {
+        this.lastIter = lastIter;
     }
 
-    public double[][] getBestFoodSources() {
-        return bestFoodSources;
+    public StopReason getStopReason() {
+        return stopReason;
     }
 
-    public void setBestFoodSources(double[][] bestFoodSources) {
-        this.bestFoodSources = bestFoodSources;
+    public void setStopReason(StopReason stopReason) {
+        this.stopReason = stopReason;
     }
 
-    public double[] getBestFx() {
-        return bestFx;
+    public SelectionMode getSelectionMode() {
+        return selectionMode;
     }
 
-    public void setBestFx(double[] bestFx) {
-        this.bestFx = bestFx;
+    public void setSelectionMode(SelectionMode selectionMode) {
+        this.selectionMode = selectionMode;
     }
 
-    public double[][] getAllFx() {
-        return allFx;
+    public IHistoryRecorder getHistory() {
+        return history;
     }
 
-    public void setAllFx(double[][] allFx) {
-        this.allFx = allFx;
+    public void setHistory(IHistoryRecorder history) {
+        this.history = history;
     }
 
     public int getBestIter() {
@@ -163,4 +217,60 @@ public class ABCResults {
     public void setBestIter(int bestIter) {
         this.bestIter = bestIter;
     }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public void setCacheHits(long cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public void setCacheMisses(long cacheMisses) {
+        this.cacheMisses = cacheMisses;
+    }
+
+    public int getAsyncEvaluations() {
+        return asyncEvaluations;
+    }
+
+    public void setAsyncEvaluations(int asyncEvaluations) {
+        this.asyncEvaluations = asyncEvaluations;
+    }
+
+    public double getIterationEquivalents() {
+        return iterationEquivalents;
+    }
+
+    public void setIterationEquivalents(double iterationEquivalents) {
+        this.iterationEquivalents = iterationEquivalents;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    public long getBestEvaluations() {
+        return bestEvaluations;
+    }
+
+    public void setBestEvaluations(long bestEvaluations) {
+        this.bestEvaluations = bestEvaluations;
+    }
+
+    public PhaseStats getPhaseStats() {
+        return phaseStats;
+    }
+
+    public void setPhaseStats(PhaseStats phaseStats) {
+        this.phaseStats = phaseStats;
+    }
 }
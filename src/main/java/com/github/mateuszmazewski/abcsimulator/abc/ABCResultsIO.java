@@ -1,5 +1,8 @@
 package com.github.mateuszmazewski.abcsimulator.abc;
 
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
 import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
 import javafx.stage.FileChooser;
@@ -10,23 +13,41 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public class ABCResultsIO {
 
     public static final String FUNCTION_PARAM = "function";
+    // Required for functions typed by the user - the rest of the line after '='
+    public static final String EXPRESSION_PARAM = "expression";
+    public static final String DIMENSION_PARAM = "dimension";
+    public static final String RANGE_PARAM_PREFIX = "range_";
+    // Files saved before N-dimensional support have only these two ranges
     public static final String X_RANGE_PARAM = "x_range";
     public static final String Y_RANGE_PARAM = "y_range";
     public static final String ITERATIONS_PARAM = "iterations";
     public static final String FOOD_SOURCES_COUNT_PARAM = "food_sources_count";
     public static final String TRIALS_LIMIT_PARAM = "trials_limit";
+    public static final String SEED_PARAM = "seed";
     public static final String MIN_POSSIBLE_VALUE_PARAM = "min_possible_value";
     public static final String MIN_POSSIBLE_VALUE_POSITION_PARAM = "min_possible_value_position";
     public static final String MIN_FOUND_VALUE_PARAM = "min_found_value";
     public static final String MIN_FOUND_VALUE_POSITION_PARAM = "min_found_value_position";
     public static final String BEST_ITERATION_PARAM = "best_iteration";
+    public static final String LAST_ITERATION_PARAM = "last_iteration";
+    public static final String STOP_REASON_PARAM = "stop_reason";
+    public static final String SELECTION_MODE_PARAM = "selection_mode";
+    public static final String CACHE_HITS_PARAM = "cache_hits";
+    public static final String CACHE_MISSES_PARAM = "cache_misses";
+    public static final String ASYNC_EVALUATIONS_PARAM = "async_evaluations";
+    public static final String ITERATION_EQUIVALENTS_PARAM = "iteration_equivalents";
+    public static final String EVALUATIONS_PARAM = "evaluations";
+    public static final String BEST_EVALUATIONS_PARAM = "best_evaluations";
+    private static final String EXPRESSION_FUNCTION_NAME = ExpressionFunction.class.getSimpleName();
     private final ObservableResourceFactory messagesFactory = ObservableResourceFactory.getInstance();
     private final Stage stage;
 
@@ -35,7 +56,7 @@ public class ABCResultsIO {
     }
 
     public void saveResults(ABCResults results) throws IOException {
-        if (results.getAllFoodSources() == null || results.getBestFoodSources() == null || results.getBestFx() == null) {
+        if (results.getHistory() == null) {
             throw new IOException("Saving error - empty results.");
         }
 
@@ -43,6 +64,7 @@ public class ABCResultsIO {
                 + "_fs" + results.getFoodSourcesCount()
                 + "_iter" + results.getMaxIter()
                 + "_limit" + results.getTrialsLimit()
+                + (results.getDim() != 2 ? "_dim" + results.getDim() : "")
                 + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd_HH.mm.ss"));
 
         FileChooser fileChooser = new FileChooser();
@@ -58,55 +80,128 @@ public class ABCResultsIO {
         }
     }
 
-    private void writeToFile(File file, ABCResults results) throws IOException {
-        double[][][] allFoodSources = results.getAllFoodSources();
-        double[][] bestFoodSources = results.getBestFoodSources();
-        double[] bestFx = results.getBestFx();
-        double[][] allFx = results.getAllFx();
+    // Without a file chooser, so results can also be written headless
+    public void writeToFile(File file, ABCResults results) throws IOException {
+        IHistoryRecorder history = results.getHistory();
         int maxIter = results.getMaxIter();
         int foodSourcesCount = results.getFoodSourcesCount();
+        int dim = results.getDim();
 
         BufferedWriter writer = new BufferedWriter(new FileWriter(file));
 
         writer.write(FUNCTION_PARAM + " = " + results.getTestFunctionName());
-        writer.write("\n" + X_RANGE_PARAM + " = " + results.getLowerBoundaries()[0] + " " + results.getUpperBoundaries()[0]);
-        writer.write("\n" + Y_RANGE_PARAM + " = " + results.getLowerBoundaries()[1] + " " + results.getUpperBoundaries()[1]);
+        if (results.getExpression() != null) {
+            writer.write("\n" + EXPRESSION_PARAM + " = " + results.getExpression());
+        }
+        writer.write("\n" + DIMENSION_PARAM + " = " + dim);
+        for (int i = 0; i < dim; i++) {
+            writer.write("\n" + RANGE_PARAM_PREFIX + (i + 1) + " = " + results.getLowerBoundaries()[i] + " " + results.getUpperBoundaries()[i]);
+        }
         writer.write("\n" + ITERATIONS_PARAM + " = " + maxIter);
         writer.write("\n" + FOOD_SOURCES_COUNT_PARAM + " = " + foodSourcesCount);
         writer.write("\n" + TRIALS_LIMIT_PARAM + " = " + results.getTrialsLimit());
+        writer.write("\n" + SEED_PARAM + " = " + results.getSeed());
+        writer.write("\n" + SELECTION_MODE_PARAM + " = " + results.getSelectionMode());
 
         writer.write("\n\n# Best possible solution");
         writer.write("\n" + MIN_POSSIBLE_VALUE_PARAM + " = " + results.getMinValue());
-        writer.write("\n" + MIN_POSSIBLE_VALUE_POSITION_PARAM + " = " + results.getMinValuePos()[0] + " " + results.getMinValuePos()[1]);
+        writer.write("\n" + MIN_POSSIBLE_VALUE_POSITION_PARAM + " = " + positionToString(results.getMinValuePos(), " "));
+
+        writer.write("\n\n# Why the run stopped");
+        writer.write("\n" + STOP_REASON_PARAM + " = " + results.getStopReason());
+        writer.write("\n" + LAST_ITERATION_PARAM + " = " + results.getLastIter());
+
+        writer.write("\n\n# Asynchronous run (0 evaluations in flight if synchronous)");
+        writer.write("\n" + ASYNC_EVALUATIONS_PARAM + " = " + results.getAsyncEvaluations());
+        writer.write("\n" + ITERATION_EQUIVALENTS_PARAM + " = " + results.getIterationEquivalents());
+
+        writer.write("\n\n# Evaluation budget");
+        writer.write("\n" + EVALUATIONS_PARAM + " = " + results.getEvaluations());
+        writer.write("\n" + BEST_EVALUATIONS_PARAM + " = " + results.getBestEvaluations());
+
+        writer.write("\n\n# Evaluation cache (0 if not used)");
+        writer.write("\n" + CACHE_HITS_PARAM + " = " + results.getCacheHits());
+        writer.write("\n" + CACHE_MISSES_PARAM + " = " + results.getCacheMisses());
 
         writer.write("\n\n# Best found solution");
         writer.write("\n" + BEST_ITERATION_PARAM + " = " + results.getBestIter());
         writer.write("\n" + MIN_FOUND_VALUE_PARAM + " = " + results.getFoundMinValue());
-        writer.write("\n" + MIN_FOUND_VALUE_POSITION_PARAM + " = " + results.getFoundMinValuePos()[0] + " " + results.getFoundMinValuePos()[1]);
+        writer.write("\n" + MIN_FOUND_VALUE_POSITION_PARAM + " = " + positionToString(results.getFoundMinValuePos(), " "));
 
         writer.write("\n\nIterations");
 
         writer.write("\n\n# Best solution in each iteration");
-        writer.write("\niteration\tbest_position_x\tbest_position_y\tbest_value\n");
+        writer.write("\niteration\t" + positionColumns("best_position", dim) + "\tbest_value\n");
 
         for (int iter = 0; iter <= maxIter; iter++) {
-            writer.write(iter + "\t" + bestFoodSources[iter][0] + "\t" + bestFoodSources[iter][1] + "\t" + bestFx[iter] + "\n");
+            if (!history.hasBest(iter)) {
+                continue;
+            }
+            writer.write(iter + "\t" + positionToString(history.getBestFoodSource(iter), "\t") + "\t" + history.getBestFx(iter) + "\n");
         }
 
         writer.write("\n# All solutions in each iteration");
-        writer.write("\niteration\tfood_source_number\tposition_x\tposition_y\tvalue\n");
+        writer.write("\niteration\tfood_source_number\t" + positionColumns("position", dim) + "\tvalue\n");
 
-        double[] foodSourcePos;
+        double[][] foodSources;
+        double[] fx;
         for (int iter = 0; iter <= maxIter; iter++) {
+            if (!history.hasFoodSources(iter)) {
+                continue;
+            }
+            foodSources = history.getFoodSources(iter);
+            fx = history.getFx(iter);
             for (int foodSource = 0; foodSource < foodSourcesCount; foodSource++) {
-                foodSourcePos = allFoodSources[iter][foodSource];
-                writer.write(iter + "\t" + foodSource + "\t" + foodSourcePos[0] + "\t" + foodSourcePos[1] + "\t" + allFx[iter][foodSource] + "\n");
+                writer.write(iter + "\t" + foodSource + "\t" + positionToString(foodSources[foodSource], "\t") + "\t" + fx[foodSource] + "\n");
+            }
+        }
+
+        PhaseStats phaseStats = results.getPhaseStats();
+        if (phaseStats != null) {
+            writer.write("\n# Phases of each iteration (no timings if asynchronous)");
+            writer.write("\niteration\tphase\tevaluations\tacceptances\tscout_resets\ttime_ns\n");
+            int lastIter = Math.min(results.getLastIter(), phaseStats.getMaxIter());
+            for (int iter = 0; iter <= lastIter; iter++) {
+                for (PhaseStats.Phase phase : PhaseStats.Phase.values()) {
+                    if ((iter == 0) != (phase == PhaseStats.Phase.INIT)) {
+                        continue;
+                    }
+                    writer.write(iter + "\t" + phase + "\t" + phaseStats.getEvaluations(phase, iter)
+                            + "\t" + phaseStats.getAcceptances(phase, iter) + "\t" + phaseStats.getScoutResets(phase, iter)
+                            + "\t" + phaseStats.getNanos(phase, iter) + "\n");
+                }
             }
         }
 
         writer.close();
     }
 
+    private static String positionToString(double[] pos, String delimiter) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pos.length; i++) {
+            if (i > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(pos[i]);
+        }
+        return sb.toString();
+    }
+
+    // 2D files keep the x/y column names they had before N-dimensional support
+    private static String positionColumns(String prefix, int dim) {
+        if (dim == 2) {
+            return prefix + "_x\t" + prefix + "_y";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= dim; i++) {
+            if (i > 1) {
+                sb.append("\t");
+            }
+            sb.append(prefix).append("_").append(i);
+        }
+        return sb.toString();
+    }
+
     public ABCResults readResults() throws IOException, NumberFormatException, ArrayIndexOutOfBoundsException {
         FileChooser fileChooser = new FileChooser();
         fileChooser.titleProperty().bind(messagesFactory.getStringBinding("fileChooser.read.title"));
@@ -122,10 +217,15 @@ public class ABCResultsIO {
         return results;
     }
 
-    private ABCResults readFromFile(File file) throws IOException, NumberFormatException, ArrayIndexOutOfBoundsException {
+    public ABCResults readFromFile(File file) throws IOException, NumberFormatException, ArrayIndexOutOfBoundsException {
         BufferedReader reader = new BufferedReader(new FileReader(file));
         ABCResults results = new ABCResults();
         Map<String, Boolean> foundParametersInFileMap = initFoundParametersInFileMap();
+        boolean lastIterFound = false;
+        boolean iterationEquivalentsFound = false;
+        // Dimension can be changed only until the first dimension-dependent parameter is read
+        boolean dimFixed = false;
+        Set<Integer> foundRanges = new HashSet<>();
 
         String line;
         String[] splitLine;
@@ -143,39 +243,41 @@ public class ABCResultsIO {
 
             splitLine = line.split("\\s+");
             splitLineLength = splitLine.length;
-            if (splitLineLength < 3 || splitLineLength > 4) {
+            if (splitLineLength < 3) {
                 throw new IOException("Wrong line format: line " + lineNumber);
             }
 
             switch (splitLine[0]) {
                 case FUNCTION_PARAM:
-                    if (!TestFunctionUtils.allTestFunctionNames.contains(splitLine[2])) {
+                    if (!splitLine[2].equals(EXPRESSION_FUNCTION_NAME)
+                            && !TestFunctionUtils.getAllTestFunctionNames().contains(splitLine[2])) {
                         throw new IOException("Unknown function: " + splitLine[2]);
                     }
                     results.setTestFunctionName(splitLine[2]);
                     foundParametersInFileMap.put(FUNCTION_PARAM, true);
                     break;
-                case X_RANGE_PARAM:
-                    if (splitLineLength != 4) {
-                        throw new IOException("Wrong line format: line " + lineNumber);
+                case EXPRESSION_PARAM:
+                    results.setExpression(line.substring(line.indexOf('=') + 1).trim());
+                    break;
+                case DIMENSION_PARAM:
+                    if (dimFixed) {
+                        throw new IOException("Parameter " + DIMENSION_PARAM + " must precede ranges and positions: line " + lineNumber);
                     }
-                    results.getLowerBoundaries()[0] = Double.parseDouble(splitLine[2]);
-                    results.getUpperBoundaries()[0] = Double.parseDouble(splitLine[3]);
-                    if (results.getLowerBoundaries()[0] > results.getUpperBoundaries()[0]) {
-                        throw new IOException("Wrong range <" + results.getLowerBoundaries()[0] + ", " + results.getUpperBoundaries()[0] + ">, line: " + lineNumber);
+                    try {
+                        results.setDim(Integer.parseInt(splitLine[2]));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Wrong dimension " + splitLine[2] + ": line " + lineNumber);
                     }
-                    foundParametersInFileMap.put(X_RANGE_PARAM, true);
+                    break;
+                case X_RANGE_PARAM:
+                    dimFixed = true;
+                    readRange(results, 0, splitLine, lineNumber);
+                    foundRanges.add(0);
                     break;
                 case Y_RANGE_PARAM:
-                    if (splitLineLength != 4) {
-                        throw new IOException("Wrong line format: line " + lineNumber);
-                    }
-                    results.getLowerBoundaries()[1] = Double.parseDouble(splitLine[2]);
-                    results.getUpperBoundaries()[1] = Double.parseDouble(splitLine[3]);
-                    if (results.getLowerBoundaries()[1] > results.getUpperBoundaries()[1]) {
-                        throw new IOException("Wrong range <" + results.getLowerBoundaries()[1] + ", " + results.getUpperBoundaries()[1] + ">, line: " + lineNumber);
-                    }
-                    foundParametersInFileMap.put(Y_RANGE_PARAM, true);
+                    dimFixed = true;
+                    readRange(results, 1, splitLine, lineNumber);
+                    foundRanges.add(1);
                     break;
                 case ITERATIONS_PARAM:
                     results.setMaxIter(Integer.parseInt(splitLine[2]));
@@ -189,15 +291,64 @@ public class ABCResultsIO {
                     results.setTrialsLimit(Integer.parseInt(splitLine[2]));
                     foundParametersInFileMap.put(TRIALS_LIMIT_PARAM, true);
                     break;
+                case SEED_PARAM:
+                    // Optional - files saved before seeds were recorded do not have it
+                    results.setSeed(Long.parseLong(splitLine[2]));
+                    break;
+                case SELECTION_MODE_PARAM:
+                    // Optional - files saved before selection modes were added compared fitness
+                    try {
+                        results.setSelectionMode(SelectionMode.valueOf(splitLine[2]));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unknown selection mode: " + splitLine[2] + ", line: " + lineNumber);
+                    }
+                    break;
                 case MIN_POSSIBLE_VALUE_PARAM:
                     results.setMinValue(Double.parseDouble(splitLine[2]));
                     foundParametersInFileMap.put(MIN_POSSIBLE_VALUE_PARAM, true);
                     break;
                 case MIN_POSSIBLE_VALUE_POSITION_PARAM:
-                    results.getMinValuePos()[0] = Double.parseDouble(splitLine[2]);
-                    results.getMinValuePos()[1] = Double.parseDouble(splitLine[3]);
+                    if (splitLineLength != results.getDim() + 2) {
+                        throw new IOException("Wrong line format: line " + lineNumber);
+                    }
+                    dimFixed = true;
+                    readPosition(results.getMinValuePos(), splitLine, 2, lineNumber);
                     foundParametersInFileMap.put(MIN_POSSIBLE_VALUE_POSITION_PARAM, true);
                     break;
+                case STOP_REASON_PARAM:
+                    // Optional - files saved before early stopping was added ran all iterations
+                    try {
+                        results.setStopReason(StopReason.valueOf(splitLine[2]));
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException("Unknown stop reason: " + splitLine[2] + ", line: " + lineNumber);
+                    }
+                    break;
+                case CACHE_HITS_PARAM:
+                    // Optional - files saved before the evaluation cache was added do not have cache counters
+                    results.setCacheHits(Long.parseLong(splitLine[2]));
+                    break;
+                case CACHE_MISSES_PARAM:
+                    results.setCacheMisses(Long.parseLong(splitLine[2]));
+                    break;
+                case ASYNC_EVALUATIONS_PARAM:
+                    // Optional - files saved before asynchronous runs were added come from synchronous runs
+                    results.setAsyncEvaluations(Integer.parseInt(splitLine[2]));
+                    break;
+                case ITERATION_EQUIVALENTS_PARAM:
+                    results.setIterationEquivalents(Double.parseDouble(splitLine[2]));
+                    iterationEquivalentsFound = true;
+                    break;
+                case EVALUATIONS_PARAM:
+                    // Optional - files saved before evaluations were counted have 0
+                    results.setEvaluations(Long.parseLong(splitLine[2]));
+                    break;
+                case BEST_EVALUATIONS_PARAM:
+                    results.setBestEvaluations(Long.parseLong(splitLine[2]));
+                    break;
+                case LAST_ITERATION_PARAM:
+                    results.setLastIter(Integer.parseInt(splitLine[2]));
+                    lastIterFound = true;
+                    break;
                 case BEST_ITERATION_PARAM:
                     results.setBestIter(Integer.parseInt(splitLine[2]));
                     foundParametersInFileMap.put(BEST_ITERATION_PARAM, true);
@@ -207,12 +358,26 @@ public class ABCResultsIO {
                     foundParametersInFileMap.put(MIN_FOUND_VALUE_PARAM, true);
                     break;
                 case MIN_FOUND_VALUE_POSITION_PARAM:
-                    results.getFoundMinValuePos()[0] = Double.parseDouble(splitLine[2]);
-                    results.getFoundMinValuePos()[1] = Double.parseDouble(splitLine[3]);
+                    if (splitLineLength != results.getDim() + 2) {
+                        throw new IOException("Wrong line format: line " + lineNumber);
+                    }
+                    dimFixed = true;
+                    readPosition(results.getFoundMinValuePos(), splitLine, 2, lineNumber);
                     foundParametersInFileMap.put(MIN_FOUND_VALUE_POSITION_PARAM, true);
                     break;
                 default:
-                    throw new IOException("Wrong line format: line " + lineNumber);
+                    if (!splitLine[0].startsWith(RANGE_PARAM_PREFIX)) {
+                        throw new IOException("Wrong line format: line " + lineNumber);
+                    }
+                    int rangeIndex;
+                    try {
+                        rangeIndex = Integer.parseInt(splitLine[0].substring(RANGE_PARAM_PREFIX.length())) - 1;
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Wrong line format: line " + lineNumber);
+                    }
+                    dimFixed = true;
+                    readRange(results, rangeIndex, splitLine, lineNumber);
+                    foundRanges.add(rangeIndex);
             }
         }
 
@@ -222,9 +387,29 @@ public class ABCResultsIO {
                 missingParams.add(entry.getKey());
             }
         }
+        for (int i = 0; i < results.getDim(); i++) {
+            if (!foundRanges.contains(i)) {
+                missingParams.add(RANGE_PARAM_PREFIX + (i + 1));
+            }
+        }
+        boolean expressionFunction = EXPRESSION_FUNCTION_NAME.equals(results.getTestFunctionName());
+        if (expressionFunction && results.getExpression() == null) {
+            missingParams.add(EXPRESSION_PARAM);
+        }
         if (!missingParams.isEmpty()) {
             throw new IOException("File is missing required parameters: " + String.join(", ", missingParams));
         }
+        if (!expressionFunction && results.getExpression() != null) {
+            throw new IOException("Parameter " + EXPRESSION_PARAM + " is only allowed for " + EXPRESSION_FUNCTION_NAME);
+        }
+        if (expressionFunction) {
+            try {
+                new ExpressionFunction(results.getExpression(), results.getLowerBoundaries(), results.getUpperBoundaries(),
+                        results.getMinValuePos(), results.getMinValue());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Wrong " + EXPRESSION_PARAM + ": " + e.getMessage(), e);
+            }
+        }
 
         if (results.getMaxIter() < ArtificialBeeColony.MAX_ITER_LOWER_LIMIT || results.getMaxIter() > ArtificialBeeColony.MAX_ITER_UPPER_LIMIT) {
             throw new IOException("Parameter " + ITERATIONS_PARAM + " must be in range" +
@@ -238,12 +423,34 @@ public class ABCResultsIO {
             throw new IOException("Parameter " + TRIALS_LIMIT_PARAM + " must be in range" +
                     " <" + ArtificialBeeColony.MIN_TRIALS_LIMIT + ", " + ArtificialBeeColony.MAX_TRIALS_LIMIT + ">");
         }
+        if (!lastIterFound) {
+            results.setLastIter(results.getMaxIter());
+        } else if (results.getLastIter() < 0 || results.getLastIter() > results.getMaxIter()) {
+            throw new IOException("Parameter " + LAST_ITERATION_PARAM + " must be in range <0, " + ITERATIONS_PARAM + ">");
+        }
+        if (!iterationEquivalentsFound) {
+            results.setIterationEquivalents(results.getLastIter());
+        } else if (!(results.getIterationEquivalents() >= 0.0) || results.getIterationEquivalents() > results.getMaxIter()) {
+            throw new IOException("Parameter " + ITERATION_EQUIVALENTS_PARAM + " must be in range <0, " + ITERATIONS_PARAM + ">");
+        }
+        if (results.getAsyncEvaluations() < 0) {
+            throw new IOException("Parameter " + ASYNC_EVALUATIONS_PARAM + " cannot be negative");
+        }
+        if (results.getBestEvaluations() < 0 || results.getBestEvaluations() > results.getEvaluations()) {
+            throw new IOException("Parameter " + BEST_EVALUATIONS_PARAM + " must be in range <0, " + EVALUATIONS_PARAM + ">");
+        }
 
 
-        results.setBestFoodSources(new double[results.getMaxIter() + 1][2]);
-        results.setAllFoodSources(new double[results.getMaxIter() + 1][results.getFoodSourcesCount()][2]);
-        results.setBestFx(new double[results.getMaxIter() + 1]);
-        results.setAllFx(new double[results.getMaxIter() + 1][results.getFoodSourcesCount()]);
+        // Whatever the file contains is loaded - it may be a subset of iterations if the run used another recorder
+        IHistoryRecorder history = new FullHistoryRecorder();
+        int dim = results.getDim();
+        history.init(results.getMaxIter(), results.getFoodSourcesCount(), dim);
+        results.setHistory(history);
+
+        // Food sources are listed iteration by iteration, so each iteration is collected and then recorded
+        double[][] iterFoodSources = new double[results.getFoodSourcesCount()][dim];
+        double[] iterFx = new double[results.getFoodSourcesCount()];
+        int currentIter = -1;
         int iter, foodSource;
 
         while ((line = reader.readLine()) != null) {
@@ -258,33 +465,83 @@ public class ABCResultsIO {
                 continue;
             }
 
-            if (splitLineLength == 4) {
+            // Phase rows are told apart by the phase name, their column count may match a position row
+            PhaseStats.Phase phase = splitLineLength == 6 ? parsePhase(splitLine[1]) : null;
+            if (phase != null) {
+                if (results.getPhaseStats() == null) {
+                    results.setPhaseStats(new PhaseStats());
+                    results.getPhaseStats().init(results.getMaxIter());
+                }
+                try {
+                    results.getPhaseStats().record(phase, Integer.parseInt(splitLine[0]), Long.parseLong(splitLine[2]),
+                            Long.parseLong(splitLine[3]), Long.parseLong(splitLine[4]), Long.parseLong(splitLine[5]));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Wrong phase row: line " + lineNumber);
+                }
+            } else if (splitLineLength == dim + 2) {
                 iter = Integer.parseInt(splitLine[0]);
-
-                results.getBestFoodSources()[iter][0] = Double.parseDouble(splitLine[1]);
-                results.getBestFoodSources()[iter][1] = Double.parseDouble(splitLine[2]);
-                results.getBestFx()[iter] = Double.parseDouble(splitLine[3]);
-            } else if (splitLineLength == 5) {
+                double[] bestFoodSource = new double[dim];
+                readPosition(bestFoodSource, splitLine, 1, lineNumber);
+                history.recordBest(iter, bestFoodSource, Double.parseDouble(splitLine[dim + 1]));
+            } else if (splitLineLength == dim + 3) {
                 iter = Integer.parseInt(splitLine[0]);
                 foodSource = Integer.parseInt(splitLine[1]);
+                if (iter != currentIter) {
+                    if (currentIter >= 0) {
+                        history.recordFoodSources(currentIter, iterFoodSources, iterFx);
+                    }
+                    currentIter = iter;
+                }
 
-                results.getAllFoodSources()[iter][foodSource][0] = Double.parseDouble(splitLine[2]);
-                results.getAllFoodSources()[iter][foodSource][1] = Double.parseDouble(splitLine[3]);
-                results.getAllFx()[iter][foodSource] = Double.parseDouble(splitLine[4]);
+                readPosition(iterFoodSources[foodSource], splitLine, 2, lineNumber);
+                iterFx[foodSource] = Double.parseDouble(splitLine[dim + 2]);
             } else {
                 throw new IOException("Wrong line format: line " + lineNumber);
             }
         }
+        if (currentIter >= 0) {
+            history.recordFoodSources(currentIter, iterFoodSources, iterFx);
+        }
 
         return results;
     }
 
+    private static PhaseStats.Phase parsePhase(String name) {
+        for (PhaseStats.Phase phase : PhaseStats.Phase.values()) {
+            if (phase.name().equals(name)) {
+                return phase;
+            }
+        }
+        return null;
+    }
+
+    private static void readRange(ABCResults results, int index, String[] splitLine, int lineNumber) throws IOException {
+        if (splitLine.length != 4 || index < 0 || index >= results.getDim()) {
+            throw new IOException("Wrong line format: line " + lineNumber);
+        }
+        double lowerBoundary = Double.parseDouble(splitLine[2]);
+        double upperBoundary = Double.parseDouble(splitLine[3]);
+        if (lowerBoundary > upperBoundary) {
+            throw new IOException("Wrong range <" + lowerBoundary + ", " + upperBoundary + ">, line: " + lineNumber);
+        }
+        results.getLowerBoundaries()[index] = lowerBoundary;
+        results.getUpperBoundaries()[index] = upperBoundary;
+    }
+
+    // Reads exactly pos.length coordinates starting at the given column
+    private static void readPosition(double[] pos, String[] splitLine, int firstColumn, int lineNumber) throws IOException {
+        if (splitLine.length < firstColumn + pos.length) {
+            throw new IOException("Wrong line format: line " + lineNumber);
+        }
+        for (int i = 0; i < pos.length; i++) {
+            pos[i] = Double.parseDouble(splitLine[firstColumn + i]);
+        }
+    }
+
     private Map<String, Boolean> initFoundParametersInFileMap() {
         Map<String, Boolean> map = new HashMap<>();
         Stream.of(
                 FUNCTION_PARAM,
-                X_RANGE_PARAM,
-                Y_RANGE_PARAM,
                 ITERATIONS_PARAM,
                 FOOD_SOURCES_COUNT_PARAM,
                 TRIALS_LIMIT_PARAM,
@@ -1,9 +1,35 @@
 package com.github.mateuszmazewski.abcsimulator.abc;
 
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TrustedEvaluator;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
 
 public class ArtificialBeeColony {
 
@@ -13,17 +39,22 @@ public class ArtificialBeeColony {
     public static final int MAX_ITER_UPPER_LIMIT = 10000;
     public static final int MIN_TRIALS_LIMIT = 0;
     public static final int MAX_TRIALS_LIMIT = 1000000;
+    private static final int CHECKPOINT_MAGIC = 0x41424343; // "ABCC"
+    private static final int CHECKPOINT_VERSION = 2;
 
     // -------------------------INPUT PARAMETERS-------------------------
     private final int foodSourcesCount;
     private final int maxIter;
     private final int trialsLimit; // Max number of trials to improve the solution
     private final AbstractTestFunction func;
+    private final long seed;
+    private final LongFunction<IRandomGenerator> rngFactory;
 
     // ------------------------FUNCTION PARAMETERS------------------------
     private int dim;
     private double[] lb;
     private double[] ub;
+    private TrustedEvaluator evaluator;
 
     // -------------------------CURRENT SOLUTIONS-------------------------
     private double[][] foodSources;
@@ -31,24 +62,78 @@ public class ArtificialBeeColony {
     private double[] fitness;
     private int[] trials;
 
+    // ------------------PREALLOCATED BUFFERS FOR THE MAIN LOOP------------------
+    private double[] candidate;
+    private FitnessTree fitnessTree; // Updated together with fitness
+    // Points evaluated together are stored one after another (point p starts at p * dim)
+    private double[] batchPositions;
+    private double[] batchFx;
+    private int[] scouts;
+
     // --------------OUTPUT: SOLUTIONS IN EACH ITERATION--------------
-    private double[][][] allFoodSources;
-    private double[][] allFx;
-    private double[][] bestFoodSources;
-    private double[] bestFx;
+    private IHistoryRecorder historyRecorder = new FullHistoryRecorder();
+    private boolean historyRecorderUsed; // By a run, whose results may still refer to it
+    private StopReason stopReason;
+    private int lastIter;
+    private int iter; // Last executed iteration
+    private boolean stopped;
+    private long startTime;
+    private long evaluations;
+    private long bestEvaluations; // Evaluations made until the best food source was found
+    private long acceptances; // Candidates which replaced their food source
+
+    // -------------------------STOP CRITERIA-------------------------
+    private StopCriteria stopCriteria = new StopCriteria();
+
+    private SelectionMode selectionMode = SelectionMode.FITNESS;
+
+    // -------------------------INSTRUMENTATION-------------------------
+    private PhaseStats phaseStats; // null = phases are not measured
+    private boolean phaseStatsUsed; // By a run, whose results may still refer to them
+    private long phaseStartNanos;
+    private long phaseStartEvaluations;
+    private long phaseStartAcceptances;
+
+    // -------------------------EVALUATION CACHE-------------------------
+    private EvaluationCache evaluationCache; // null = every position is evaluated
 
     // -------------------------------------------------------------------
     private double[] bestFoodSourceSoFar;
     private double bestFxSoFar;
     private int bestIter;
     private double bestFitnessSoFar = -Double.MAX_VALUE;
-    private final Random rng = new Random();
+    private IRandomGenerator rng;
+
+    // ---------------------PARALLEL EMPLOYED BEE PHASE---------------------
+    private ForkJoinPool employedPhasePool; // null = sequential employed bee phase
+    private IRandomGenerator[] foodSourceRngs; // One stream per food source - results do not depend on thread count
+
+    // ---------------------ASYNCHRONOUS STEADY-STATE RUN---------------------
+    private ExecutorService asyncExecutor; // null = synchronous bee phases
+    private int maxInFlight;
+    private double iterationEquivalents; // Applied employed and onlooker candidates / (2 * foodSourcesCount)
+
+    // ----------------------------CHECKPOINTS---------------------------
+    private CheckpointWriter checkpointWriter; // null = no checkpoints
+    private int checkpointInterval;
 
     public ArtificialBeeColony(int foodSourcesCount, int maxIter, AbstractTestFunction func, int trialsLimit) {
+        this(foodSourcesCount, maxIter, func, trialsLimit, ThreadLocalRandom.current().nextLong());
+    }
+
+    public ArtificialBeeColony(int foodSourcesCount, int maxIter, AbstractTestFunction func, int trialsLimit, long seed) {
+        this(foodSourcesCount, maxIter, func, trialsLimit, seed, Xoroshiro128PlusPlusGenerator::new);
+    }
+
+    // Every call to run() creates a new generator from the seed, so each run with the same seed is identical
+    public ArtificialBeeColony(int foodSourcesCount, int maxIter, AbstractTestFunction func, int trialsLimit,
+                               long seed, LongFunction<IRandomGenerator> rngFactory) {
         this.foodSourcesCount = foodSourcesCount;
         this.maxIter = maxIter;
         this.func = func;
         this.trialsLimit = trialsLimit;
+        this.seed = seed;
+        this.rngFactory = rngFactory;
 
         validateArgs();
     }
@@ -66,67 +151,469 @@ public class ArtificialBeeColony {
         if (trialsLimit < MIN_TRIALS_LIMIT || trialsLimit > MAX_TRIALS_LIMIT) {
             throw new IllegalArgumentException("limit of trials to improve the solution must be in range <" + MIN_TRIALS_LIMIT + ", " + MAX_TRIALS_LIMIT + ">");
         }
+        if (rngFactory == null) {
+            throw new IllegalArgumentException("random generator factory cannot be null");
+        }
     }
 
     public void run() {
+        if (asyncExecutor != null) {
+            checkNoCheckpoints();
+            runAsync();
+            return;
+        }
+        start();
+        while (step()) {
+            // All the work is done in step()
+        }
+        finish();
+    }
+
+    // Step-wise API for engines driving several colonies (e.g. islands): start(), step() until it returns false, finish()
+    public void start() {
+        startTime = System.nanoTime();
         init();
         rememberFoodSources(0); // Remember initial random solutions
+        stopReason = StopReason.MAX_ITER;
+        lastIter = maxIter;
+        iter = 0;
+        stopped = false;
+    }
+
+    // Runs one iteration, returns false when there are no more iterations to run or a stop criterion was met
+    public boolean step() {
+        if (stopped || iter >= maxIter) {
+            return false;
+        }
+
+        iter++;
+        beginPhase();
+        employedBeePhase();
+        endPhase(PhaseStats.Phase.EMPLOYED, iter, 0);
+        beginPhase();
+        onlookerBeePhase();
+        endPhase(PhaseStats.Phase.ONLOOKER, iter, 0);
+        beginPhase();
+        int scoutsCount = scoutBeePhase();
+        endPhase(PhaseStats.Phase.SCOUT, iter, scoutsCount);
+        rememberFoodSources(iter);
+
+        StopReason earlyStopReason = stopCriteria.check(iter, bestIter, bestFxSoFar, func.getMinValue(), evaluations, System.nanoTime() - startTime);
+        if (earlyStopReason != null) {
+            stop(earlyStopReason);
+        }
+        boolean hasNextIter = !stopped && iter < maxIter;
+        if (hasNextIter && checkpointWriter != null && iter % checkpointInterval == 0) {
+            checkpointWriter.submit(saveState());
+        }
+        return hasNextIter;
+    }
+
+    // Alternative to start(): continues the run saved in a checkpoint by a colony with the same parameters,
+    // function boundaries, random generator, history recorder and phase stats (set or not). Then step() and finish()
+    // give exactly the results of the run which was not interrupted, except for the evaluation cache, which starts empty.
+    public void resume(File checkpointFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+            restoreState(in);
+            if (in.read() != -1) {
+                throw new IOException("Unexpected data at the end of checkpoint " + checkpointFile);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Wrong checkpoint " + checkpointFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    // run() continued from a checkpoint
+    public void runFromCheckpoint(File checkpointFile) throws IOException {
+        checkNoCheckpoints();
+        resume(checkpointFile);
+        while (step()) {
+            // All the work is done in step()
+        }
+        finish();
+    }
 
-        for (int i = 1; i <= maxIter; i++) {
-            employedBeePhase();
-            onlookerBeePhase();
-            scoutBeePhase();
-            rememberFoodSources(i);
+    private void checkNoCheckpoints() {
+        if (asyncExecutor != null && checkpointWriter != null) {
+            throw new IllegalStateException("asynchronous runs cannot be checkpointed");
         }
     }
 
+    // Stops the colony after the current iteration - used by engines with their own stop criteria
+    public void stop(StopReason reason) {
+        stopReason = reason;
+        lastIter = iter;
+        stopped = true;
+    }
+
+    public void finish() {
+        iterationEquivalents = lastIter;
+        historyRecorder.recordLastFoodSources(lastIter, foodSources, fx);
+    }
+
+    // Replaces the worst food source with the given one if it is better, e.g. with a migrant from another colony
+    public boolean replaceWorstFoodSource(double[] pos, double posFx) {
+        int worst = 0;
+        for (int i = 1; i < foodSourcesCount; i++) {
+            if (isBetter(fx[worst], fitness[worst], fx[i], fitness[i])) {
+                worst = i;
+            }
+        }
+
+        double posFitness = calculateFitness(posFx);
+        if (!isBetter(posFx, posFitness, fx[worst], fitness[worst])) {
+            return false;
+        }
+        System.arraycopy(pos, 0, foodSources[worst], 0, dim);
+        fx[worst] = posFx;
+        fitness[worst] = posFitness;
+        fitnessTree.set(worst, posFitness);
+        trials[worst] = 0;
+        return true;
+    }
+
     private void init() {
+        allocate();
+        beginPhase();
+        generateRandomFoodSources(foodSourcesCount);
+        endPhase(PhaseStats.Phase.INIT, 0, 0);
+
+        if (employedPhasePool != null) {
+            createFoodSourceRngs();
+        }
+    }
+
+    // Creates the generator and the arrays of a new run and clears what the previous run left
+    private void allocate() {
+        if (checkpointWriter != null) {
+            checkpointWriter.awaitWritten(); // A checkpoint of the previous run must not replace the ones of this run
+        }
+        rng = rngFactory.apply(seed);
         dim = func.getDim();
         lb = func.getLowerBoundaries();
         ub = func.getUpperBoundaries();
+        // Every position is generated within or clamped into lb..ub, so it is enough to validate them once
+        evaluator = func.trustedEvaluator(lb, ub);
 
         foodSources = new double[foodSourcesCount][dim];
         fx = new double[foodSourcesCount];
         fitness = new double[foodSourcesCount];
         trials = new int[foodSourcesCount];
         Arrays.fill(trials, 0);
+        candidate = new double[dim];
+        fitnessTree = new FitnessTree(foodSourcesCount);
+        batchPositions = new double[foodSourcesCount * dim];
+        batchFx = new double[foodSourcesCount];
+        scouts = new int[foodSourcesCount];
 
-        // maxIter + 1 because we also save initial random solutions
-        allFoodSources = new double[maxIter + 1][foodSourcesCount][dim];
-        allFx = new double[maxIter + 1][foodSourcesCount];
-        bestFoodSources = new double[maxIter + 1][dim];
-        bestFx = new double[maxIter + 1];
+        if (historyRecorderUsed) {
+            historyRecorder = historyRecorder.newInstance();
+        }
+        historyRecorderUsed = true;
+        historyRecorder.init(maxIter, foodSourcesCount, dim);
+        if (evaluationCache != null) {
+            evaluationCache.clear();
+        }
 
-        bestFoodSourceSoFar = new double[2];
+        bestFoodSourceSoFar = new double[dim];
         bestFxSoFar = Double.MAX_VALUE;
+        evaluations = 0;
+        bestEvaluations = 0;
+        acceptances = 0;
         bestFitnessSoFar = -Double.MAX_VALUE;
+        if (phaseStats != null) {
+            if (phaseStatsUsed) {
+                phaseStats = new PhaseStats(); // Like the history, they stay with the results of the previous run
+            }
+            phaseStatsUsed = true;
+            phaseStats.init(maxIter);
+        }
 
         for (int i = 0; i < foodSourcesCount; i++) {
-            generateRandomFoodSource(i);
+            scouts[i] = i;
         }
+        foodSourceRngs = null;
     }
 
-    private void generateRandomFoodSource(int i) {
-        for (int j = 0; j < dim; j++) {
-            foodSources[i][j] = lb[j] + rng.nextDouble() * (ub[j] - lb[j]);
+    private void createFoodSourceRngs() {
+        IRandomGenerator masterRng = rng.split();
+        foodSourceRngs = new IRandomGenerator[foodSourcesCount];
+        for (int i = 0; i < foodSourcesCount; i++) {
+            foodSourceRngs[i] = masterRng.split();
+        }
+    }
+
+    // Everything needed to continue the run after the current iteration, read back by restoreState.
+    // Only what the next iterations change is copied here. The history of append-only recorders and
+    // the phase stats of past iterations are read on the writer thread, so a checkpoint does not stall
+    // the colony in proportion to the length of the history.
+    private CheckpointWriter.ICheckpoint saveState() {
+        int savedIter = iter;
+        byte[] state = toBytes(this::writeCurrentState);
+        IHistoryRecorder recorder = historyRecorder;
+        byte[] historyState = recorder.isAppendOnly() ? null : toBytes(out -> recorder.writeState(out, savedIter));
+        PhaseStats stats = phaseStats;
+
+        return out -> {
+            out.write(state);
+            if (historyState != null) {
+                out.write(historyState);
+            } else {
+                recorder.writeState(out, savedIter);
+            }
+            if (stats != null) {
+                stats.writeState(out, savedIter);
+            }
+        };
+    }
+
+    private static byte[] toBytes(CheckpointWriter.ICheckpoint part) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            part.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeCurrentState(DataOutputStream out) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        byte[] configuration = checkpointConfiguration();
+        out.writeInt(configuration.length);
+        out.write(configuration);
+
+        out.writeInt(iter);
+        out.writeLong(System.nanoTime() - startTime);
+        out.writeLong(evaluations);
+        out.writeLong(bestEvaluations);
+        out.writeLong(acceptances);
+        out.writeInt(bestIter);
+        out.writeDouble(bestFxSoFar);
+        out.writeDouble(bestFitnessSoFar);
+        writeDoubles(out, bestFoodSourceSoFar);
+        for (int i = 0; i < foodSourcesCount; i++) {
+            writeDoubles(out, foodSources[i]);
+            out.writeDouble(fx[i]);
+            out.writeDouble(fitness[i]);
+            out.writeInt(trials[i]);
+        }
+
+        writeLongs(out, rng.getState());
+        if (foodSourceRngs != null) {
+            for (IRandomGenerator sourceRng : foodSourceRngs) {
+                writeLongs(out, sourceRng.getState());
+            }
+        }
+    }
+
+    private void restoreState(DataInputStream in) throws IOException {
+        if (in.readInt() != CHECKPOINT_MAGIC) {
+            throw new IOException("Not a colony checkpoint");
+        }
+        int version = in.readInt();
+        if (version != CHECKPOINT_VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version);
+        }
+
+        allocate();
+        byte[] configuration = checkpointConfiguration();
+        int configurationLength = in.readInt();
+        byte[] savedConfiguration = new byte[Math.max(0, Math.min(configurationLength, configuration.length + 1))];
+        in.readFully(savedConfiguration);
+        if (configurationLength != configuration.length || !Arrays.equals(savedConfiguration, configuration)) {
+            throw new IOException("Checkpoint was saved by a colony with other parameters");
+        }
+
+        iter = in.readInt();
+        if (iter < 0 || iter >= maxIter) {
+            throw new IOException("Wrong iteration of the checkpoint: " + iter);
+        }
+        startTime = System.nanoTime() - in.readLong();
+        evaluations = in.readLong();
+        bestEvaluations = in.readLong();
+        acceptances = in.readLong();
+        bestIter = in.readInt();
+        bestFxSoFar = in.readDouble();
+        bestFitnessSoFar = in.readDouble();
+        readDoubles(in, bestFoodSourceSoFar);
+        for (int i = 0; i < foodSourcesCount; i++) {
+            readDoubles(in, foodSources[i]);
+            fx[i] = in.readDouble();
+            fitness[i] = in.readDouble();
+            trials[i] = in.readInt();
+            fitnessTree.set(i, fitness[i]);
+        }
+
+        long[] rngState = readLongs(in);
+        if (employedPhasePool != null) {
+            createFoodSourceRngs(); // Splits rng, so its state is restored afterwards
+            for (IRandomGenerator sourceRng : foodSourceRngs) {
+                sourceRng.setState(readLongs(in));
+            }
+        }
+        rng.setState(rngState);
+        historyRecorder.readState(in);
+        if (phaseStats != null) {
+            phaseStats.readState(in);
+        }
+
+        stopReason = StopReason.MAX_ITER;
+        lastIter = maxIter;
+        stopped = false;
+    }
+
+    // Everything a checkpoint must agree on with the colony restoring it
+    private byte[] checkpointConfiguration() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(foodSourcesCount);
+            out.writeInt(maxIter);
+            out.writeInt(trialsLimit);
+            out.writeLong(seed);
+            // Plugins and expressions share their classes, so they are told apart like in results files
+            out.writeUTF(func.getRegistryName());
+            out.writeUTF(func instanceof ExpressionFunction ? ((ExpressionFunction) func).getExpression() : "");
+            out.writeInt(dim);
+            writeDoubles(out, lb);
+            writeDoubles(out, ub);
+            out.writeUTF(selectionMode.name());
+            out.writeUTF(rng.getClass().getName());
+            out.writeBoolean(employedPhasePool != null);
+            out.writeUTF(historyRecorder.getClass().getName());
+            out.writeBoolean(phaseStats != null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static void readDoubles(DataInputStream in, double[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static long[] readLongs(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > 64) {
+            throw new IOException("Wrong length of the random generator state: " + length);
+        }
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    // Replaces the first count food sources listed in scouts with random ones, evaluated in one batch
+    private void generateRandomFoodSources(int count) {
+        for (int k = 0, offset = 0; k < count; k++, offset += dim) {
+            for (int j = 0; j < dim; j++) {
+                batchPositions[offset + j] = lb[j] + rng.nextDouble() * (ub[j] - lb[j]);
+            }
+        }
+
+        evaluations += evaluateBatch(0, count);
+
+        for (int k = 0; k < count; k++) {
+            int i = scouts[k];
+            System.arraycopy(batchPositions, k * dim, foodSources[i], 0, dim);
+            trials[i] = 0;
+            fx[i] = batchFx[k];
+            fitness[i] = calculateFitness(fx[i]);
+            fitnessTree.set(i, fitness[i]);
         }
-        trials[i] = 0;
-        fx[i] = func.getValue(foodSources[i]);
-        fitness[i] = calculateFitness(fx[i]);
     }
 
     private void employedBeePhase() {
+        if (employedPhasePool != null) {
+            parallelEmployedBeePhase();
+            return;
+        }
+
         for (int i = 0; i < foodSourcesCount; i++) {
             updateFoodSource(i);
         }
     }
 
+    private void parallelEmployedBeePhase() {
+        // All candidates are generated from the food sources as they were at the beginning of the phase
+        // and only then compared with them, so the outcome does not depend on the evaluation order
+        int threshold = Math.max(1, foodSourcesCount / (4 * employedPhasePool.getParallelism()));
+        evaluations += employedPhasePool.invoke(new CandidatesTask(0, foodSourcesCount, threshold));
+
+        for (int i = 0; i < foodSourcesCount; i++) {
+            greedySelection(i, batchPositions, i * dim, batchFx[i]);
+        }
+    }
+
+    private void generateCandidate(int i) {
+        IRandomGenerator sourceRng = foodSourceRngs[i];
+        int varToChange = sourceRng.nextInt(dim);
+        int partner;
+
+        do {
+            partner = sourceRng.nextInt(foodSourcesCount);
+        } while (partner == i);
+
+        double x = foodSources[i][varToChange];
+        double xp = foodSources[partner][varToChange];
+        double fi = 2 * sourceRng.nextDouble() - 1.0;
+
+        int offset = i * dim;
+        System.arraycopy(foodSources[i], 0, batchPositions, offset, dim);
+        batchPositions[offset + varToChange] = checkBoundaries(varToChange, x + fi * (x - xp));
+    }
+
+    // Returns the number of objective evaluations made by the task
+    private class CandidatesTask extends RecursiveTask<Integer> {
+
+        private final int from, to, threshold;
+
+        CandidatesTask(int from, int to, int threshold) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    generateCandidate(i);
+                }
+                return evaluateBatch(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                CandidatesTask left = new CandidatesTask(from, mid, threshold);
+                left.fork();
+                int rightEvaluations = new CandidatesTask(mid, to, threshold).compute();
+                return left.join() + rightEvaluations;
+            }
+        }
+    }
+
     private void updateFoodSource(int i) {
         int varToChange = rng.nextInt(dim);
         double xNew = updateSelectedVariable(i, varToChange);
-        double[] newPos = foodSources[i].clone();
-        newPos[varToChange] = xNew;
-        greedySelection(i, newPos);
+        System.arraycopy(foodSources[i], 0, candidate, 0, dim);
+        candidate[varToChange] = xNew;
+        greedySelection(i, candidate);
     }
 
     private double updateSelectedVariable(int i, int varToChange) {
@@ -147,80 +634,284 @@ public class ArtificialBeeColony {
     }
 
     private void greedySelection(int i, double[] newPos) {
-        double newFx = func.getValue(newPos);
+        greedySelection(i, newPos, 0, evaluate(newPos));
+    }
+
+    // The new position is read from newPos starting at offset
+    private void greedySelection(int i, double[] newPos, int offset, double newFx) {
         double newFitness = calculateFitness(newFx);
 
-        if (newFitness > fitness[i]) {
-            foodSources[i] = newPos;
+        if (isBetter(newFx, newFitness, fx[i], fitness[i])) {
+            // newPos is a reusable buffer, so it is copied into the food source instead of replacing it
+            System.arraycopy(newPos, offset, foodSources[i], 0, dim);
             fx[i] = newFx;
             fitness[i] = newFitness;
+            fitnessTree.set(i, newFitness);
             trials[i] = 0;
+            acceptances++;
         } else {
             trials[i]++;
         }
     }
 
     private void onlookerBeePhase() {
-        double[] probs = getProbabilities();
-        double rand, cumulativeProb;
-        int foodSource;
-
+        // Probabilities are taken from the fitness at the beginning of the phase
+        fitnessTree.beginSnapshot();
         for (int i = 0; i < foodSourcesCount; i++) {
-            rand = rng.nextDouble();
-            foodSource = 0;
-            cumulativeProb = probs[foodSource];
-
-            // roulette
-            while (rand > cumulativeProb) {
-                foodSource++;
-                cumulativeProb += probs[foodSource];
-            }
-
-            foodSource = Math.min(foodSource, foodSourcesCount - 1);
-            updateFoodSource(foodSource);
-        }
-    }
-
-    private double[] getProbabilities() {
-        double fitnessSum = Arrays.stream(fitness).sum();
-        double[] probs = new double[foodSourcesCount];
-
-        for (int i = 0; i < foodSourcesCount; i++) {
-            probs[i] = fitness[i] / fitnessSum;
+            updateFoodSource(fitnessTree.select(rng.nextDouble()));
         }
-
-        return probs;
+        fitnessTree.endSnapshot();
     }
 
     private void rememberFoodSources(int iter) {
         int bestFoodSourceIdx = -1;
 
         for (int i = 0; i < foodSourcesCount; i++) {
-            allFoodSources[iter][i] = foodSources[i].clone();
-            allFx[iter][i] = fx[i];
-
-            if (fitness[i] > bestFitnessSoFar) {
+            if (isBetter(fx[i], fitness[i], bestFxSoFar, bestFitnessSoFar)) {
                 bestFitnessSoFar = fitness[i];
+                bestFxSoFar = fx[i];
                 bestFoodSourceIdx = i;
             }
         }
 
         if (bestFoodSourceIdx >= 0) {
-            bestFoodSourceSoFar = foodSources[bestFoodSourceIdx].clone();
-            bestFxSoFar = fx[bestFoodSourceIdx];
+            System.arraycopy(foodSources[bestFoodSourceIdx], 0, bestFoodSourceSoFar, 0, dim);
             bestIter = iter;
+            bestEvaluations = evaluations;
         }
 
-        bestFoodSources[iter] = bestFoodSourceSoFar.clone();
-        bestFx[iter] = bestFxSoFar;
+        historyRecorder.recordFoodSources(iter, foodSources, fx);
+        historyRecorder.recordBest(iter, bestFoodSourceSoFar, bestFxSoFar);
     }
 
-    private void scoutBeePhase() {
+    // Returns the number of abandoned food sources
+    private int scoutBeePhase() {
+        int scoutsCount = 0;
         for (int i = 0; i < foodSourcesCount; i++) {
             if (trials[i] > trialsLimit) {
-                generateRandomFoodSource(i);
+                scouts[scoutsCount++] = i;
+            }
+        }
+        if (scoutsCount > 0) {
+            generateRandomFoodSources(scoutsCount);
+        }
+        return scoutsCount;
+    }
+
+    // Without phase stats measuring a phase costs a single null check
+    private void beginPhase() {
+        if (phaseStats != null) {
+            phaseStartEvaluations = evaluations;
+            phaseStartAcceptances = acceptances;
+            phaseStartNanos = System.nanoTime();
+        }
+    }
+
+    private void endPhase(PhaseStats.Phase phase, int iter, int scoutResets) {
+        if (phaseStats != null) {
+            long phaseNanos = System.nanoTime() - phaseStartNanos;
+            phaseStats.record(phase, iter, evaluations - phaseStartEvaluations, acceptances - phaseStartAcceptances,
+                    scoutResets, phaseNanos);
+        }
+    }
+
+    // Steady-state variant of run() for latency-bound objectives: up to maxInFlight candidates are evaluated
+    // concurrently and every result goes through the greedy selection as soon as it arrives. Candidates come in the
+    // synchronous order - an employed bee for every food source, then as many onlookers - but each one is created
+    // from the food sources as they are at its submission. A food source exceeding the trials limit sends a scout
+    // right away. Every 2 * foodSourcesCount applied candidates count as one iteration for the history and the stop
+    // criteria. Results depend on the completion order, so a seed reproduces a run only with maxInFlight = 1.
+    private void runAsync() {
+        startTime = System.nanoTime();
+        init(); // The initial food sources are evaluated in one synchronous batch
+        rememberFoodSources(0);
+        stopReason = StopReason.MAX_ITER;
+        lastIter = maxIter;
+        iter = 0;
+        stopped = false;
+
+        int candidatesPerIter = 2 * foodSourcesCount;
+        long candidatesCount = (long) maxIter * candidatesPerIter;
+        long submitted = 0, applied = 0;
+        CompletionService<AsyncEvaluation> completionService = new ExecutorCompletionService<>(asyncExecutor);
+        Set<Future<AsyncEvaluation>> inFlight = new HashSet<>();
+        ArrayDeque<AsyncEvaluation> ready = new ArrayDeque<>(); // Found in the evaluation cache
+        ArrayDeque<AsyncEvaluation> free = new ArrayDeque<>(); // Reused together with their position buffers
+        ArrayDeque<Integer> pendingScouts = new ArrayDeque<>();
+        boolean[] scouting = new boolean[foodSourcesCount];
+
+        try {
+            while (!stopped) {
+                while (inFlight.size() + ready.size() < maxInFlight && (!pendingScouts.isEmpty() || submitted < candidatesCount)) {
+                    AsyncEvaluation evaluation = free.isEmpty() ? new AsyncEvaluation() : free.poll();
+                    if (!pendingScouts.isEmpty()) {
+                        createScout(evaluation, pendingScouts.poll());
+                    } else {
+                        // Onlookers choose by the current fitness - there is no phase to take a snapshot of
+                        int k = (int) (submitted++ % candidatesPerIter);
+                        createCandidate(evaluation, k < foodSourcesCount ? k : fitnessTree.select(rng.nextDouble()));
+                        evaluation.onlooker = k >= foodSourcesCount;
+                    }
+
+                    Double cachedFx = evaluationCache != null ? evaluationCache.get(evaluation.pos, 0, dim) : null;
+                    if (cachedFx != null) {
+                        evaluation.fx = cachedFx;
+                        ready.add(evaluation);
+                    } else {
+                        inFlight.add(completionService.submit(evaluation));
+                    }
+                }
+
+                AsyncEvaluation evaluation;
+                long evaluationsBefore = evaluations, acceptancesBefore = acceptances;
+                if (!ready.isEmpty()) {
+                    evaluation = ready.poll();
+                } else if (!inFlight.isEmpty()) {
+                    Future<AsyncEvaluation> future = completionService.take();
+                    inFlight.remove(future);
+                    evaluation = future.get();
+                    evaluations++;
+                    if (evaluationCache != null) {
+                        evaluationCache.put(evaluation.pos, 0, dim, evaluation.fx);
+                    }
+                } else {
+                    break;
+                }
+
+                int i = evaluation.foodSource;
+                int phaseIter = (int) Math.min(maxIter, applied / candidatesPerIter + 1); // The iteration in progress
+                if (evaluation.scout) {
+                    System.arraycopy(evaluation.pos, 0, foodSources[i], 0, dim);
+                    fx[i] = evaluation.fx;
+                    fitness[i] = calculateFitness(evaluation.fx);
+                    fitnessTree.set(i, fitness[i]);
+                    trials[i] = 0;
+                    scouting[i] = false;
+                } else {
+                    greedySelection(i, evaluation.pos, 0, evaluation.fx);
+                    if (trials[i] > trialsLimit && !scouting[i]) {
+                        scouting[i] = true;
+                        pendingScouts.add(i);
+                    }
+
+                    if (++applied % candidatesPerIter == 0) {
+                        iter = (int) (applied / candidatesPerIter);
+                        rememberFoodSources(iter);
+                        StopReason earlyStopReason = stopCriteria.check(iter, bestIter, bestFxSoFar, func.getMinValue(), evaluations, System.nanoTime() - startTime);
+                        if (earlyStopReason != null) {
+                            stop(earlyStopReason);
+                        } else if (iter >= maxIter) {
+                            stop(StopReason.MAX_ITER); // Only scouts can still be running
+                        }
+                    }
+                }
+                if (phaseStats != null) {
+                    PhaseStats.Phase phase = evaluation.scout ? PhaseStats.Phase.SCOUT
+                            : evaluation.onlooker ? PhaseStats.Phase.ONLOOKER : PhaseStats.Phase.EMPLOYED;
+                    phaseStats.record(phase, phaseIter, evaluations - evaluationsBefore, acceptances - acceptancesBefore,
+                            evaluation.scout ? 1 : 0, 0);
+                }
+                free.add(evaluation);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Asynchronous run interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause
+                    : new IllegalStateException("Evaluation failed: " + cause, cause);
+        } finally {
+            for (Future<AsyncEvaluation> future : inFlight) {
+                future.cancel(true); // Abandoned - neither applied nor counted as evaluations
+            }
+        }
+
+        iterationEquivalents = (double) applied / candidatesPerIter;
+        historyRecorder.recordLastFoodSources(lastIter, foodSources, fx);
+    }
+
+    // Uses the random draws of updateFoodSource
+    private void createCandidate(AsyncEvaluation evaluation, int i) {
+        int varToChange = rng.nextInt(dim);
+        double xNew = updateSelectedVariable(i, varToChange);
+        System.arraycopy(foodSources[i], 0, evaluation.pos, 0, dim);
+        evaluation.pos[varToChange] = xNew;
+        evaluation.foodSource = i;
+        evaluation.scout = false;
+    }
+
+    private void createScout(AsyncEvaluation evaluation, int i) {
+        for (int j = 0; j < dim; j++) {
+            evaluation.pos[j] = lb[j] + rng.nextDouble() * (ub[j] - lb[j]);
+        }
+        evaluation.foodSource = i;
+        evaluation.scout = true;
+    }
+
+    // Written by the colony before submission and by the executor's thread only inside call()
+    private class AsyncEvaluation implements Callable<AsyncEvaluation> {
+
+        final double[] pos = new double[dim];
+        int foodSource;
+        boolean scout;
+        boolean onlooker;
+        double fx;
+
+        @Override
+        public AsyncEvaluation call() {
+            fx = evaluator.getValue(pos);
+            return this;
+        }
+    }
+
+    private double evaluate(double[] pos) {
+        if (evaluationCache != null) {
+            Double cachedFx = evaluationCache.get(pos, 0, dim);
+            if (cachedFx != null) {
+                return cachedFx;
             }
         }
+
+        evaluations++;
+        double newFx = evaluator.getValue(pos);
+        if (evaluationCache != null) {
+            evaluationCache.put(pos, 0, dim, newFx);
+        }
+        return newFx;
+    }
+
+    // Evaluates batch points from..to-1 into batchFx and returns the number of objective evaluations made
+    private int evaluateBatch(int from, int to) {
+        if (evaluationCache == null) {
+            evaluator.getValues(batchPositions, batchFx, from, to);
+            return to - from;
+        }
+
+        // Only the points missing in the cache are evaluated, as one smaller batch
+        int[] missed = new int[to - from];
+        double[] missedPositions = new double[(to - from) * dim];
+        int missedCount = 0;
+        for (int p = from; p < to; p++) {
+            Double cachedFx = evaluationCache.get(batchPositions, p * dim, dim);
+            if (cachedFx != null) {
+                batchFx[p] = cachedFx;
+            } else {
+                System.arraycopy(batchPositions, p * dim, missedPositions, missedCount * dim, dim);
+                missed[missedCount++] = p;
+            }
+        }
+
+        double[] missedFx = new double[missedCount];
+        evaluator.getValues(missedPositions, missedFx, 0, missedCount);
+        for (int k = 0; k < missedCount; k++) {
+            batchFx[missed[k]] = missedFx[k];
+            evaluationCache.put(missedPositions, k * dim, dim, missedFx[k]);
+        }
+        return missedCount;
+    }
+
+    private boolean isBetter(double fxA, double fitnessA, double fxB, double fitnessB) {
+        return selectionMode == SelectionMode.OBJECTIVE ? fxA < fxB : fitnessA > fitnessB;
     }
 
     private double calculateFitness(double fx) {
@@ -233,20 +924,134 @@ public class ArtificialBeeColony {
         return xNew;
     }
 
-    public double[][][] getAllFoodSources() {
-        return allFoodSources;
+    // Opt-in: evaluates the employed bee phase on the given pool, pass null to go back to the sequential phase.
+    // Seeded runs stay reproducible unless an evaluation cache with a non-zero quantum is set - its hits then depend
+    // on which thread cached a nearby point first.
+    public void setParallelEmployedPhase(ForkJoinPool pool) {
+        this.employedPhasePool = pool;
+    }
+
+    // Opt-in for latency-bound objectives: run() keeps up to maxInFlight evaluations running on the executor
+    // (see runAsync). Pass null to go back to the synchronous phases. The step-wise API is always synchronous.
+    public void setAsyncEvaluation(ExecutorService executor, int maxInFlight) {
+        if (executor != null && maxInFlight < 1) {
+            throw new IllegalArgumentException("number of evaluations in flight must be positive");
+        }
+        this.asyncExecutor = executor;
+        this.maxInFlight = executor != null ? maxInFlight : 0;
+    }
+
+    // Opt-in: at the end of every intervalIterations-th iteration of a synchronous run the state of the colony
+    // is handed to the writer (see resume). Pass null to stop checkpointing. A checkpoint holds the whole recorded
+    // history, so with FullHistoryRecorder each one is as large as the history so far. The colony copies it only
+    // for recorders which are not append-only (RingHistoryRecorder - at most its capacity).
+    public void setCheckpointWriter(CheckpointWriter checkpointWriter, int intervalIterations) {
+        if (checkpointWriter != null && intervalIterations < 1) {
+            throw new IllegalArgumentException("checkpoint interval must be positive");
+        }
+        this.checkpointWriter = checkpointWriter;
+        this.checkpointInterval = checkpointWriter != null ? intervalIterations : 0;
+    }
+
+    public CheckpointWriter getCheckpointWriter() {
+        return checkpointWriter;
+    }
+
+    // 0 = synchronous run
+    public int getAsyncMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setHistoryRecorder(IHistoryRecorder historyRecorder) {
+        if (historyRecorder == null) {
+            throw new IllegalArgumentException("history recorder cannot be null");
+        }
+        this.historyRecorder = historyRecorder;
+        this.historyRecorderUsed = false;
+    }
+
+    // Opt-in: pass null to evaluate every position again. The cache is cleared at the start of every run.
+    public void setEvaluationCache(EvaluationCache evaluationCache) {
+        this.evaluationCache = evaluationCache;
+    }
+
+    public EvaluationCache getEvaluationCache() {
+        return evaluationCache;
     }
 
-    public double[][] getAllFx() {
-        return allFx;
+    public void setStopCriteria(StopCriteria stopCriteria) {
+        if (stopCriteria == null) {
+            throw new IllegalArgumentException("stop criteria cannot be null");
+        }
+        this.stopCriteria = stopCriteria;
+    }
+
+    // Opt-in: pass null to stop measuring the phases. The stats are cleared at the start of every run.
+    public void setPhaseStats(PhaseStats phaseStats) {
+        this.phaseStats = phaseStats;
+        this.phaseStatsUsed = false;
+    }
+
+    public PhaseStats getPhaseStats() {
+        return phaseStats;
+    }
+
+    public void setSelectionMode(SelectionMode selectionMode) {
+        if (selectionMode == null) {
+            throw new IllegalArgumentException("selection mode cannot be null");
+        }
+        this.selectionMode = selectionMode;
+    }
+
+    public SelectionMode getSelectionMode() {
+        return selectionMode;
+    }
+
+    public StopCriteria getStopCriteria() {
+        return stopCriteria;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    // Number of the last executed iteration - less than maxIter if the run was stopped early
+    public int getLastIter() {
+        return lastIter;
+    }
+
+    public int getIter() {
+        return iter;
+    }
+
+    // Progress of the last run in iterations - equal to lastIter unless the run was asynchronous
+    public double getIterationEquivalents() {
+        return iterationEquivalents;
+    }
+
+    // Objective function calls - positions found in the evaluation cache are not counted
+    public long getEvaluations() {
+        return evaluations;
     }
 
-    public double[][] getBestFoodSources() {
-        return bestFoodSources;
+    public long getBestEvaluations() {
+        return bestEvaluations;
     }
 
-    public double[] getBestFx() {
-        return bestFx;
+    public long getAcceptances() {
+        return acceptances;
+    }
+
+    public IHistoryRecorder getHistoryRecorder() {
+        return historyRecorder;
+    }
+
+    public double[] getBestFoodSourceSoFar() {
+        return bestFoodSourceSoFar;
+    }
+
+    public double getBestFxSoFar() {
+        return bestFxSoFar;
     }
 
     public int getFoodSourcesCount() {
@@ -265,6 +1070,10 @@ public class ArtificialBeeColony {
         return bestIter;
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
     public AbstractTestFunction getFunc() {
         return func;
     }
@@ -0,0 +1,121 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Writes the checkpoints of a colony on a background thread, so the colony only pays for copying the part
+// of its state which the next iterations change.
+// Each one goes to a temporary file in the same directory, is synced and then moved over the previous one,
+// so the file always holds a whole checkpoint, even if the JVM dies while writing. When the colony is faster
+// than the disk, checkpoints waiting to be written are replaced with newer ones.
+public class CheckpointWriter implements AutoCloseable {
+
+    private final File file;
+    private final File tempFile;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<ICheckpoint> pending = new AtomicReference<>();
+    private volatile IOException error; // The first one
+    private volatile long writtenCount;
+
+    public CheckpointWriter(File file) {
+        if (file == null) {
+            throw new IllegalArgumentException("file cannot be null");
+        }
+        this.file = file.getAbsoluteFile();
+        this.tempFile = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+    }
+
+    // Called on the writer thread. It may only read state which does not change until awaitWritten() returns.
+    interface ICheckpoint {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    void submit(ICheckpoint checkpoint) {
+        // Only the first of the checkpoints waiting in a row schedules a write, which takes the newest one
+        if (pending.getAndSet(checkpoint) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    // Waits for the submitted checkpoints, after which the state they read may change
+    void awaitWritten() {
+        if (executor.isShutdown()) {
+            return; // Closed, nothing is being written
+        }
+        try {
+            executor.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e); // An empty task does not throw
+        }
+    }
+
+    private void writePending() {
+        ICheckpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null || error != null) {
+            return;
+        }
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+                checkpoint.write(out);
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            writtenCount++;
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new IOException(e.toString(), e);
+        }
+    }
+
+    // Waits for the last checkpoint to be written and throws the first error of all writes
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing checkpoint " + file, e);
+        }
+        if (error != null) {
+            throw new IOException("Cannot write checkpoint " + file + ": " + error.getMessage(), error);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public IOException getError() {
+        return error;
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded cache of objective values, evicting the least recently used position when full.
+// With a positive quantum positions are rounded to a grid with that step, so points closer than the quantum
+// may share one value - useful only for functions much more expensive than the lookup.
+public class EvaluationCache {
+
+    private final int capacity;
+    private final double quantum; // 0 = exact positions
+    private final LinkedHashMap<Key, Double> values;
+    private long hits, misses, evictions;
+
+    public EvaluationCache(int capacity) {
+        this(capacity, 0.0);
+    }
+
+    public EvaluationCache(int capacity, double quantum) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (!(quantum >= 0.0) || Double.isInfinite(quantum)) {
+            throw new IllegalArgumentException("quantum must be non-negative and finite");
+        }
+        this.capacity = capacity;
+        this.quantum = quantum;
+        this.values = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+                if (size() > EvaluationCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Removes all values and resets the counters
+    public synchronized void clear() {
+        values.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    // Returns null when the position stored in pos[offset..offset + dim) is not cached
+    public synchronized Double get(double[] pos, int offset, int dim) {
+        Double value = values.get(createKey(pos, offset, dim));
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    public synchronized void put(double[] pos, int offset, int dim, double value) {
+        values.put(createKey(pos, offset, dim), value);
+    }
+
+    private Key createKey(double[] pos, int offset, int dim) {
+        long[] coords = new long[dim];
+        for (int i = 0; i < dim; i++) {
+            double x = pos[offset + i];
+            coords[i] = quantum > 0.0 ? Math.round(x / quantum) : Double.doubleToLongBits(x);
+        }
+        return new Key(coords);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getQuantum() {
+        return quantum;
+    }
+
+    public synchronized int getSize() {
+        return values.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private static final class Key {
+
+        private final long[] coords;
+        private final int hash;
+
+        Key(long[] coords) {
+            this.coords = coords;
+            this.hash = Arrays.hashCode(coords);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(coords, ((Key) o).coords);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
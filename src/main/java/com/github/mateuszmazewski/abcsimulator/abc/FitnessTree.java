@@ -0,0 +1,97 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+// Fitness-proportional selection over sums kept up to date as single fitness values change.
+// A Fenwick tree holds the partial sums, so both an update and a draw are O(log n) and no phase
+// has to pass over the whole colony to rebuild them. Updates add the difference to every partial sum
+// on the path with compensated (Kahan) summation, which keeps the drift bounded over long runs.
+//
+// Between beginSnapshot() and endSnapshot() updates are only staged, so draws see the values
+// from the beginning of the snapshot - as the onlookers see the fitness from the beginning of their phase.
+class FitnessTree {
+
+    private final int size;
+    private final int highestStep;
+    private final double[] values;
+    private final double[] sums; // 1-based: sums[k] covers values (k - lowestBit(k)) .. k - 1
+    private final double[] compensations; // Low-order bits lost by sums[k], subtracted on read
+    private final double[] staged;
+    private final int[] stagedIndices;
+    private final boolean[] isStaged;
+    private int stagedCount;
+    private boolean snapshot;
+
+    FitnessTree(int size) {
+        this.size = size;
+        highestStep = Integer.highestOneBit(size);
+        values = new double[size];
+        sums = new double[size + 1];
+        compensations = new double[size + 1];
+        staged = new double[size];
+        stagedIndices = new int[size];
+        isStaged = new boolean[size];
+    }
+
+    void set(int i, double weight) {
+        if (snapshot) {
+            staged[i] = weight;
+            if (!isStaged[i]) {
+                isStaged[i] = true;
+                stagedIndices[stagedCount++] = i;
+            }
+            return;
+        }
+
+        double delta = weight - values[i];
+        values[i] = weight;
+        for (int k = i + 1; k <= size; k += k & -k) {
+            add(k, delta);
+        }
+    }
+
+    void beginSnapshot() {
+        snapshot = true;
+    }
+
+    // Applies the updates staged since beginSnapshot(), the last one for every index
+    void endSnapshot() {
+        snapshot = false;
+        for (int s = 0; s < stagedCount; s++) {
+            int i = stagedIndices[s];
+            isStaged[i] = false;
+            set(i, staged[i]);
+        }
+        stagedCount = 0;
+    }
+
+    double total() {
+        double total = 0.0;
+        for (int k = size; k > 0; k -= k & -k) {
+            total += sums[k] - compensations[k];
+        }
+        return total;
+    }
+
+    // Returns the first index whose cumulative probability is not less than rand from <0, 1)
+    int select(double rand) {
+        double target = rand * total();
+        int pos = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size) {
+                double sum = sums[next] - compensations[next];
+                if (sum < target) {
+                    pos = next;
+                    target -= sum;
+                }
+            }
+        }
+        return Math.min(pos, size - 1); // Rounding may leave the whole sum below target
+    }
+
+    private void add(int k, double delta) {
+        double y = delta - compensations[k];
+        double t = sums[k] + y;
+        compensations[k] = (t - sums[k]) - y;
+        sums[k] = t;
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Counters and timings of every phase of every iteration, filled in by the colony only when set on it.
+// Iteration 0 holds the random initial food sources (INIT). Asynchronous runs record the counts
+// of the iteration each candidate counts towards, but no timings, because their phases overlap.
+public class PhaseStats {
+
+    public enum Phase {
+        INIT,
+        EMPLOYED,
+        ONLOOKER,
+        SCOUT
+    }
+
+    private static final int PHASES_COUNT = Phase.values().length;
+
+    private int maxIter;
+    private long[] evaluations; // [iter * PHASES_COUNT + phase]
+    private long[] acceptances; // Candidates which replaced their food source
+    private long[] scoutResets; // Food sources abandoned and replaced with random ones
+    private long[] nanos;
+
+    public PhaseStats() {
+        init(0);
+    }
+
+    public void init(int maxIter) {
+        if (maxIter < 0) {
+            throw new IllegalArgumentException("max iterations cannot be negative");
+        }
+        this.maxIter = maxIter;
+        int size = (maxIter + 1) * PHASES_COUNT;
+        evaluations = new long[size];
+        acceptances = new long[size];
+        scoutResets = new long[size];
+        nanos = new long[size];
+    }
+
+    // Adds to the counters, so a phase can be recorded in parts
+    public void record(Phase phase, int iter, long evaluations, long acceptances, long scoutResets, long nanos) {
+        int i = index(phase, iter);
+        this.evaluations[i] += evaluations;
+        this.acceptances[i] += acceptances;
+        this.scoutResets[i] += scoutResets;
+        this.nanos[i] += nanos;
+    }
+
+    // Checkpoints hold the counters of iterations 0..lastIter only. Synchronous runs do not change them anymore,
+    // so they are written on the checkpoint thread.
+    void writeState(DataOutput out, int lastIter) throws IOException {
+        int size = (lastIter + 1) * PHASES_COUNT;
+        out.writeInt(lastIter);
+        for (long[] counters : new long[][]{evaluations, acceptances, scoutResets, nanos}) {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(counters[i]);
+            }
+        }
+    }
+
+    // Called after init(maxIter)
+    void readState(DataInput in) throws IOException {
+        int lastIter = in.readInt();
+        if (lastIter < 0 || lastIter > maxIter) {
+            throw new IOException("Wrong iteration of the phase stats: " + lastIter);
+        }
+        int size = (lastIter + 1) * PHASES_COUNT;
+        for (long[] counters : new long[][]{evaluations, acceptances, scoutResets, nanos}) {
+            for (int i = 0; i < size; i++) {
+                counters[i] = in.readLong();
+            }
+        }
+    }
+
+    private int index(Phase phase, int iter) {
+        if (iter < 0 || iter > maxIter) {
+            throw new IllegalArgumentException("iteration must be in range <0, " + maxIter + ">");
+        }
+        return iter * PHASES_COUNT + phase.ordinal();
+    }
+
+    public int getMaxIter() {
+        return maxIter;
+    }
+
+    public long getEvaluations(Phase phase, int iter) {
+        return evaluations[index(phase, iter)];
+    }
+
+    public long getAcceptances(Phase phase, int iter) {
+        return acceptances[index(phase, iter)];
+    }
+
+    public long getScoutResets(Phase phase, int iter) {
+        return scoutResets[index(phase, iter)];
+    }
+
+    public long getNanos(Phase phase, int iter) {
+        return nanos[index(phase, iter)];
+    }
+
+    public long getTotalEvaluations(Phase phase) {
+        return total(evaluations, phase);
+    }
+
+    public long getTotalAcceptances(Phase phase) {
+        return total(acceptances, phase);
+    }
+
+    public long getTotalScoutResets(Phase phase) {
+        return total(scoutResets, phase);
+    }
+
+    public long getTotalNanos(Phase phase) {
+        return total(nanos, phase);
+    }
+
+    private static long total(long[] counters, Phase phase) {
+        long total = 0;
+        for (int i = phase.ordinal(); i < counters.length; i += PHASES_COUNT) {
+            total += counters[i];
+        }
+        return total;
+    }
+}
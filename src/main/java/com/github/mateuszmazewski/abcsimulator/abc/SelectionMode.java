@@ -0,0 +1,8 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+// How food sources are compared in the greedy selection, when looking for the best one and when replacing the worst one.
+// Onlookers choose food sources by fitness in both modes.
+public enum SelectionMode {
+    FITNESS, // Classic ABC: fitness 1 / (1 + fx), which is exactly 1.0 for every fx below about 1e-16
+    OBJECTIVE // Raw objective values - improvements are accepted down to the smallest representable values
+}
@@ -0,0 +1,72 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+// Optional criteria which stop the colony before maxIter iterations. Any combination can be enabled,
+// the first one met stops the run. They are checked after every iteration, so MAX_EVALUATIONS
+// may be exceeded by the evaluations of a single iteration.
+public class StopCriteria {
+
+    private double targetError = Double.NaN; // NaN = disabled
+    private int stagnationIterations; // 0 = disabled
+    private long maxEvaluations; // 0 = disabled
+    private long timeLimitMillis; // 0 = disabled
+
+    public StopReason check(int iter, int bestIter, double bestFx, double minValue, long evaluations, long elapsedNanos) {
+        if (!Double.isNaN(targetError) && Math.abs(bestFx - minValue) <= targetError) {
+            return StopReason.TARGET_ERROR;
+        }
+        if (stagnationIterations > 0 && iter - bestIter >= stagnationIterations) {
+            return StopReason.STAGNATION;
+        }
+        if (maxEvaluations > 0 && evaluations >= maxEvaluations) {
+            return StopReason.MAX_EVALUATIONS;
+        }
+        if (timeLimitMillis > 0 && elapsedNanos >= timeLimitMillis * 1_000_000L) {
+            return StopReason.DEADLINE;
+        }
+        return null;
+    }
+
+    public double getTargetError() {
+        return targetError;
+    }
+
+    public void setTargetError(double targetError) {
+        if (targetError < 0.0) {
+            throw new IllegalArgumentException("target error cannot be negative");
+        }
+        this.targetError = targetError;
+    }
+
+    public int getStagnationIterations() {
+        return stagnationIterations;
+    }
+
+    public void setStagnationIterations(int stagnationIterations) {
+        if (stagnationIterations < 0) {
+            throw new IllegalArgumentException("number of iterations without improvement cannot be negative");
+        }
+        this.stagnationIterations = stagnationIterations;
+    }
+
+    public long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(long maxEvaluations) {
+        if (maxEvaluations < 0) {
+            throw new IllegalArgumentException("max number of function evaluations cannot be negative");
+        }
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    public long getTimeLimitMillis() {
+        return timeLimitMillis;
+    }
+
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("time limit cannot be negative");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+}
@@ -0,0 +1,9 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+public enum StopReason {
+    MAX_ITER,
+    TARGET_ERROR,
+    STAGNATION,
+    MAX_EVALUATIONS,
+    DEADLINE
+}
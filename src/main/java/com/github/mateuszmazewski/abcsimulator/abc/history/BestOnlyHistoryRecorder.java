@@ -0,0 +1,146 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Keeps the best solution found so far in each iteration, which is enough for the error chart
+public class BestOnlyHistoryRecorder implements IHistoryRecorder {
+
+    protected int maxIter, foodSourcesCount, dim;
+    private double[][] bestFoodSources;
+    private double[] bestFx;
+    private boolean[] bestRecorded;
+
+    @Override
+    public void init(int maxIter, int foodSourcesCount, int dim) {
+        this.maxIter = maxIter;
+        this.foodSourcesCount = foodSourcesCount;
+        this.dim = dim;
+
+        // maxIter + 1 because initial random solutions are also recorded
+        bestFoodSources = new double[maxIter + 1][dim];
+        bestFx = new double[maxIter + 1];
+        bestRecorded = new boolean[maxIter + 1];
+    }
+
+    @Override
+    public IHistoryRecorder newInstance() {
+        return new BestOnlyHistoryRecorder();
+    }
+
+    @Override
+    public void recordBest(int iter, double[] bestFoodSource, double bestFx) {
+        System.arraycopy(bestFoodSource, 0, bestFoodSources[iter], 0, dim);
+        this.bestFx[iter] = bestFx;
+        bestRecorded[iter] = true;
+    }
+
+    @Override
+    public void recordFoodSources(int iter, double[][] foodSources, double[] fx) {
+    }
+
+    @Override
+    public boolean hasBest(int iter) {
+        return iter >= 0 && iter <= maxIter && bestRecorded[iter];
+    }
+
+    @Override
+    public double[] getBestFoodSource(int iter) {
+        return hasBest(iter) ? bestFoodSources[iter] : null;
+    }
+
+    @Override
+    public double getBestFx(int iter) {
+        return hasBest(iter) ? bestFx[iter] : Double.NaN;
+    }
+
+    @Override
+    public boolean hasFoodSources(int iter) {
+        return false;
+    }
+
+    @Override
+    public double[][] getFoodSources(int iter) {
+        return null;
+    }
+
+    @Override
+    public double[] getFx(int iter) {
+        return null;
+    }
+
+    // Only the recorded iterations
+    @Override
+    public void writeState(DataOutput out, int lastIter) throws IOException {
+        int count = 0;
+        for (int iter = 0; iter <= lastIter; iter++) {
+            count += bestRecorded[iter] ? 1 : 0;
+        }
+        out.writeInt(count);
+        for (int iter = 0; iter <= lastIter; iter++) {
+            if (bestRecorded[iter]) {
+                out.writeInt(iter);
+                writeDoubles(out, bestFoodSources[iter]);
+                out.writeDouble(bestFx[iter]);
+            }
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int k = 0; k < count; k++) {
+            int iter = readIteration(in);
+            readDoubles(in, bestFoodSources[iter]);
+            bestFx[iter] = in.readDouble();
+            bestRecorded[iter] = true;
+        }
+    }
+
+    @Override
+    public boolean isAppendOnly() {
+        return true;
+    }
+
+    protected int readIteration(DataInput in) throws IOException {
+        int iter = in.readInt();
+        if (iter < 0 || iter > maxIter) {
+            throw new IOException("Wrong iteration of the history: " + iter);
+        }
+        return iter;
+    }
+
+    protected static void writeDoubles(DataOutput out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    protected static void readDoubles(DataInput in, double[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+
+    protected void writeFoodSources(DataOutput out, double[][] foodSources, double[] fx) throws IOException {
+        for (double[] foodSource : foodSources) {
+            writeDoubles(out, foodSource);
+        }
+        writeDoubles(out, fx);
+    }
+
+    protected void readFoodSources(DataInput in, double[][] foodSources, double[] fx) throws IOException {
+        for (double[] foodSource : foodSources) {
+            readDoubles(in, foodSource);
+        }
+        readDoubles(in, fx);
+    }
+
+    protected static void copyFoodSources(double[][] src, double[] srcFx, double[][] dest, double[] destFx) {
+        for (int i = 0; i < src.length; i++) {
+            System.arraycopy(src[i], 0, dest[i], 0, src[i].length);
+        }
+        System.arraycopy(srcFx, 0, destFx, 0, srcFx.length);
+    }
+}
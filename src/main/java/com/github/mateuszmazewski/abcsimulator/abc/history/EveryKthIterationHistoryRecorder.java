@@ -0,0 +1,102 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Keeps all food sources of the initial, every k-th and the last iteration.
+// Memory for an iteration is allocated only when it is recorded.
+public class EveryKthIterationHistoryRecorder extends BestOnlyHistoryRecorder {
+
+    private final int k;
+    private double[][][] allFoodSources;
+    private double[][] allFx;
+
+    public EveryKthIterationHistoryRecorder(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+    }
+
+    @Override
+    public void init(int maxIter, int foodSourcesCount, int dim) {
+        super.init(maxIter, foodSourcesCount, dim);
+        allFoodSources = new double[maxIter + 1][][];
+        allFx = new double[maxIter + 1][];
+    }
+
+    @Override
+    public IHistoryRecorder newInstance() {
+        return new EveryKthIterationHistoryRecorder(k);
+    }
+
+    @Override
+    public void recordFoodSources(int iter, double[][] foodSources, double[] fx) {
+        if (iter % k == 0) {
+            store(iter, foodSources, fx);
+        }
+    }
+
+    @Override
+    public void recordLastFoodSources(int iter, double[][] foodSources, double[] fx) {
+        if (!hasFoodSources(iter)) {
+            store(iter, foodSources, fx);
+        }
+    }
+
+    private void store(int iter, double[][] foodSources, double[] fx) {
+        if (allFoodSources[iter] == null) {
+            allFoodSources[iter] = new double[foodSourcesCount][dim];
+            allFx[iter] = new double[foodSourcesCount];
+        }
+        copyFoodSources(foodSources, fx, allFoodSources[iter], allFx[iter]);
+    }
+
+    @Override
+    public boolean hasFoodSources(int iter) {
+        return iter >= 0 && iter <= maxIter && allFoodSources[iter] != null;
+    }
+
+    @Override
+    public double[][] getFoodSources(int iter) {
+        return hasFoodSources(iter) ? allFoodSources[iter] : null;
+    }
+
+    @Override
+    public double[] getFx(int iter) {
+        return hasFoodSources(iter) ? allFx[iter] : null;
+    }
+
+    @Override
+    public void writeState(DataOutput out, int lastIter) throws IOException {
+        super.writeState(out, lastIter);
+        int count = 0;
+        for (int iter = 0; iter <= lastIter; iter++) {
+            count += allFoodSources[iter] != null ? 1 : 0;
+        }
+        out.writeInt(count);
+        for (int iter = 0; iter <= lastIter; iter++) {
+            if (allFoodSources[iter] != null) {
+                out.writeInt(iter);
+                writeFoodSources(out, allFoodSources[iter], allFx[iter]);
+            }
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        int count = in.readInt();
+        for (int k = 0; k < count; k++) {
+            int iter = readIteration(in);
+            allFoodSources[iter] = new double[foodSourcesCount][dim];
+            allFx[iter] = new double[foodSourcesCount];
+            readFoodSources(in, allFoodSources[iter], allFx[iter]);
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+public class FullHistoryRecorder extends EveryKthIterationHistoryRecorder {
+
+    public FullHistoryRecorder() {
+        super(1);
+    }
+
+    @Override
+    public IHistoryRecorder newInstance() {
+        return new FullHistoryRecorder();
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Decides which part of the colony's history is kept. Recorders copy the arrays they are given,
+// because the colony reuses them in the next iterations.
+public interface IHistoryRecorder {
+
+    void init(int maxIter, int foodSourcesCount, int dim);
+
+    // An empty recorder of the same kind. A colony run again records into a new one, so the results
+    // of the previous run keep their history.
+    IHistoryRecorder newInstance();
+
+    void recordBest(int iter, double[] bestFoodSource, double bestFx);
+
+    void recordFoodSources(int iter, double[][] foodSources, double[] fx);
+
+    // Called once after the last executed iteration, which is not always maxIter
+    default void recordLastFoodSources(int iter, double[][] foodSources, double[] fx) {
+    }
+
+    boolean hasBest(int iter);
+
+    double[] getBestFoodSource(int iter);
+
+    double getBestFx(int iter);
+
+    boolean hasFoodSources(int iter);
+
+    double[][] getFoodSources(int iter);
+
+    double[] getFx(int iter);
+
+    // Checkpoints of the colony include what was recorded up to lastIter. readState is called right after init().
+    void writeState(DataOutput out, int lastIter) throws IOException;
+
+    void readState(DataInput in) throws IOException;
+
+    // True if recorded iterations never change afterwards. Then writeState can run on the checkpoint thread
+    // while the colony records the next iterations, so the history does not have to be copied on the colony's thread.
+    default boolean isAppendOnly() {
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+
+public class NoHistoryRecorder implements IHistoryRecorder {
+
+    @Override
+    public void init(int maxIter, int foodSourcesCount, int dim) {
+    }
+
+    @Override
+    public IHistoryRecorder newInstance() {
+        return this; // Records nothing, so runs can share it
+    }
+
+    @Override
+    public void recordBest(int iter, double[] bestFoodSource, double bestFx) {
+    }
+
+    @Override
+    public void recordFoodSources(int iter, double[][] foodSources, double[] fx) {
+    }
+
+    @Override
+    public boolean hasBest(int iter) {
+        return false;
+    }
+
+    @Override
+    public double[] getBestFoodSource(int iter) {
+        return null;
+    }
+
+    @Override
+    public double getBestFx(int iter) {
+        return Double.NaN;
+    }
+
+    @Override
+    public boolean hasFoodSources(int iter) {
+        return false;
+    }
+
+    @Override
+    public double[][] getFoodSources(int iter) {
+        return null;
+    }
+
+    @Override
+    public double[] getFx(int iter) {
+        return null;
+    }
+
+    @Override
+    public void writeState(DataOutput out, int lastIter) {
+    }
+
+    @Override
+    public void readState(DataInput in) {
+    }
+
+    @Override
+    public boolean isAppendOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.mateuszmazewski.abcsimulator.abc.history;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Keeps all food sources of the most recent iterations only. The ring is allocated once in init().
+public class RingHistoryRecorder extends BestOnlyHistoryRecorder {
+
+    private final int capacity;
+    private double[][][] ringFoodSources;
+    private double[][] ringFx;
+    private int[] ringIters;
+
+    public RingHistoryRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void init(int maxIter, int foodSourcesCount, int dim) {
+        super.init(maxIter, foodSourcesCount, dim);
+        int slots = Math.min(capacity, maxIter + 1);
+        ringFoodSources = new double[slots][foodSourcesCount][dim];
+        ringFx = new double[slots][foodSourcesCount];
+        ringIters = new int[slots];
+        Arrays.fill(ringIters, -1);
+    }
+
+    @Override
+    public IHistoryRecorder newInstance() {
+        return new RingHistoryRecorder(capacity);
+    }
+
+    @Override
+    public void recordFoodSources(int iter, double[][] foodSources, double[] fx) {
+        int slot = iter % ringIters.length;
+        copyFoodSources(foodSources, fx, ringFoodSources[slot], ringFx[slot]);
+        ringIters[slot] = iter;
+    }
+
+    @Override
+    public boolean hasFoodSources(int iter) {
+        return iter >= 0 && ringIters[iter % ringIters.length] == iter;
+    }
+
+    @Override
+    public double[][] getFoodSources(int iter) {
+        return hasFoodSources(iter) ? ringFoodSources[iter % ringIters.length] : null;
+    }
+
+    @Override
+    public double[] getFx(int iter) {
+        return hasFoodSources(iter) ? ringFx[iter % ringIters.length] : null;
+    }
+
+    @Override
+    public void writeState(DataOutput out, int lastIter) throws IOException {
+        super.writeState(out, lastIter);
+        int count = 0;
+        for (int iter : ringIters) {
+            count += iter >= 0 && iter <= lastIter ? 1 : 0;
+        }
+        out.writeInt(count);
+        for (int slot = 0; slot < ringIters.length; slot++) {
+            if (ringIters[slot] >= 0 && ringIters[slot] <= lastIter) {
+                out.writeInt(ringIters[slot]);
+                writeFoodSources(out, ringFoodSources[slot], ringFx[slot]);
+            }
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        super.readState(in);
+        int count = in.readInt();
+        for (int k = 0; k < count; k++) {
+            int iter = readIteration(in);
+            int slot = iter % ringIters.length;
+            readFoodSources(in, ringFoodSources[slot], ringFx[slot]);
+            ringIters[slot] = iter;
+        }
+    }
+
+    // Slots are overwritten, so a checkpoint copies the ring - at most capacity iterations
+    @Override
+    public boolean isAppendOnly() {
+        return false;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,424 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.SelectionMode;
+import com.github.mateuszmazewski.abcsimulator.abc.StopCriteria;
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The island model with every island in a separate worker process (IslandWorker), possibly on another machine.
+// Workers connect to the coordinator, which assigns them islands and runs the migrations: at the end of every epoch
+// it collects the best food sources, checks the stop criteria and sends every island one batch of migrants.
+// The island seeds and the topology are drawn as in IslandModel, so both give the same results for the same seed.
+//
+// A worker which sends nothing (not even a heartbeat) for heartbeatTimeoutMillis, or whose connection breaks,
+// is dropped: its last best food source still counts, and the topology is applied to the remaining islands.
+public class IslandCoordinator {
+
+    public static final int DEFAULT_HEARTBEAT_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_HEARTBEAT_TIMEOUT_MILLIS = 10000;
+    public static final int DEFAULT_ACCEPT_TIMEOUT_MILLIS = 60000;
+
+    private final int islandsCount;
+    private final int foodSourcesCount;
+    private final int maxIter;
+    private final AbstractTestFunction func;
+    private final int trialsLimit;
+    private final long seed;
+    private int migrationInterval = 10;
+    private MigrationTopology topology = MigrationTopology.RING;
+    private StopCriteria stopCriteria = new StopCriteria();
+    private SelectionMode selectionMode = SelectionMode.FITNESS;
+    private int cacheSize; // 0 = no evaluation cache on the workers
+    private double cacheQuantum;
+    private int heartbeatIntervalMillis = DEFAULT_HEARTBEAT_INTERVAL_MILLIS;
+    private int heartbeatTimeoutMillis = DEFAULT_HEARTBEAT_TIMEOUT_MILLIS;
+    private int acceptTimeoutMillis = DEFAULT_ACCEPT_TIMEOUT_MILLIS;
+
+    private Migrant best;
+    private long evaluations;
+    private long cacheHits;
+    private long cacheMisses;
+    private StopReason stopReason;
+    private int lastIter;
+    private final List<Integer> failedIslands = new ArrayList<>();
+
+    private static final class WorkerConnection implements Closeable {
+        final int island;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        Migrant outbox;
+        long evaluations;
+        boolean alive = true;
+
+        WorkerConnection(int island, Socket socket) throws IOException {
+            this.island = island;
+            this.socket = socket;
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        // Skips heartbeats - any message, including a heartbeat, resets the socket's read timeout
+        byte readMessageType() throws IOException {
+            byte type;
+            while ((type = in.readByte()) == IslandProtocol.HEARTBEAT) {
+                // Only proves that the worker is alive
+            }
+            return type;
+        }
+
+        @Override
+        public void close() {
+            alive = false;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing more can be done with this worker
+            }
+        }
+    }
+
+    public IslandCoordinator(int islandsCount, int foodSourcesCount, int maxIter, AbstractTestFunction func, int trialsLimit, long seed) {
+        if (islandsCount < IslandModel.MIN_ISLANDS_COUNT || islandsCount > IslandModel.MAX_ISLANDS_COUNT) {
+            throw new IllegalArgumentException("number of islands must be in range <" + IslandModel.MIN_ISLANDS_COUNT + ", " + IslandModel.MAX_ISLANDS_COUNT + ">");
+        }
+        if (foodSourcesCount < ArtificialBeeColony.MIN_FOOD_SOURCES_COUNT || foodSourcesCount > ArtificialBeeColony.MAX_FOOD_SOURCES_COUNT) {
+            throw new IllegalArgumentException("food sources count must be in range <" + ArtificialBeeColony.MIN_FOOD_SOURCES_COUNT + ", " + ArtificialBeeColony.MAX_FOOD_SOURCES_COUNT + ">");
+        }
+        if (maxIter < ArtificialBeeColony.MAX_ITER_LOWER_LIMIT || maxIter > ArtificialBeeColony.MAX_ITER_UPPER_LIMIT) {
+            throw new IllegalArgumentException("max iterations must be in range <" + ArtificialBeeColony.MAX_ITER_LOWER_LIMIT + ", " + ArtificialBeeColony.MAX_ITER_UPPER_LIMIT + ">");
+        }
+        if (func == null) {
+            throw new IllegalArgumentException("function cannot be null");
+        }
+        if (trialsLimit < ArtificialBeeColony.MIN_TRIALS_LIMIT || trialsLimit > ArtificialBeeColony.MAX_TRIALS_LIMIT) {
+            throw new IllegalArgumentException("trials limit must be in range <" + ArtificialBeeColony.MIN_TRIALS_LIMIT + ", " + ArtificialBeeColony.MAX_TRIALS_LIMIT + ">");
+        }
+        this.islandsCount = islandsCount;
+        this.foodSourcesCount = foodSourcesCount;
+        this.maxIter = maxIter;
+        this.func = func;
+        this.trialsLimit = trialsLimit;
+        this.seed = seed;
+    }
+
+    // Accepts islandsCount workers on the given server socket and runs the model until a stop criterion is met
+    public void run(ServerSocket server) throws IOException {
+        best = null;
+        evaluations = cacheHits = cacheMisses = 0;
+        stopReason = null;
+        failedIslands.clear();
+
+        IRandomGenerator seedsRng = new Xoroshiro128PlusPlusGenerator(seed);
+        long[] seeds = new long[islandsCount];
+        for (int i = 0; i < islandsCount; i++) {
+            seeds[i] = seedsRng.nextLong();
+        }
+        IRandomGenerator topologyRng = seedsRng.split();
+
+        List<WorkerConnection> workers = new ArrayList<>(islandsCount);
+        try {
+            server.setSoTimeout(acceptTimeoutMillis);
+            for (int i = 0; i < islandsCount; i++) {
+                workers.add(accept(server, i, seeds[i]));
+            }
+
+            long startTime = System.nanoTime();
+            for (int epoch = 0; ; epoch++) {
+                int iter = collectMigrants(workers, epoch);
+
+                best = null;
+                evaluations = 0;
+                for (WorkerConnection worker : workers) {
+                    if (worker.outbox == null) {
+                        continue; // Failed before its first migration
+                    }
+                    if (best == null || worker.outbox.getFx() < best.getFx()) {
+                        best = worker.outbox;
+                    }
+                    evaluations += worker.evaluations;
+                }
+
+                StopReason reason = stopCriteria.check(iter, best.getIter(), best.getFx(), func.getMinValue(),
+                        evaluations, System.nanoTime() - startTime);
+                if (reason == null && iter >= maxIter) {
+                    reason = StopReason.MAX_ITER;
+                }
+                if (reason != null) {
+                    stopReason = reason;
+                    lastIter = iter;
+                    stopWorkers(workers, reason);
+                    return;
+                }
+
+                sendMigrants(workers, epoch, topologyRng);
+            }
+        } finally {
+            for (WorkerConnection worker : workers) {
+                worker.close();
+            }
+        }
+    }
+
+    private WorkerConnection accept(ServerSocket server, int island, long islandSeed) throws IOException {
+        Socket socket;
+        try {
+            socket = server.accept();
+        } catch (SocketTimeoutException e) {
+            throw new IOException("Only " + island + " of " + islandsCount + " island workers connected", e);
+        }
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(heartbeatTimeoutMillis);
+
+        WorkerConnection worker = new WorkerConnection(island, socket);
+        try {
+            IslandProtocol.readHello(worker.in);
+
+            IslandProtocol.Config config = new IslandProtocol.Config();
+            config.island = island;
+            config.functionName = func.getRegistryName();
+            config.dim = func.getDim();
+            config.lowerBoundaries = func.getLowerBoundaries();
+            config.upperBoundaries = func.getUpperBoundaries();
+            config.foodSourcesCount = foodSourcesCount;
+            config.maxIter = maxIter;
+            config.trialsLimit = trialsLimit;
+            config.seed = islandSeed;
+            config.selectionMode = selectionMode;
+            config.migrationInterval = migrationInterval;
+            config.cacheSize = cacheSize;
+            config.cacheQuantum = cacheQuantum;
+            config.heartbeatIntervalMillis = heartbeatIntervalMillis;
+            IslandProtocol.writeConfig(worker.out, config);
+        } catch (IOException e) {
+            worker.close();
+            throw e;
+        }
+        return worker;
+    }
+
+    // Returns the iteration reached by the islands still alive
+    private int collectMigrants(List<WorkerConnection> workers, int epoch) throws IOException {
+        int iter = 0;
+        for (WorkerConnection worker : workers) {
+            if (!worker.alive) {
+                continue;
+            }
+            try {
+                IslandProtocol.expectType(worker.readMessageType(), IslandProtocol.MIGRANTS);
+                IslandProtocol.MigrantsMessage message = IslandProtocol.readMigrants(worker.in, func.getDim());
+                if (message.epoch != epoch || message.migrants.length != 1) {
+                    throw new IOException("Wrong migrants message from island " + worker.island);
+                }
+                worker.outbox = message.migrants[0];
+                worker.evaluations = message.evaluations;
+                iter = Math.max(iter, message.iter);
+            } catch (IOException e) {
+                fail(worker);
+            }
+        }
+
+        for (WorkerConnection worker : workers) {
+            if (worker.alive) {
+                return iter;
+            }
+        }
+        throw new IOException("All island workers failed");
+    }
+
+    private void sendMigrants(List<WorkerConnection> workers, int epoch, IRandomGenerator topologyRng) {
+        List<WorkerConnection> alive = new ArrayList<>(workers.size());
+        for (WorkerConnection worker : workers) {
+            if (worker.alive) {
+                alive.add(worker);
+            }
+        }
+
+        // With a single island left there is nobody to migrate from, but the island still waits for a message
+        int[][] sources = alive.size() >= IslandModel.MIN_ISLANDS_COUNT
+                ? topology.sources(alive.size(), topologyRng) : new int[alive.size()][0];
+        for (int i = 0; i < alive.size(); i++) {
+            Migrant[] migrants = new Migrant[sources[i].length];
+            for (int j = 0; j < migrants.length; j++) {
+                migrants[j] = alive.get(sources[i][j]).outbox;
+            }
+
+            WorkerConnection worker = alive.get(i);
+            try {
+                IslandProtocol.writeMigrants(worker.out, epoch, 0, 0, migrants);
+            } catch (IOException e) {
+                fail(worker);
+            }
+        }
+    }
+
+    private void stopWorkers(List<WorkerConnection> workers, StopReason reason) {
+        for (WorkerConnection worker : workers) {
+            if (worker.alive) {
+                try {
+                    IslandProtocol.writeStop(worker.out, reason);
+                } catch (IOException e) {
+                    fail(worker);
+                }
+            }
+        }
+
+        // The final results can only add evaluations made after the last migration, the best food sources are known
+        for (WorkerConnection worker : workers) {
+            if (!worker.alive) {
+                continue;
+            }
+            try {
+                IslandProtocol.expectType(worker.readMessageType(), IslandProtocol.RESULT);
+                IslandProtocol.Result result = IslandProtocol.readResult(worker.in, func.getDim());
+                evaluations += result.evaluations - worker.evaluations;
+                cacheHits += result.cacheHits;
+                cacheMisses += result.cacheMisses;
+            } catch (IOException e) {
+                fail(worker);
+            }
+        }
+    }
+
+    private void fail(WorkerConnection worker) {
+        worker.close();
+        failedIslands.add(worker.island);
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < IslandModel.MIN_MIGRATION_INTERVAL) {
+            throw new IllegalArgumentException("migration interval must be at least " + IslandModel.MIN_MIGRATION_INTERVAL);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    public void setTopology(MigrationTopology topology) {
+        if (topology == null) {
+            throw new IllegalArgumentException("topology cannot be null");
+        }
+        this.topology = topology;
+    }
+
+    public void setStopCriteria(StopCriteria stopCriteria) {
+        if (stopCriteria == null) {
+            throw new IllegalArgumentException("stop criteria cannot be null");
+        }
+        this.stopCriteria = stopCriteria;
+    }
+
+    public void setSelectionMode(SelectionMode selectionMode) {
+        if (selectionMode == null) {
+            throw new IllegalArgumentException("selection mode cannot be null");
+        }
+        this.selectionMode = selectionMode;
+    }
+
+    public void setEvaluationCache(int cacheSize, double cacheQuantum) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size cannot be negative");
+        }
+        if (!(cacheQuantum >= 0.0) || Double.isInfinite(cacheQuantum)) {
+            throw new IllegalArgumentException("cache quantum must be non-negative and finite");
+        }
+        this.cacheSize = cacheSize;
+        this.cacheQuantum = cacheQuantum;
+    }
+
+    public void setHeartbeat(int intervalMillis, int timeoutMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("heartbeat interval must be positive");
+        }
+        if (timeoutMillis <= intervalMillis) {
+            throw new IllegalArgumentException("heartbeat timeout must be greater than the heartbeat interval");
+        }
+        this.heartbeatIntervalMillis = intervalMillis;
+        this.heartbeatTimeoutMillis = timeoutMillis;
+    }
+
+    public void setAcceptTimeoutMillis(int acceptTimeoutMillis) {
+        if (acceptTimeoutMillis < 0) {
+            throw new IllegalArgumentException("accept timeout cannot be negative");
+        }
+        this.acceptTimeoutMillis = acceptTimeoutMillis; // 0 = wait forever
+    }
+
+    public Migrant getGlobalBest() {
+        return best;
+    }
+
+    public double[] getBestFoodSource() {
+        return best.getPos();
+    }
+
+    public double getBestFx() {
+        return best.getFx();
+    }
+
+    public int getBestIter() {
+        return best.getIter();
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public int getLastIter() {
+        return lastIter;
+    }
+
+    public List<Integer> getFailedIslands() {
+        return Collections.unmodifiableList(failedIslands);
+    }
+
+    public int getIslandsCount() {
+        return islandsCount;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public MigrationTopology getTopology() {
+        return topology;
+    }
+
+    public int getMaxIter() {
+        return maxIter;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public AbstractTestFunction getFunc() {
+        return func;
+    }
+}
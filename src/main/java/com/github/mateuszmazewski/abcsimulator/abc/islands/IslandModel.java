@@ -0,0 +1,278 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.StopCriteria;
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+import com.github.mateuszmazewski.abcsimulator.abc.history.BestOnlyHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Independent colonies (islands) running on separate threads. Every migrationInterval iterations all islands meet
+// at a phaser and each one replaces its worst food sources with the best ones of the islands given by the topology.
+// Between migrations the islands share nothing but the lock-free global best.
+public class IslandModel {
+
+    public static final int MIN_ISLANDS_COUNT = 2;
+    public static final int MAX_ISLANDS_COUNT = 256;
+    public static final int MIN_MIGRATION_INTERVAL = 1;
+
+    private final int islandsCount;
+    private final int maxIter;
+    private final AbstractTestFunction func;
+    private final long seed;
+    private final ArtificialBeeColony[] islands;
+    private final IRandomGenerator topologyRng;
+    private int migrationInterval = 10;
+    private MigrationTopology topology = MigrationTopology.RING;
+    private StopCriteria stopCriteria = new StopCriteria(); // Checked at migrations, for the whole archipelago
+
+    // Best food sources published at the end of every epoch, double-buffered by the epoch's parity:
+    // an island writes the next epoch's slot only after every island has read the current one
+    private final Migrant[][] outboxes;
+    private int[][] migrationSources; // Written in onAdvance, read after the phase advance
+    private final AtomicReference<Migrant> globalBest = new AtomicReference<>();
+    private StopReason stopReason;
+    private int lastIter;
+    private long bestEvaluations; // Evaluations of all islands at the end of the epoch which published the best
+    private double bestEvaluationsFx;
+    private long startTime;
+
+    public IslandModel(int islandsCount, int foodSourcesCount, int maxIter, AbstractTestFunction func, int trialsLimit, long seed) {
+        if (islandsCount < MIN_ISLANDS_COUNT || islandsCount > MAX_ISLANDS_COUNT) {
+            throw new IllegalArgumentException("number of islands must be in range <" + MIN_ISLANDS_COUNT + ", " + MAX_ISLANDS_COUNT + ">");
+        }
+        this.islandsCount = islandsCount;
+        this.maxIter = maxIter;
+        this.func = func;
+        this.seed = seed;
+
+        IRandomGenerator seedsRng = new Xoroshiro128PlusPlusGenerator(seed);
+        islands = new ArtificialBeeColony[islandsCount];
+        for (int i = 0; i < islandsCount; i++) {
+            islands[i] = new ArtificialBeeColony(foodSourcesCount, maxIter, func, trialsLimit, seedsRng.nextLong());
+            islands[i].setHistoryRecorder(new BestOnlyHistoryRecorder());
+        }
+        topologyRng = seedsRng.split();
+        outboxes = new Migrant[2][islandsCount];
+    }
+
+    public void run() throws InterruptedException {
+        startTime = System.nanoTime();
+        stopReason = null;
+        globalBest.set(null);
+        bestEvaluations = 0;
+        bestEvaluationsFx = Double.POSITIVE_INFINITY;
+
+        Phaser phaser = new Phaser(islandsCount) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                return endEpoch(phase % 2); // Terminating the phaser ends the run
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(islandsCount); // Every island must have its own thread
+        try {
+            Future<?>[] futures = new Future<?>[islandsCount];
+            for (int i = 0; i < islandsCount; i++) {
+                int island = i;
+                futures[i] = executor.submit(() -> {
+                    try {
+                        runIsland(island, phaser);
+                    } catch (RuntimeException | Error e) {
+                        phaser.forceTermination(); // Releases the other islands waiting for this one
+                        throw e;
+                    }
+                });
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause
+                            : new IllegalStateException("Island failed: " + cause, cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runIsland(int island, Phaser phaser) {
+        ArtificialBeeColony abc = islands[island];
+        abc.start();
+        offerGlobalBest(abc, island);
+
+        for (int epoch = 0; ; epoch++) {
+            for (int k = 0; k < migrationInterval; k++) {
+                boolean more = abc.step();
+                offerGlobalBest(abc, island);
+                if (!more) {
+                    break;
+                }
+            }
+
+            outboxes[epoch % 2][island] = new Migrant(abc.getBestFoodSourceSoFar(), abc.getBestFxSoFar(), abc.getBestIter(), island);
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                break;
+            }
+
+            for (int source : migrationSources[island]) {
+                Migrant migrant = outboxes[epoch % 2][source];
+                abc.replaceWorstFoodSource(migrant.pos(), migrant.getFx());
+            }
+        }
+
+        if (stopReason != null && stopReason != StopReason.MAX_ITER) {
+            abc.stop(stopReason);
+        }
+        abc.finish();
+    }
+
+    // Runs in the last island arriving at the phaser. Returns true if the run should stop.
+    private boolean endEpoch(int parity) {
+        // Taken from the published snapshots, so the result does not depend on thread timing
+        Migrant best = outboxes[parity][0];
+        long evaluations = 0;
+        for (int i = 0; i < islandsCount; i++) {
+            Migrant migrant = outboxes[parity][i];
+            if (migrant.getFx() < best.getFx()) {
+                best = migrant;
+            }
+            evaluations += islands[i].getEvaluations();
+        }
+        globalBest.set(best);
+        if (best.getFx() < bestEvaluationsFx) {
+            bestEvaluationsFx = best.getFx();
+            bestEvaluations = evaluations;
+        }
+
+        int iter = islands[0].getIter(); // All islands run the same number of iterations
+        StopReason reason = stopCriteria.check(iter, best.getIter(), best.getFx(), func.getMinValue(),
+                evaluations, System.nanoTime() - startTime);
+        if (reason == null && iter >= maxIter) {
+            reason = StopReason.MAX_ITER;
+        }
+        if (reason != null) {
+            stopReason = reason;
+            lastIter = iter;
+            return true;
+        }
+
+        migrationSources = topology.sources(islandsCount, topologyRng);
+        return false;
+    }
+
+    // Lock-free: an island allocates and publishes a snapshot only when it improves on the global best
+    private void offerGlobalBest(ArtificialBeeColony abc, int island) {
+        double fx = abc.getBestFxSoFar();
+        Migrant current = globalBest.get();
+        if (current != null && fx >= current.getFx()) {
+            return;
+        }
+
+        Migrant offered = new Migrant(abc.getBestFoodSourceSoFar(), fx, abc.getBestIter(), island);
+        while (current == null || fx < current.getFx()) {
+            if (globalBest.compareAndSet(current, offered)) {
+                return;
+            }
+            current = globalBest.get();
+        }
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < MIN_MIGRATION_INTERVAL) {
+            throw new IllegalArgumentException("migration interval must be at least " + MIN_MIGRATION_INTERVAL);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    public void setTopology(MigrationTopology topology) {
+        if (topology == null) {
+            throw new IllegalArgumentException("topology cannot be null");
+        }
+        this.topology = topology;
+    }
+
+    public void setStopCriteria(StopCriteria stopCriteria) {
+        if (stopCriteria == null) {
+            throw new IllegalArgumentException("stop criteria cannot be null");
+        }
+        this.stopCriteria = stopCriteria;
+    }
+
+    // Can be read while the islands are running
+    public Migrant getGlobalBest() {
+        return globalBest.get();
+    }
+
+    public double[] getBestFoodSource() {
+        return globalBest.get().getPos();
+    }
+
+    public double getBestFx() {
+        return globalBest.get().getFx();
+    }
+
+    public int getBestIter() {
+        return globalBest.get().getIter();
+    }
+
+    public long getEvaluations() {
+        long evaluations = 0;
+        for (ArtificialBeeColony island : islands) {
+            evaluations += island.getEvaluations();
+        }
+        return evaluations;
+    }
+
+    public long getBestEvaluations() {
+        return bestEvaluations;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public int getLastIter() {
+        return lastIter;
+    }
+
+    // Islands can be configured (e.g. with an evaluation cache) before run()
+    public ArtificialBeeColony[] getIslands() {
+        return islands;
+    }
+
+    public int getIslandsCount() {
+        return islandsCount;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public MigrationTopology getTopology() {
+        return topology;
+    }
+
+    public int getMaxIter() {
+        return maxIter;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public AbstractTestFunction getFunc() {
+        return func;
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.SelectionMode;
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+// Binary messages exchanged between the coordinator and the island workers. Every message is a type byte followed
+// by its fields written with DataOutputStream (big-endian). Positions are sent without their length - both sides
+// know the dimension from the CONFIG message.
+//
+// HELLO     worker -> coordinator   magic, version
+// CONFIG    coordinator -> worker   island, function, dimension, ranges, colony parameters, heartbeat interval
+// MIGRANTS  both ways               epoch, iteration, evaluations, a batch of migrants
+// HEARTBEAT worker -> coordinator   sent periodically, so a silent worker can be told apart from a slow one
+// STOP      coordinator -> worker   stop reason
+// RESULT    worker -> coordinator   last iteration, evaluations, cache statistics, best food source
+final class IslandProtocol {
+
+    static final int MAGIC = 0x41424349; // "ABCI"
+    static final short VERSION = 2;
+
+    static final byte HELLO = 1;
+    static final byte CONFIG = 2;
+    static final byte MIGRANTS = 3;
+    static final byte HEARTBEAT = 4;
+    static final byte STOP = 5;
+    static final byte RESULT = 6;
+
+    private IslandProtocol() {
+    }
+
+    static final class Config {
+        int island;
+        String functionName;
+        int dim;
+        double[] lowerBoundaries;
+        double[] upperBoundaries;
+        int foodSourcesCount;
+        int maxIter;
+        int trialsLimit;
+        long seed;
+        SelectionMode selectionMode;
+        int migrationInterval;
+        int cacheSize;
+        double cacheQuantum;
+        int heartbeatIntervalMillis;
+    }
+
+    static final class MigrantsMessage {
+        int epoch;
+        int iter;
+        long evaluations;
+        Migrant[] migrants;
+    }
+
+    static final class Result {
+        int lastIter;
+        long evaluations;
+        long cacheHits;
+        long cacheMisses;
+        Migrant best;
+    }
+
+    static void writeHello(DataOutputStream out) throws IOException {
+        out.writeByte(HELLO);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.flush();
+    }
+
+    static void readHello(DataInputStream in) throws IOException {
+        expectType(in.readByte(), HELLO);
+        int magic = in.readInt();
+        short version = in.readShort();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("Unsupported island worker protocol: magic " + Integer.toHexString(magic) + ", version " + version);
+        }
+    }
+
+    static void writeConfig(DataOutputStream out, Config config) throws IOException {
+        out.writeByte(CONFIG);
+        out.writeInt(config.island);
+        out.writeUTF(config.functionName);
+        out.writeInt(config.dim);
+        writeDoubles(out, config.lowerBoundaries);
+        writeDoubles(out, config.upperBoundaries);
+        out.writeInt(config.foodSourcesCount);
+        out.writeInt(config.maxIter);
+        out.writeInt(config.trialsLimit);
+        out.writeLong(config.seed);
+        out.writeByte(config.selectionMode.ordinal());
+        out.writeInt(config.migrationInterval);
+        out.writeInt(config.cacheSize);
+        out.writeDouble(config.cacheQuantum);
+        out.writeInt(config.heartbeatIntervalMillis);
+        out.flush();
+    }
+
+    static Config readConfig(DataInputStream in) throws IOException {
+        expectType(in.readByte(), CONFIG);
+        Config config = new Config();
+        config.island = in.readInt();
+        config.functionName = in.readUTF();
+        config.dim = in.readInt();
+        if (config.dim <= 0) {
+            throw new IOException("Wrong dimension in island config: " + config.dim);
+        }
+        config.lowerBoundaries = readDoubles(in, config.dim);
+        config.upperBoundaries = readDoubles(in, config.dim);
+        config.foodSourcesCount = in.readInt();
+        config.maxIter = in.readInt();
+        config.trialsLimit = in.readInt();
+        config.seed = in.readLong();
+        int selectionMode = in.readByte();
+        if (selectionMode < 0 || selectionMode >= SelectionMode.values().length) {
+            throw new IOException("Unknown selection mode: " + selectionMode);
+        }
+        config.selectionMode = SelectionMode.values()[selectionMode];
+        config.migrationInterval = in.readInt();
+        config.cacheSize = in.readInt();
+        config.cacheQuantum = in.readDouble();
+        config.heartbeatIntervalMillis = in.readInt();
+        return config;
+    }
+
+    static void writeMigrants(DataOutputStream out, int epoch, int iter, long evaluations, Migrant[] migrants) throws IOException {
+        out.writeByte(MIGRANTS);
+        out.writeInt(epoch);
+        out.writeInt(iter);
+        out.writeLong(evaluations);
+        out.writeInt(migrants.length);
+        for (Migrant migrant : migrants) {
+            writeMigrant(out, migrant);
+        }
+        out.flush();
+    }
+
+    // The type byte has already been read
+    static MigrantsMessage readMigrants(DataInputStream in, int dim) throws IOException {
+        MigrantsMessage message = new MigrantsMessage();
+        message.epoch = in.readInt();
+        message.iter = in.readInt();
+        message.evaluations = in.readLong();
+        int count = in.readInt();
+        if (count < 0 || count > IslandModel.MAX_ISLANDS_COUNT) {
+            throw new IOException("Wrong number of migrants: " + count);
+        }
+        message.migrants = new Migrant[count];
+        for (int i = 0; i < count; i++) {
+            message.migrants[i] = readMigrant(in, dim);
+        }
+        return message;
+    }
+
+    static void writeHeartbeat(DataOutputStream out) throws IOException {
+        out.writeByte(HEARTBEAT);
+        out.flush();
+    }
+
+    static void writeStop(DataOutputStream out, StopReason reason) throws IOException {
+        out.writeByte(STOP);
+        out.writeByte(reason.ordinal());
+        out.flush();
+    }
+
+    // The type byte has already been read
+    static StopReason readStop(DataInputStream in) throws IOException {
+        int ordinal = in.readByte();
+        if (ordinal < 0 || ordinal >= StopReason.values().length) {
+            throw new IOException("Unknown stop reason: " + ordinal);
+        }
+        return StopReason.values()[ordinal];
+    }
+
+    static void writeResult(DataOutputStream out, Result result) throws IOException {
+        out.writeByte(RESULT);
+        out.writeInt(result.lastIter);
+        out.writeLong(result.evaluations);
+        out.writeLong(result.cacheHits);
+        out.writeLong(result.cacheMisses);
+        writeMigrant(out, result.best);
+        out.flush();
+    }
+
+    // The type byte has already been read
+    static Result readResult(DataInputStream in, int dim) throws IOException {
+        Result result = new Result();
+        result.lastIter = in.readInt();
+        result.evaluations = in.readLong();
+        result.cacheHits = in.readLong();
+        result.cacheMisses = in.readLong();
+        result.best = readMigrant(in, dim);
+        return result;
+    }
+
+    static void expectType(byte type, byte expected) throws IOException {
+        if (type != expected) {
+            throw new IOException("Unexpected message type " + type + ", expected " + expected);
+        }
+    }
+
+    private static void writeMigrant(DataOutputStream out, Migrant migrant) throws IOException {
+        out.writeInt(migrant.getIsland());
+        out.writeInt(migrant.getIter());
+        out.writeDouble(migrant.getFx());
+        writeDoubles(out, migrant.pos());
+    }
+
+    private static Migrant readMigrant(DataInputStream in, int dim) throws IOException {
+        int island = in.readInt();
+        int iter = in.readInt();
+        double fx = in.readDouble();
+        return new Migrant(readDoubles(in, dim), fx, iter, island);
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in, int count) throws IOException {
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.EvaluationCache;
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// A single island hosted in its own process. It gets its colony parameters from the coordinator, sends its best
+// food source at the end of every epoch and waits for the coordinator's migrants or a stop message.
+// A background thread sends heartbeats all the time, also while the colony is busy between migrations.
+public class IslandWorker {
+
+    private final String host;
+    private final int port;
+
+    public IslandWorker(String host, int port) {
+        if (host == null) {
+            throw new IllegalArgumentException("host cannot be null");
+        }
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("port must be in range <1, 65535>");
+        }
+        this.host = host;
+        this.port = port;
+    }
+
+    // Returns the island's index after the coordinator has stopped it
+    public int run() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            IslandProtocol.writeHello(out);
+            IslandProtocol.Config config = IslandProtocol.readConfig(in);
+            ArtificialBeeColony abc = createColony(config);
+
+            ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "island-" + config.island + "-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            heartbeats.scheduleAtFixedRate(() -> {
+                try {
+                    synchronized (out) {
+                        IslandProtocol.writeHeartbeat(out);
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e); // Cancels further heartbeats, the main loop will fail too
+                }
+            }, config.heartbeatIntervalMillis, config.heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+
+            try {
+                runColony(abc, config, in, out);
+            } finally {
+                heartbeats.shutdownNow();
+            }
+            return config.island;
+        }
+    }
+
+    private static ArtificialBeeColony createColony(IslandProtocol.Config config) throws IOException {
+        try {
+            AbstractTestFunction func = TestFunctionUtils.createTestFunction(config.functionName, config.dim);
+            for (int i = 0; i < config.dim; i++) {
+                if (config.lowerBoundaries[i] >= config.upperBoundaries[i]) {
+                    throw new IllegalArgumentException("lower bound must be less than upper bound");
+                }
+                func.getLowerBoundaries()[i] = config.lowerBoundaries[i];
+                func.getUpperBoundaries()[i] = config.upperBoundaries[i];
+            }
+
+            ArtificialBeeColony abc = new ArtificialBeeColony(config.foodSourcesCount, config.maxIter, func,
+                    config.trialsLimit, config.seed);
+            abc.setHistoryRecorder(new NoHistoryRecorder()); // Only the best food source leaves the worker
+            abc.setSelectionMode(config.selectionMode);
+            if (config.cacheSize > 0) {
+                abc.setEvaluationCache(new EvaluationCache(config.cacheSize, config.cacheQuantum));
+            }
+            return abc;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Wrong island config: " + e.getMessage(), e);
+        }
+    }
+
+    private static void runColony(ArtificialBeeColony abc, IslandProtocol.Config config,
+                                  DataInputStream in, DataOutputStream out) throws IOException {
+        abc.start();
+
+        for (int epoch = 0; ; epoch++) {
+            for (int k = 0; k < config.migrationInterval; k++) {
+                if (!abc.step()) {
+                    break;
+                }
+            }
+
+            Migrant best = new Migrant(abc.getBestFoodSourceSoFar(), abc.getBestFxSoFar(), abc.getBestIter(), config.island);
+            synchronized (out) {
+                IslandProtocol.writeMigrants(out, epoch, abc.getIter(), abc.getEvaluations(), new Migrant[]{best});
+            }
+
+            byte type = in.readByte();
+            if (type == IslandProtocol.STOP) {
+                StopReason reason = IslandProtocol.readStop(in);
+                if (reason != StopReason.MAX_ITER) {
+                    abc.stop(reason);
+                }
+                abc.finish();
+                break;
+            }
+
+            IslandProtocol.expectType(type, IslandProtocol.MIGRANTS);
+            IslandProtocol.MigrantsMessage message = IslandProtocol.readMigrants(in, config.dim);
+            if (message.epoch != epoch) {
+                throw new IOException("Migrants for epoch " + message.epoch + " received in epoch " + epoch);
+            }
+            for (Migrant migrant : message.migrants) {
+                abc.replaceWorstFoodSource(migrant.pos(), migrant.getFx());
+            }
+        }
+
+        IslandProtocol.Result result = new IslandProtocol.Result();
+        result.lastIter = abc.getLastIter();
+        result.evaluations = abc.getEvaluations();
+        if (abc.getEvaluationCache() != null) {
+            result.cacheHits = abc.getEvaluationCache().getHits();
+            result.cacheMisses = abc.getEvaluationCache().getMisses();
+        }
+        result.best = new Migrant(abc.getBestFoodSourceSoFar(), abc.getBestFxSoFar(), abc.getBestIter(), config.island);
+        synchronized (out) {
+            IslandProtocol.writeResult(out, result);
+        }
+    }
+}
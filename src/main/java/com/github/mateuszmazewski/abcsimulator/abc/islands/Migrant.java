@@ -0,0 +1,37 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+// Immutable snapshot of an island's best food source, safe to publish to other threads
+public final class Migrant {
+
+    private final double[] pos;
+    private final double fx;
+    private final int iter;
+    private final int island;
+
+    Migrant(double[] pos, double fx, int iter, int island) {
+        this.pos = pos.clone();
+        this.fx = fx;
+        this.iter = iter;
+        this.island = island;
+    }
+
+    public double[] getPos() {
+        return pos.clone();
+    }
+
+    double[] pos() {
+        return pos; // Read only by the islands, which copy it into their food sources
+    }
+
+    public double getFx() {
+        return fx;
+    }
+
+    public int getIter() {
+        return iter;
+    }
+
+    public int getIsland() {
+        return island;
+    }
+}
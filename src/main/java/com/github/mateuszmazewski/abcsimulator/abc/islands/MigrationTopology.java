@@ -0,0 +1,35 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+
+// Which islands send their best food source to which island at every migration
+public enum MigrationTopology {
+    RING, // Island i receives from island i - 1
+    FULLY_CONNECTED, // Every island receives from all the other islands
+    RANDOM; // Every island receives from one other island, drawn again at every migration
+
+    // Returns sources[i] - islands sending to island i. rng is used only by RANDOM.
+    int[][] sources(int islandsCount, IRandomGenerator rng) {
+        int[][] sources = new int[islandsCount][];
+        for (int i = 0; i < islandsCount; i++) {
+            switch (this) {
+                case RING:
+                    sources[i] = new int[]{(i - 1 + islandsCount) % islandsCount};
+                    break;
+                case FULLY_CONNECTED:
+                    sources[i] = new int[islandsCount - 1];
+                    for (int j = 0, k = 0; j < islandsCount; j++) {
+                        if (j != i) {
+                            sources[i][k++] = j;
+                        }
+                    }
+                    break;
+                default:
+                    // One of the other islands - drawing from islandsCount - 1 and skipping i
+                    int source = rng.nextInt(islandsCount - 1);
+                    sources[i] = new int[]{source >= i ? source + 1 : source};
+            }
+        }
+        return sources;
+    }
+}
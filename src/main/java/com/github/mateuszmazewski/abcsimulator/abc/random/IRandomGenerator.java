@@ -0,0 +1,20 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+public interface IRandomGenerator {
+
+    long nextLong();
+
+    // Uniformly distributed in [0, 1)
+    double nextDouble();
+
+    // Uniformly distributed in [0, bound)
+    int nextInt(int bound);
+
+    // Returns a new generator whose stream is statistically independent of this one
+    IRandomGenerator split();
+
+    // The whole state, so a checkpointed generator continues exactly the same stream after setState
+    long[] getState();
+
+    void setState(long[] state);
+}
@@ -0,0 +1,89 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+// The algorithm of java.util.SplittableRandom (SplitMix64), producing the same streams for the same seeds.
+// It is written out here, because SplittableRandom does not expose its state for checkpoints.
+public class SplittableRandomGenerator implements IRandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long seed;
+    private long gamma; // Odd
+
+    public SplittableRandomGenerator(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplittableRandomGenerator(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    @Override
+    public double nextDouble() {
+        return (mix64(nextSeed()) >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+        }
+        return r;
+    }
+
+    @Override
+    public IRandomGenerator split() {
+        return new SplittableRandomGenerator(nextLong(), mixGamma(nextSeed()));
+    }
+
+    @Override
+    public long[] getState() {
+        return new long[]{seed, gamma};
+    }
+
+    @Override
+    public void setState(long[] state) {
+        if (state == null || state.length != 2 || (state[1] & 1L) == 0) {
+            throw new IllegalArgumentException("state must be a seed and an odd gamma");
+        }
+        seed = state[0];
+        gamma = state[1];
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+// xoroshiro128++ by D. Blackman and S. Vigna, seeded with SplitMix64 as recommended by the authors.
+// Not thread-safe - every thread should use its own generator obtained by split().
+public class Xoroshiro128PlusPlusGenerator implements IRandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long s0, s1;
+
+    public Xoroshiro128PlusPlusGenerator(long seed) {
+        long x = seed;
+        s0 = splitMix64(x += GOLDEN_GAMMA);
+        s1 = splitMix64(x + GOLDEN_GAMMA);
+        if ((s0 | s1) == 0) {
+            s1 = GOLDEN_GAMMA; // All-zero state is the only invalid state
+        }
+    }
+
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        long t0 = s0;
+        long t1 = s1;
+        long result = Long.rotateLeft(t0 + t1, 17) + t0;
+
+        t1 ^= t0;
+        s0 = Long.rotateLeft(t0, 49) ^ t1 ^ (t1 << 21);
+        s1 = Long.rotateLeft(t1, 28);
+        return result;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+
+        int r = (int) (nextLong() >>> 33); // 31 random bits
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int) ((bound * (long) r) >> 31);
+        }
+        // Rejection sampling - the same unbiased scheme as java.util.Random
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+        }
+        return r;
+    }
+
+    @Override
+    public IRandomGenerator split() {
+        return new Xoroshiro128PlusPlusGenerator(nextLong());
+    }
+
+    @Override
+    public long[] getState() {
+        return new long[]{s0, s1};
+    }
+
+    @Override
+    public void setState(long[] state) {
+        if (state == null || state.length != 2 || (state[0] | state[1]) == 0) {
+            throw new IllegalArgumentException("state must be two longs, not both zero");
+        }
+        s0 = state[0];
+        s1 = state[1];
+    }
+}
@@ -5,6 +5,8 @@ import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
+import java.util.Arrays;
+
 public abstract class AbstractTestFunction {
 
     public final static double MIN_X = -10000.0;
@@ -73,6 +75,12 @@ public abstract class AbstractTestFunction {
         }
     }
 
+    protected static double[] filledArray(int dim, double value) {
+        double[] array = new double[Math.max(dim, 0)]; // Negative dim is reported by validateArgs
+        Arrays.fill(array, value);
+        return array;
+    }
+
     public double getValue(double[] pos) {
         validatePos(pos);
         return calculateValue(pos);
@@ -80,8 +88,50 @@ public abstract class AbstractTestFunction {
 
     protected abstract double calculateValue(double[] pos);
 
+    // Evaluates points from..to-1 stored one after another in positions (point p starts at p * dim) into values[p]
+    public void getValues(double[] positions, double[] values, int from, int to) {
+        validatePositions(positions, values, from, to);
+        calculateValues(positions, values, from, to);
+    }
+
+    // Bundled functions override it with a loop over the flat buffer, without a call and a copy per point
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        double[] pos = new double[dim];
+        for (int p = from; p < to; p++) {
+            System.arraycopy(positions, p * dim, pos, 0, dim);
+            values[p] = calculateValue(pos);
+        }
+    }
+
+    // For engines which keep every position within the given boundaries by construction, validated here once
+    // instead of on every evaluation. They must lie within the function's current boundaries.
+    public TrustedEvaluator trustedEvaluator(double[] lowerBoundaries, double[] upperBoundaries) throws IllegalArgumentException {
+        if (lowerBoundaries == null || upperBoundaries == null
+                || lowerBoundaries.length != dim || upperBoundaries.length != dim) {
+            throw new IllegalArgumentException("boundaries length must be equal to function's dimension");
+        }
+        for (int i = 0; i < dim; i++) {
+            if (lowerBoundaries[i] < this.lowerBoundaries[i] - MathUtils.EPS
+                    || upperBoundaries[i] > this.upperBoundaries[i] + MathUtils.EPS
+                    || lowerBoundaries[i] > upperBoundaries[i]) {
+                throw new IllegalArgumentException("boundaries must lie within function's boundaries");
+            }
+        }
+        return new TrustedEvaluator(this);
+    }
+
     public double getLog10Value(double[] pos) {
-        double value = getValue(pos);
+        return log10(getValue(pos));
+    }
+
+    public void getLog10Values(double[] positions, double[] values, int from, int to) {
+        getValues(positions, values, from, to);
+        for (int p = from; p < to; p++) {
+            values[p] = log10(values[p]);
+        }
+    }
+
+    private static double log10(double value) {
         if (value < 1e-16) {
             // In order to avoid log10(0) == -Infinity or log10(negative) == NaN
             return -16.0;
@@ -102,6 +152,24 @@ public abstract class AbstractTestFunction {
         }
     }
 
+    protected void validatePositions(double[] positions, double[] values, int from, int to) throws IllegalArgumentException {
+        if (positions == null || values == null) {
+            throw new IllegalArgumentException("positions and values cannot be null");
+        }
+        if (from < 0 || from > to || (long) to * dim > positions.length || to > values.length) {
+            throw new IllegalArgumentException("points range exceeds positions or values length");
+        }
+
+        for (int i = from * dim, end = to * dim, j = 0; i < end; i++) {
+            if (positions[i] < lowerBoundaries[j] - MathUtils.EPS || positions[i] > upperBoundaries[j] + MathUtils.EPS) {
+                throw new IllegalArgumentException("variable is out of boundaries");
+            }
+            if (++j == dim) {
+                j = 0;
+            }
+        }
+    }
+
     public void restoreDefaultRanges() {
         for (int i = 0; i < dim; i++) {
             lowerBoundaries[i] = defaultLowerBoundaries[i];
@@ -121,8 +189,12 @@ public abstract class AbstractTestFunction {
     }
 
     public boolean isGlobalMinimumInCurrentRanges() {
-        return globalMinValuePos[0] >= lowerBoundaries[0] && globalMinValuePos[0] <= upperBoundaries[0]
-                && globalMinValuePos[1] >= lowerBoundaries[1] && globalMinValuePos[1] <= upperBoundaries[1];
+        for (int i = 0; i < dim; i++) {
+            if (globalMinValuePos[i] < lowerBoundaries[i] || globalMinValuePos[i] > upperBoundaries[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
@@ -143,6 +215,10 @@ public abstract class AbstractTestFunction {
         return upperBoundaries;
     }
 
+    public double[] getGlobalMinValuePos() {
+        return globalMinValuePos;
+    }
+
     public double[] getMinValuePos() {
         return minValuePos;
     }
@@ -155,6 +231,11 @@ public abstract class AbstractTestFunction {
         return name.get();
     }
 
+    // The name TestFunctionUtils creates the function by. Results files and island workers identify it with this name.
+    public String getRegistryName() {
+        return getClass().getSimpleName();
+    }
+
     public StringProperty nameProperty() {
         return name;
     }
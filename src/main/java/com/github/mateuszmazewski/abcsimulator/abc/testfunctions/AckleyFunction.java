@@ -3,10 +3,14 @@ package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
 public class AckleyFunction extends AbstractTestFunction {
 
     public AckleyFunction() {
-        super(2,
-                new double[]{-5.0, -5.0},
-                new double[]{5.0, 5.0},
-                new double[]{0.0, 0.0},
+        this(2);
+    }
+
+    public AckleyFunction(int dim) {
+        super(dim,
+                filledArray(dim, -5.0),
+                filledArray(dim, 5.0),
+                filledArray(dim, 0.0),
                 0.0,
                 false,
                 "ackleyFunction.name");
@@ -14,10 +18,29 @@ public class AckleyFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
-        return -20 * Math.exp(-0.2 * Math.sqrt(0.5 * (Math.pow(x, 2) + Math.pow(y, 2))))
-                - Math.exp(0.5 * (Math.cos(2 * Math.PI * x) + Math.cos(2 * Math.PI * y)))
+        return value(pos, 0, pos.length);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        int dim = getDim();
+        if (VectorKernels.isEnabled()) {
+            VectorKernels.ackley(positions, values, from, to, dim);
+            return;
+        }
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions, p * dim, dim);
+        }
+    }
+
+    static double value(double[] positions, int offset, int dim) {
+        double sumSquares = 0.0, sumCos = 0.0;
+        for (int i = offset; i < offset + dim; i++) {
+            sumSquares += Math.pow(positions[i], 2);
+            sumCos += Math.cos(2 * Math.PI * positions[i]);
+        }
+        return -20 * Math.exp(-0.2 * Math.sqrt(sumSquares / dim))
+                - Math.exp(sumCos / dim)
                 + Math.E + 20.0;
     }
 }
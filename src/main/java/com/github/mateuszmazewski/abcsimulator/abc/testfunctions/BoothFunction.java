@@ -14,8 +14,17 @@ public class BoothFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
+        return value(pos[0], pos[1]);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions[2 * p], positions[2 * p + 1]);
+        }
+    }
+
+    private static double value(double x, double y) {
         return Math.pow(x + 2 * y - 7.0, 2) + Math.pow(2 * x + y - 5.0, 2);
     }
 }
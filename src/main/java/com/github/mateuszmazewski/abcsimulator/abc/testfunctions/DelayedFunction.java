@@ -0,0 +1,65 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Stand-in for a latency-bound objective (an external simulator, a remote service): the wrapped function
+// with a fixed delay before every evaluation. The delay only blocks the calling thread, so concurrent
+// evaluations overlap like requests to a real service.
+public class DelayedFunction extends AbstractTestFunction {
+
+    private final AbstractTestFunction func;
+    private final long delayNanos;
+
+    public DelayedFunction(AbstractTestFunction func, long delayMicros) {
+        super(func.getDim(),
+                func.getLowerBoundaries().clone(),
+                func.getUpperBoundaries().clone(),
+                func.getGlobalMinValuePos().clone(),
+                func.getMinValue(),
+                func.isChartInLogScale(),
+                "delayedFunction.name");
+        if (delayMicros < 0) {
+            throw new IllegalArgumentException("delay cannot be negative");
+        }
+        this.func = func;
+        this.delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+    }
+
+    @Override
+    protected double calculateValue(double[] pos) {
+        delay();
+        return func.calculateValue(pos);
+    }
+
+    // Every point waits for its own delay, as it would with one request per evaluation
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        for (int p = from; p < to; p++) {
+            delay();
+            func.calculateValues(positions, values, p, p + 1);
+        }
+    }
+
+    private void delay() {
+        // parkNanos may return early, e.g. when the thread is interrupted
+        long deadline = System.nanoTime() + delayNanos;
+        for (long left = delayNanos; left > 0 && !Thread.currentThread().isInterrupted(); left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    // Saved and recreated as the wrapped function, which the delay only simulates the cost of
+    @Override
+    public String getRegistryName() {
+        return func.getRegistryName();
+    }
+
+    public AbstractTestFunction getFunc() {
+        return func;
+    }
+
+    public long getDelayMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(delayNanos);
+    }
+}
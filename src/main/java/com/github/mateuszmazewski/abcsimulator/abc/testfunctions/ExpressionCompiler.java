@@ -0,0 +1,342 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Binary;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Call;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Constant;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Negation;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Node;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionParser.Variable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Compiles a parsed expression to the bytecode of a class implementing ICompiledExpression, so the JIT compiles
+// it like hand-written Java. The method is straight-line code (no branches), which is why Java 8 class files
+// need no stack map frames. Every class gets its own class loader, so it is unloaded with its function.
+final class ExpressionCompiler {
+
+    private static final String CLASS_NAME_PREFIX = "com/github/mateuszmazewski/abcsimulator/abc/testfunctions/generated/Expression";
+    private static final String INTERFACE_NAME = ICompiledExpression.class.getName().replace('.', '/');
+    private static final String METHOD_NAME = "evaluate";
+    private static final String METHOD_DESCRIPTOR = "([DI)D";
+    private static final int MAX_CODE_LENGTH = 65535;
+    private static final AtomicLong classCounter = new AtomicLong();
+
+    // Opcodes
+    private static final int ICONST_0 = 0x03, BIPUSH = 0x10, SIPUSH = 0x11, LDC2_W = 0x14, ILOAD_2 = 0x1c;
+    private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, DALOAD = 0x31, DUP2 = 0x5c, IADD = 0x60;
+    private static final int DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f, DNEG = 0x77;
+    private static final int DRETURN = 0xaf, RETURN = 0xb1, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8;
+
+    private final ConstantPool constantPool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private int stackDepth, maxStackDepth; // In words, a double takes two
+
+    private ExpressionCompiler() {
+    }
+
+    // Variables must be lower than dim
+    static ICompiledExpression compile(String expression, int dim) throws IllegalArgumentException {
+        ExpressionParser parser = new ExpressionParser(expression);
+        Node root = parser.parse();
+        if (parser.getVariablesCount() > dim) {
+            throw new IllegalArgumentException("Expression uses " + parser.getVariablesCount()
+                    + " variables, but the function has " + dim + " dimensions");
+        }
+
+        String className = CLASS_NAME_PREFIX + classCounter.incrementAndGet();
+        byte[] classBytes = new ExpressionCompiler().writeClass(className, root);
+        try {
+            Class<?> compiledClass = new ExpressionClassLoader().define(className.replace('/', '.'), classBytes);
+            return (ICompiledExpression) compiledClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Cannot load compiled expression: " + e, e);
+        }
+    }
+
+    private byte[] writeClass(String className, Node root) {
+        emit(root);
+        code.write(DRETURN);
+        if (code.size() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Expression is too long");
+        }
+
+        // Indices must be known before the constant pool is written
+        int thisClass = constantPool.classInfo(className);
+        int superClass = constantPool.classInfo("java/lang/Object");
+        int interfaceClass = constantPool.classInfo(INTERFACE_NAME);
+        int objectConstructor = constantPool.methodref("java/lang/Object", "<init>", "()V");
+        int constructorName = constantPool.utf8("<init>");
+        int constructorDescriptor = constantPool.utf8("()V");
+        int methodName = constantPool.utf8(METHOD_NAME);
+        int methodDescriptor = constantPool.utf8(METHOD_DESCRIPTOR);
+        int codeAttribute = constantPool.utf8("Code");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0); // Minor version
+            out.writeShort(52); // Java 8
+            constantPool.write(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(interfaceClass);
+            out.writeShort(0); // Fields
+            out.writeShort(2); // Methods
+
+            byte[] constructorCode = {
+                    (byte) ALOAD_0,
+                    (byte) INVOKESPECIAL, (byte) (objectConstructor >> 8), (byte) objectConstructor,
+                    (byte) RETURN
+            };
+            writeMethod(out, constructorName, constructorDescriptor, codeAttribute, 1, 1, constructorCode);
+            // Locals: this, positions, offset
+            writeMethod(out, methodName, methodDescriptor, codeAttribute, maxStackDepth, 3, code.toByteArray());
+
+            out.writeShort(0); // Class attributes
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001); // public
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // Exception table
+        out.writeShort(0); // Code attributes
+    }
+
+    private void emit(Node node) {
+        if (node instanceof Constant) {
+            emitConstant(((Constant) node).value);
+        } else if (node instanceof Variable) {
+            emitVariable(((Variable) node).index);
+        } else if (node instanceof Negation) {
+            emit(((Negation) node).operand);
+            code.write(DNEG);
+        } else if (node instanceof Binary) {
+            emitBinary((Binary) node);
+        } else if (node instanceof Call) {
+            Call call = (Call) node;
+            for (Node arg : call.args) {
+                emit(arg);
+            }
+            emitMathCall(call.function.methodName, call.function.arity);
+        } else {
+            throw new IllegalStateException("Unknown node " + node.getClass().getSimpleName());
+        }
+    }
+
+    private void emitConstant(double value) {
+        int index = constantPool.doubleInfo(value);
+        code.write(LDC2_W);
+        writeShort(index);
+        push(2);
+    }
+
+    // positions[offset + index]
+    private void emitVariable(int index) {
+        code.write(ALOAD_1);
+        code.write(ILOAD_2);
+        push(2);
+        if (index > 0) {
+            if (index <= 5) {
+                code.write(ICONST_0 + index);
+            } else if (index <= Byte.MAX_VALUE) {
+                code.write(BIPUSH);
+                code.write(index);
+            } else if (index <= Short.MAX_VALUE) {
+                code.write(SIPUSH);
+                writeShort(index);
+            } else {
+                throw new IllegalArgumentException("Too many variables");
+            }
+            push(1);
+            code.write(IADD);
+            pop(1);
+        }
+        code.write(DALOAD);
+        pop(2);
+        push(2);
+    }
+
+    private void emitBinary(Binary binary) {
+        emit(binary.left);
+        if (binary.op == '^' && binary.right instanceof Constant) {
+            // The same multiplications as ExpressionParser.power
+            double exponent = ((Constant) binary.right).value;
+            if (exponent == 2.0) {
+                emitSquare();
+                return;
+            } else if (exponent == 3.0) {
+                code.write(DUP2);
+                push(2);
+                emitSquare();
+                code.write(DMUL);
+                pop(2);
+                return;
+            } else if (exponent == 4.0) {
+                emitSquare();
+                emitSquare();
+                return;
+            }
+        }
+
+        emit(binary.right);
+        switch (binary.op) {
+            case '+':
+                code.write(DADD);
+                break;
+            case '-':
+                code.write(DSUB);
+                break;
+            case '*':
+                code.write(DMUL);
+                break;
+            case '/':
+                code.write(DDIV);
+                break;
+            case '^':
+                emitMathCall("pow", 2);
+                return;
+            default:
+                throw new IllegalStateException("Unknown operator " + binary.op);
+        }
+        pop(2);
+    }
+
+    private void emitSquare() {
+        code.write(DUP2);
+        push(2);
+        code.write(DMUL);
+        pop(2);
+    }
+
+    private void emitMathCall(String name, int arity) {
+        String descriptor = arity == 1 ? "(D)D" : "(DD)D";
+        code.write(INVOKESTATIC);
+        writeShort(constantPool.methodref("java/lang/Math", name, descriptor));
+        pop(2 * arity);
+        push(2);
+    }
+
+    private void writeShort(int value) {
+        code.write(value >> 8);
+        code.write(value);
+    }
+
+    private void push(int words) {
+        stackDepth += words;
+        maxStackDepth = Math.max(maxStackDepth, stackDepth);
+    }
+
+    private void pop(int words) {
+        stackDepth -= words;
+    }
+
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1, DOUBLE = 6, CLASS = 7, METHODREF = 10, NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int count = 1; // Index 0 is not used
+
+        int utf8(String value) {
+            return entry("utf8 " + value, 1, () -> {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            });
+        }
+
+        int classInfo(String name) {
+            int nameIndex = utf8(name);
+            return entry("class " + name, 1, () -> {
+                out.writeByte(CLASS);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        int methodref(String owner, String name, String descriptor) {
+            int ownerIndex = classInfo(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndTypeIndex = entry("nameAndType " + name + descriptor, 1, () -> {
+                out.writeByte(NAME_AND_TYPE);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("methodref " + owner + "." + name + descriptor, 1, () -> {
+                out.writeByte(METHODREF);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndTypeIndex);
+            });
+        }
+
+        // A double takes two entries
+        int doubleInfo(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            return entry("double " + bits, 2, () -> {
+                out.writeByte(DOUBLE);
+                out.writeLong(bits);
+            });
+        }
+
+        private int entry(String key, int size, IEntryWriter writer) {
+            Integer index = indices.get(key);
+            if (index != null) {
+                return index;
+            }
+            if (count + size > 0xFFFF) {
+                throw new IllegalArgumentException("Expression is too long");
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = count;
+            count += size;
+            indices.put(key, index);
+            return index;
+        }
+
+        void write(DataOutputStream classOut) throws IOException {
+            classOut.writeShort(count);
+            classOut.write(bytes.toByteArray());
+        }
+
+        private interface IEntryWriter {
+            void write() throws IOException;
+        }
+    }
+
+    private static final class ExpressionClassLoader extends ClassLoader {
+
+        ExpressionClassLoader() {
+            super(ICompiledExpression.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
+import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
+import javafx.beans.binding.Bindings;
+
+import java.util.Arrays;
+
+// A function typed by the user, e.g. "x^2 + 10*sin(y)" (see ExpressionParser for the syntax), compiled once
+// to bytecode, so it evaluates about as fast as a hand-written subclass. The dimension is the length of
+// the boundaries and may exceed the number of variables the expression uses.
+public class ExpressionFunction extends AbstractTestFunction {
+
+    // Without a known minimum the best of this many random points within the default boundaries is taken
+    public static final int MINIMUM_ESTIMATE_SAMPLES = 100000;
+
+    private final String expression;
+    private final ICompiledExpression compiledExpression;
+
+    public ExpressionFunction(String expression, double[] defaultLowerBoundaries, double[] defaultUpperBoundaries) {
+        this(expression, ExpressionCompiler.compile(expression, dimOf(defaultLowerBoundaries)),
+                defaultLowerBoundaries, defaultUpperBoundaries);
+    }
+
+    public ExpressionFunction(String expression, double[] defaultLowerBoundaries, double[] defaultUpperBoundaries,
+                              double[] globalMinValuePos, double globalMinValue) {
+        this(expression, ExpressionCompiler.compile(expression, dimOf(defaultLowerBoundaries)),
+                defaultLowerBoundaries, defaultUpperBoundaries, globalMinValuePos, globalMinValue);
+    }
+
+    private ExpressionFunction(String expression, ICompiledExpression compiledExpression,
+                               double[] defaultLowerBoundaries, double[] defaultUpperBoundaries) {
+        this(expression, compiledExpression, defaultLowerBoundaries, defaultUpperBoundaries,
+                estimateMinimum(compiledExpression, defaultLowerBoundaries, defaultUpperBoundaries));
+    }
+
+    // minimum is the position followed by the value
+    private ExpressionFunction(String expression, ICompiledExpression compiledExpression,
+                               double[] defaultLowerBoundaries, double[] defaultUpperBoundaries, double[] minimum) {
+        this(expression, compiledExpression, defaultLowerBoundaries, defaultUpperBoundaries,
+                Arrays.copyOf(minimum, minimum.length - 1), minimum[minimum.length - 1]);
+    }
+
+    private ExpressionFunction(String expression, ICompiledExpression compiledExpression,
+                               double[] defaultLowerBoundaries, double[] defaultUpperBoundaries,
+                               double[] globalMinValuePos, double globalMinValue) {
+        super(defaultLowerBoundaries.length,
+                defaultLowerBoundaries,
+                defaultUpperBoundaries,
+                globalMinValuePos,
+                globalMinValue,
+                false,
+                "expressionFunction.name");
+        this.expression = expression;
+        this.compiledExpression = compiledExpression;
+        ObservableResourceFactory messagesFactory = ObservableResourceFactory.getInstance();
+        nameProperty().bind(Bindings.concat(messagesFactory.getStringBinding("expressionFunction.name"), ": ", expression));
+    }
+
+    private static int dimOf(double[] boundaries) {
+        if (boundaries == null) {
+            throw new IllegalArgumentException("boundaries cannot be null");
+        }
+        return boundaries.length;
+    }
+
+    private static double[] estimateMinimum(ICompiledExpression compiledExpression, double[] lowerBoundaries, double[] upperBoundaries) {
+        int dim = lowerBoundaries.length;
+        if (upperBoundaries == null || upperBoundaries.length != dim) {
+            throw new IllegalArgumentException("lower and upper boundaries must have length equal to the function's dimension");
+        }
+
+        // Seeded, so the same function always gets the same estimate
+        IRandomGenerator rng = new Xoroshiro128PlusPlusGenerator(0);
+        double[] pos = new double[dim];
+        double[] minimum = new double[dim + 1];
+        for (int i = 0; i < dim; i++) {
+            minimum[i] = (lowerBoundaries[i] + upperBoundaries[i]) / 2.0;
+        }
+        minimum[dim] = compiledExpression.evaluate(minimum, 0);
+
+        for (int s = 0; s < MINIMUM_ESTIMATE_SAMPLES; s++) {
+            for (int i = 0; i < dim; i++) {
+                pos[i] = lowerBoundaries[i] + rng.nextDouble() * (upperBoundaries[i] - lowerBoundaries[i]);
+            }
+            double value = compiledExpression.evaluate(pos, 0);
+            // NaN (e.g. sqrt of a negative number) is never taken over a number
+            if (value < minimum[dim] || (Double.isNaN(minimum[dim]) && !Double.isNaN(value))) {
+                System.arraycopy(pos, 0, minimum, 0, dim);
+                minimum[dim] = value;
+            }
+        }
+        return minimum;
+    }
+
+    @Override
+    protected double calculateValue(double[] pos) {
+        return compiledExpression.evaluate(pos, 0);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        int dim = getDim();
+        for (int p = from; p < to; p++) {
+            values[p] = compiledExpression.evaluate(positions, p * dim);
+        }
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+}
@@ -0,0 +1,360 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+// Parses an expression like "x^2 + 10*sin(y)" into a tree, folding every subexpression without variables
+// into a constant. Variables are x, y, z or x1, x2, ... (x1 is x), with the usual precedence: unary minus binds
+// weaker than ^, which is right-associative (-x^2 is -(x^2), 2^3^2 is 2^9).
+final class ExpressionParser {
+
+    enum MathFunction {
+        SIN(Math::sin), COS(Math::cos), TAN(Math::tan),
+        ASIN(Math::asin), ACOS(Math::acos), ATAN(Math::atan),
+        SINH(Math::sinh), COSH(Math::cosh), TANH(Math::tanh),
+        EXP(Math::exp), LOG(Math::log), LOG10(Math::log10),
+        SQRT(Math::sqrt), CBRT(Math::cbrt), ABS(Math::abs),
+        FLOOR(Math::floor), CEIL(Math::ceil), SIGNUM(Math::signum),
+        POW(Math::pow), ATAN2(Math::atan2), HYPOT(Math::hypot), MIN(Math::min), MAX(Math::max);
+
+        // Also the name of the java.lang.Math method the compiled code calls
+        final String methodName = name().toLowerCase(Locale.ROOT);
+        final int arity;
+        private final DoubleUnaryOperator unaryOperator;
+        private final DoubleBinaryOperator binaryOperator;
+
+        MathFunction(DoubleUnaryOperator operator) {
+            arity = 1;
+            unaryOperator = operator;
+            binaryOperator = null;
+        }
+
+        MathFunction(DoubleBinaryOperator operator) {
+            arity = 2;
+            unaryOperator = null;
+            binaryOperator = operator;
+        }
+
+        double apply(double[] args) {
+            return arity == 1 ? unaryOperator.applyAsDouble(args[0]) : binaryOperator.applyAsDouble(args[0], args[1]);
+        }
+
+        static MathFunction forName(String name) {
+            for (MathFunction function : values()) {
+                if (function.methodName.equals(name)) {
+                    return function;
+                }
+            }
+            return null;
+        }
+    }
+
+    static abstract class Node {
+    }
+
+    static final class Constant extends Node {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+    }
+
+    static final class Variable extends Node {
+        final int index;
+
+        Variable(int index) {
+            this.index = index;
+        }
+    }
+
+    static final class Negation extends Node {
+        final Node operand;
+
+        Negation(Node operand) {
+            this.operand = operand;
+        }
+    }
+
+    // op is one of + - * / ^
+    static final class Binary extends Node {
+        final char op;
+        final Node left, right;
+
+        Binary(char op, Node left, Node right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Call extends Node {
+        final MathFunction function;
+        final Node[] args;
+
+        Call(MathFunction function, Node[] args) {
+            this.function = function;
+            this.args = args;
+        }
+    }
+
+    private final String expression;
+    private int pos;
+    private int maxVariableIndex = -1;
+
+    ExpressionParser(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("expression cannot be null");
+        }
+        this.expression = expression;
+    }
+
+    Node parse() throws IllegalArgumentException {
+        pos = 0;
+        maxVariableIndex = -1;
+        Node root = sum();
+        skipWhitespace();
+        if (pos < expression.length()) {
+            throw error("Unexpected '" + expression.charAt(pos) + "'");
+        }
+        return root;
+    }
+
+    // The number of variables the expression needs (x3 alone needs 3), known after parse()
+    int getVariablesCount() {
+        return maxVariableIndex + 1;
+    }
+
+    private Node sum() {
+        Node node = product();
+        while (true) {
+            if (accept('+')) {
+                node = binary('+', node, product());
+            } else if (accept('-')) {
+                node = binary('-', node, product());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node product() {
+        Node node = factor();
+        while (true) {
+            if (accept('*')) {
+                node = binary('*', node, factor());
+            } else if (accept('/')) {
+                node = binary('/', node, factor());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node factor() {
+        if (accept('-')) {
+            Node operand = factor();
+            return operand instanceof Constant ? new Constant(-((Constant) operand).value) : new Negation(operand);
+        }
+        if (accept('+')) {
+            return factor();
+        }
+        return power();
+    }
+
+    private Node power() {
+        Node base = primary();
+        if (accept('^')) {
+            return binary('^', base, factor());
+        }
+        return base;
+    }
+
+    private Node primary() {
+        skipWhitespace();
+        if (pos >= expression.length()) {
+            throw error("Unexpected end of expression");
+        }
+        char c = expression.charAt(pos);
+        if (accept('(')) {
+            Node node = sum();
+            expect(')');
+            return node;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (Character.isLetter(c)) {
+            int start = pos;
+            String name = identifier();
+            if (accept('(')) {
+                return call(name, start);
+            }
+            return variableOrConstant(name, start);
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private Node number() {
+        int start = pos;
+        skipDigits();
+        if (pos < expression.length() && expression.charAt(pos) == '.') {
+            pos++;
+            skipDigits();
+        }
+        // An exponent only if digits follow, so "2e" stays an error rather than a product with e
+        if (pos < expression.length() && (expression.charAt(pos) == 'e' || expression.charAt(pos) == 'E')) {
+            int exponent = pos++;
+            if (pos < expression.length() && (expression.charAt(pos) == '+' || expression.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (pos < expression.length() && Character.isDigit(expression.charAt(pos))) {
+                skipDigits();
+            } else {
+                pos = exponent;
+            }
+        }
+        String number = expression.substring(start, pos);
+        try {
+            return new Constant(Double.parseDouble(number));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("Wrong number '" + number + "'");
+        }
+    }
+
+    private void skipDigits() {
+        while (pos < expression.length() && Character.isDigit(expression.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < expression.length() && (Character.isLetterOrDigit(expression.charAt(pos)) || expression.charAt(pos) == '_')) {
+            pos++;
+        }
+        return expression.substring(start, pos);
+    }
+
+    private Node call(String name, int start) {
+        MathFunction function = MathFunction.forName(name);
+        if (function == null) {
+            pos = start;
+            throw error("Unknown function '" + name + "'");
+        }
+        List<Node> args = new ArrayList<>();
+        args.add(sum());
+        while (accept(',')) {
+            args.add(sum());
+        }
+        expect(')');
+        if (args.size() != function.arity) {
+            pos = start;
+            throw error("Function '" + name + "' takes " + function.arity + (function.arity == 1 ? " argument" : " arguments"));
+        }
+
+        Node[] argsArray = args.toArray(new Node[0]);
+        double[] values = new double[argsArray.length];
+        for (int i = 0; i < argsArray.length; i++) {
+            if (!(argsArray[i] instanceof Constant)) {
+                return new Call(function, argsArray);
+            }
+            values[i] = ((Constant) argsArray[i]).value;
+        }
+        return new Constant(function.apply(values));
+    }
+
+    private Node variableOrConstant(String name, int start) {
+        switch (name) {
+            case "pi":
+                return new Constant(Math.PI);
+            case "e":
+                return new Constant(Math.E);
+            case "x":
+                return variable(0);
+            case "y":
+                return variable(1);
+            case "z":
+                return variable(2);
+        }
+        if (name.length() > 1 && name.charAt(0) == 'x' && name.chars().skip(1).allMatch(Character::isDigit)
+                && name.charAt(1) != '0' && name.length() <= 6) {
+            return variable(Integer.parseInt(name.substring(1)) - 1);
+        }
+        pos = start;
+        throw error("Unknown variable or constant '" + name + "'");
+    }
+
+    private Node variable(int index) {
+        maxVariableIndex = Math.max(maxVariableIndex, index);
+        return new Variable(index);
+    }
+
+    private static Node binary(char op, Node left, Node right) {
+        if (left instanceof Constant && right instanceof Constant) {
+            return new Constant(apply(op, ((Constant) left).value, ((Constant) right).value));
+        }
+        return new Binary(op, left, right);
+    }
+
+    // Folds the operators the same way the compiled code computes them
+    static double apply(char op, double left, double right) {
+        switch (op) {
+            case '+':
+                return left + right;
+            case '-':
+                return left - right;
+            case '*':
+                return left * right;
+            case '/':
+                return left / right;
+            case '^':
+                return power(left, right);
+            default:
+                throw new IllegalArgumentException("Unknown operator " + op);
+        }
+    }
+
+    // Small integer exponents are multiplications, as they are in the compiled code
+    static double power(double base, double exponent) {
+        if (exponent == 2.0) {
+            return base * base;
+        } else if (exponent == 3.0) {
+            return base * (base * base);
+        } else if (exponent == 4.0) {
+            double square = base * base;
+            return square * square;
+        }
+        return Math.pow(base, exponent);
+    }
+
+    private boolean accept(char c) {
+        skipWhitespace();
+        if (pos < expression.length() && expression.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error(pos < expression.length() ? "Expected '" + c + "' instead of '" + expression.charAt(pos) + "'"
+                    : "Expected '" + c + "' at the end of expression");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < expression.length() && Character.isWhitespace(expression.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + ": position " + (pos + 1));
+    }
+}
@@ -14,8 +14,17 @@ public class GoldsteinPriceFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
+        return value(pos[0], pos[1]);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions[2 * p], positions[2 * p + 1]);
+        }
+    }
+
+    private static double value(double x, double y) {
         return (1 + Math.pow(x + y + 1, 2) * (19 - 14 * x + 3 * Math.pow(x, 2) - 14 * y + 6 * x * y + 3 * Math.pow(y, 2)))
                 * (30 + Math.pow(2 * x - 3 * y, 2) * (18 - 32 * x + 12 * Math.pow(x, 2) + 48 * y - 36 * x * y + 27 * Math.pow(y, 2)));
     }
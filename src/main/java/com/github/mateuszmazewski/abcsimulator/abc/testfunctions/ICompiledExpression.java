@@ -0,0 +1,8 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+// Implemented by the classes ExpressionCompiler generates. Public, because they are defined by their own class loader.
+public interface ICompiledExpression {
+
+    // Evaluates the point whose variables are positions[offset], positions[offset + 1], ...
+    double evaluate(double[] positions, int offset);
+}
@@ -3,10 +3,14 @@ package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
 public class RastriginFunction extends AbstractTestFunction {
 
     public RastriginFunction() {
-        super(2,
-                new double[]{-5.12, -5.12},
-                new double[]{5.12, 5.12},
-                new double[]{0.0, 0.0},
+        this(2);
+    }
+
+    public RastriginFunction(int dim) {
+        super(dim,
+                filledArray(dim, -5.12),
+                filledArray(dim, 5.12),
+                filledArray(dim, 0.0),
                 0.0,
                 false,
                 "rastriginFunction.name");
@@ -14,11 +18,27 @@ public class RastriginFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
-        double A = 10.0, n = 2;
-        return A * n
-                + (Math.pow(x, 2) - A * Math.cos(2 * Math.PI * x))
-                + (Math.pow(y, 2) - A * Math.cos(2 * Math.PI * y));
+        return value(pos, 0, pos.length);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        int dim = getDim();
+        if (VectorKernels.isEnabled()) {
+            VectorKernels.rastrigin(positions, values, from, to, dim);
+            return;
+        }
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions, p * dim, dim);
+        }
+    }
+
+    static double value(double[] positions, int offset, int dim) {
+        double A = 10.0;
+        double sum = A * dim;
+        for (int i = offset; i < offset + dim; i++) {
+            sum += Math.pow(positions[i], 2) - A * Math.cos(2 * Math.PI * positions[i]);
+        }
+        return sum;
     }
 }
@@ -3,19 +3,44 @@ package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
 public class RosenbrockFunction extends AbstractTestFunction {
 
     public RosenbrockFunction() {
-        super(2,
-                new double[]{-2.0, -2.0},
-                new double[]{2.0, 2.0},
-                new double[]{1.0, 1.0},
+        this(2);
+    }
+
+    public RosenbrockFunction(int dim) {
+        super(dim,
+                filledArray(dim, -2.0),
+                filledArray(dim, 2.0),
+                filledArray(dim, 1.0),
                 0.0,
                 true,
                 "rosenbrockFunction.name");
+        if (dim < 2) {
+            throw new IllegalArgumentException("Rosenbrock function needs at least 2 dimensions");
+        }
     }
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
-        return 100 * Math.pow(y - Math.pow(x, 2), 2) + Math.pow(1 - x, 2);
+        return value(pos, 0, pos.length);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        int dim = getDim();
+        if (VectorKernels.isEnabled()) {
+            VectorKernels.rosenbrock(positions, values, from, to, dim);
+            return;
+        }
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions, p * dim, dim);
+        }
+    }
+
+    static double value(double[] positions, int offset, int dim) {
+        double sum = 0.0;
+        for (int i = offset; i < offset + dim - 1; i++) {
+            sum += 100 * Math.pow(positions[i + 1] - Math.pow(positions[i], 2), 2) + Math.pow(1 - positions[i], 2);
+        }
+        return sum;
     }
 }
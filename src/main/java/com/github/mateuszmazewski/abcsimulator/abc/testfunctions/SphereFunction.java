@@ -3,10 +3,14 @@ package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
 public class SphereFunction extends AbstractTestFunction {
 
     public SphereFunction() {
-        super(2,
-                new double[]{-2.0, -2.0},
-                new double[]{2.0, 2.0},
-                new double[]{0.0, 0.0},
+        this(2);
+    }
+
+    public SphereFunction(int dim) {
+        super(dim,
+                filledArray(dim, -2.0),
+                filledArray(dim, 2.0),
+                filledArray(dim, 0.0),
                 0.0,
                 false,
                 "sphereFunction.name");
@@ -14,8 +18,26 @@ public class SphereFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
-        return Math.pow(x, 2) + Math.pow(y, 2);
+        return value(pos, 0, pos.length);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        int dim = getDim();
+        if (VectorKernels.isEnabled()) {
+            VectorKernels.sphere(positions, values, from, to, dim);
+            return;
+        }
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions, p * dim, dim);
+        }
+    }
+
+    static double value(double[] positions, int offset, int dim) {
+        double sum = 0.0;
+        for (int i = offset; i < offset + dim; i++) {
+            sum += Math.pow(positions[i], 2);
+        }
+        return sum;
     }
 }
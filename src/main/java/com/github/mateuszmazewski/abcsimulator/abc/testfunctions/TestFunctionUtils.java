@@ -1,9 +1,14 @@
 package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
 
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins.ITestFunctionPlugin;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins.PluginTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins.TestFunctionPlugins;
 import com.github.mateuszmazewski.abcsimulator.utils.DialogUtils;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -22,19 +27,84 @@ public class TestFunctionUtils {
             ThreeHumpCamelFunction.class
     );
 
-    public static final List<String> allTestFunctionNames = allTestFunctionClasses.stream()
+    public static final List<String> bundledTestFunctionNames = allTestFunctionClasses.stream()
             .map(Class::getSimpleName)
             .collect(Collectors.toList());
 
+    public static TestFunctionPlugins getPlugins() {
+        return TestFunctionPlugins.getInstance(bundledTestFunctionNames);
+    }
+
+    // The bundled functions followed by the ones of the plugins
+    public static List<String> getAllTestFunctionNames() {
+        List<String> names = new ArrayList<>(bundledTestFunctionNames);
+        names.addAll(getPlugins().getNames());
+        return names;
+    }
+
     public static ObservableMap<String, AbstractTestFunction> createTestFunctionObservableMap() {
         ObservableMap<String, AbstractTestFunction> testFunctionObservableMap = FXCollections.observableHashMap();
         allTestFunctionClasses.forEach(funcClass -> {
             try {
-                testFunctionObservableMap.put(funcClass.getSimpleName(), funcClass.newInstance());
-            } catch (InstantiationException | IllegalAccessException e) {
+                AbstractTestFunction func = funcClass.getConstructor().newInstance();
+                testFunctionObservableMap.put(func.getRegistryName(), func);
+            } catch (InvocationTargetException e) {
+                DialogUtils.errorDialog(e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
+            } catch (ReflectiveOperationException e) {
                 DialogUtils.errorDialog(e.getClass().getSimpleName() + ": " + e.getMessage());
             }
         });
+
+        // The chart needs 2 dimensions. Objectives are created only when a function is drawn or run.
+        TestFunctionPlugins plugins = getPlugins();
+        for (ITestFunctionPlugin plugin : plugins.getPlugins()) {
+            try {
+                if (plugin.supportsDim(2)) {
+                    AbstractTestFunction func = new PluginTestFunction(plugin, 2);
+                    testFunctionObservableMap.put(func.getRegistryName(), func);
+                }
+            } catch (RuntimeException e) {
+                DialogUtils.errorDialog(plugin.getName() + " - " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        if (!plugins.getErrors().isEmpty()) {
+            DialogUtils.errorDialog(String.join("\n", plugins.getErrors()));
+        }
         return testFunctionObservableMap;
     }
+
+    public static AbstractTestFunction createTestFunction(String name) throws IllegalArgumentException {
+        return createTestFunction(name, 2);
+    }
+
+    // Functions which can be used in more than 2 dimensions have a constructor taking the dimension
+    public static AbstractTestFunction createTestFunction(String name, int dim) throws IllegalArgumentException {
+        for (Class<? extends AbstractTestFunction> funcClass : allTestFunctionClasses) {
+            if (funcClass.getSimpleName().equals(name)) {
+                try {
+                    if (dim == 2) {
+                        return funcClass.getConstructor().newInstance();
+                    }
+                    return funcClass.getConstructor(int.class).newInstance(dim);
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalArgumentException("Function " + name + " supports only 2 dimensions");
+                } catch (InvocationTargetException e) {
+                    throw new IllegalArgumentException("Cannot create function " + name + ": " + e.getCause().getMessage(), e);
+                } catch (InstantiationException | IllegalAccessException e) {
+                    throw new IllegalArgumentException("Cannot create function " + name + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        ITestFunctionPlugin plugin = getPlugins().getPlugin(name);
+        if (plugin != null) {
+            try {
+                return new PluginTestFunction(plugin, dim);
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cannot create function " + name + ": " + e, e);
+            }
+        }
+        throw new IllegalArgumentException("Unknown function: " + name);
+    }
 }
@@ -14,8 +14,17 @@ public class ThreeHumpCamelFunction extends AbstractTestFunction {
 
     @Override
     protected double calculateValue(double[] pos) {
-        double x = pos[0];
-        double y = pos[1];
+        return value(pos[0], pos[1]);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        for (int p = from; p < to; p++) {
+            values[p] = value(positions[2 * p], positions[2 * p + 1]);
+        }
+    }
+
+    private static double value(double x, double y) {
         return 2 * Math.pow(x, 2) - 1.05 * Math.pow(x, 4) + Math.pow(x, 6) / 6.0 + x * y + Math.pow(y, 2);
     }
 }
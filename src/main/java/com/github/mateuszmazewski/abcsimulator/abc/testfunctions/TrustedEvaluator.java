@@ -0,0 +1,25 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+// Evaluates positions without the per-call validation of getValue.
+// Created only by AbstractTestFunction.trustedEvaluator after the boundaries were checked once,
+// so callers must keep every position within those boundaries (e.g. by clamping each coordinate).
+public final class TrustedEvaluator {
+
+    private final AbstractTestFunction func;
+
+    TrustedEvaluator(AbstractTestFunction func) {
+        this.func = func;
+    }
+
+    public double getValue(double[] pos) {
+        return func.calculateValue(pos);
+    }
+
+    public void getValues(double[] positions, double[] values, int from, int to) {
+        func.calculateValues(positions, values, from, to);
+    }
+
+    public AbstractTestFunction getFunc() {
+        return func;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+// Batch kernels of the element-wise functions evaluated with SIMD lanes.
+// This is the Java 8 version - the Vector API is used only by the Java 17 version of this class
+// in the multi-release jar (src/main/java17), so here the kernels are never enabled
+// and calling them directly runs the scalar loops of the functions.
+public class VectorKernels {
+
+    // Vector kernels are opt-in, because their cos/exp may differ from Math in the last bits,
+    // so seeded runs would not reproduce results of the scalar path exactly
+    public static final String ENABLED_PROPERTY = "abcsimulator.vectorKernels";
+
+    private VectorKernels() {
+    }
+
+    // Whether the Vector API can be used at all (Java 17+ with --add-modules jdk.incubator.vector)
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    // Whether the bundled functions should use the kernels in getValues
+    public static boolean isEnabled() {
+        return false;
+    }
+
+    public static void sphere(double[] positions, double[] values, int from, int to, int dim) {
+        for (int p = from; p < to; p++) {
+            values[p] = SphereFunction.value(positions, p * dim, dim);
+        }
+    }
+
+    public static void rastrigin(double[] positions, double[] values, int from, int to, int dim) {
+        for (int p = from; p < to; p++) {
+            values[p] = RastriginFunction.value(positions, p * dim, dim);
+        }
+    }
+
+    public static void ackley(double[] positions, double[] values, int from, int to, int dim) {
+        for (int p = from; p < to; p++) {
+            values[p] = AckleyFunction.value(positions, p * dim, dim);
+        }
+    }
+
+    public static void rosenbrock(double[] positions, double[] values, int from, int to, int dim) {
+        for (int p = from; p < to; p++) {
+            values[p] = RosenbrockFunction.value(positions, p * dim, dim);
+        }
+    }
+}
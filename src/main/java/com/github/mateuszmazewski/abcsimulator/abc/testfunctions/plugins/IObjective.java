@@ -0,0 +1,18 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+// Evaluates a plugin function. Positions are always within the function's boundaries.
+// The methods may be called from several threads at once, so they must not share mutable state.
+public interface IObjective {
+
+    double evaluate(double[] pos);
+
+    // Evaluates points from..to-1 stored one after another in positions (point p starts at p * dim) into values[p].
+    // Override it with a loop over the flat buffer to save a call and a copy per point.
+    default void evaluateBatch(double[] positions, double[] values, int from, int to, int dim) {
+        double[] pos = new double[dim];
+        for (int p = from; p < to; p++) {
+            System.arraycopy(positions, p * dim, pos, 0, dim);
+            values[p] = evaluate(pos);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+import java.util.Locale;
+
+// An objective function shipped in a jar outside the simulator. The jar lists its implementations in
+// META-INF/services/com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins.ITestFunctionPlugin
+// and is put in the plugins directory (see TestFunctionPlugins). Implementations need a public no-argument
+// constructor, which should be cheap - every plugin is constructed at startup, but only the metadata methods
+// are called until the function is evaluated for the first time.
+public interface ITestFunctionPlugin {
+
+    // Identifies the function in sweep specs and results files, like the class names of the bundled functions.
+    // Letters, digits, '_', '.' and '-' only.
+    String getName();
+
+    // Shown in the function list of the application
+    default String getDisplayName(Locale locale) {
+        return getName();
+    }
+
+    default boolean supportsDim(int dim) {
+        return dim == 2;
+    }
+
+    // Arrays of length dim, called only with a supported dim
+    double[] getLowerBoundaries(int dim);
+
+    double[] getUpperBoundaries(int dim);
+
+    double[] getGlobalMinValuePos(int dim);
+
+    double getGlobalMinValue(int dim);
+
+    default boolean isChartInLogScale() {
+        return false;
+    }
+
+    // Called once per function instance and dimension, right before its first evaluation.
+    // It may load whatever the objective needs (models, tables, native libraries).
+    IObjective createObjective(int dim);
+}
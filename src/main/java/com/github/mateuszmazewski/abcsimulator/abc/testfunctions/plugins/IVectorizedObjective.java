@@ -0,0 +1,9 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+// An objective with a SIMD version of evaluateBatch. Like the bundled vector kernels it is used only with
+// the VectorKernels.ENABLED_PROPERTY system property set, because its results may differ in the last bits,
+// so seeded runs would not reproduce the results of evaluateBatch exactly.
+public interface IVectorizedObjective extends IObjective {
+
+    void evaluateVectorized(double[] positions, double[] values, int from, int to, int dim);
+}
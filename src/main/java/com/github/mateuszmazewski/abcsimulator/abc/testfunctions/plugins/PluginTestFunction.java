@@ -0,0 +1,91 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.VectorKernels;
+import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
+import javafx.beans.binding.Bindings;
+
+import java.util.Locale;
+
+// A function of a plugin. Its metadata is read when it is created, its objective on the first evaluation,
+// so listing plugin functions costs nothing until one of them is used.
+public class PluginTestFunction extends AbstractTestFunction {
+
+    private static final boolean VECTORIZED_ENABLED = Boolean.getBoolean(VectorKernels.ENABLED_PROPERTY);
+
+    private final ITestFunctionPlugin plugin;
+    private volatile IObjective objective;
+
+    public PluginTestFunction(ITestFunctionPlugin plugin, int dim) {
+        super(dim,
+                copy(checkDim(plugin, dim).getLowerBoundaries(dim)),
+                copy(plugin.getUpperBoundaries(dim)),
+                copy(plugin.getGlobalMinValuePos(dim)),
+                plugin.getGlobalMinValue(dim),
+                plugin.isChartInLogScale(),
+                "pluginFunction.name");
+        this.plugin = plugin;
+
+        ObservableResourceFactory messagesFactory = ObservableResourceFactory.getInstance();
+        nameProperty().bind(Bindings.createStringBinding(() -> {
+            Locale locale = messagesFactory.getResources().getLocale();
+            return plugin.getDisplayName(locale);
+        }, messagesFactory.resourcesProperty()));
+    }
+
+    private static ITestFunctionPlugin checkDim(ITestFunctionPlugin plugin, int dim) {
+        if (plugin == null) {
+            throw new IllegalArgumentException("plugin cannot be null");
+        }
+        if (!plugin.supportsDim(dim)) {
+            throw new IllegalArgumentException("Function " + plugin.getName() + " does not support " + dim + " dimensions");
+        }
+        return plugin;
+    }
+
+    // Plugins may return shared arrays, which must not change with the ranges. Nulls are reported by the super constructor.
+    private static double[] copy(double[] array) {
+        return array != null ? array.clone() : null;
+    }
+
+    @Override
+    protected double calculateValue(double[] pos) {
+        return getObjective().evaluate(pos);
+    }
+
+    @Override
+    protected void calculateValues(double[] positions, double[] values, int from, int to) {
+        IObjective objective = getObjective();
+        if (VECTORIZED_ENABLED && objective instanceof IVectorizedObjective) {
+            ((IVectorizedObjective) objective).evaluateVectorized(positions, values, from, to, getDim());
+        } else {
+            objective.evaluateBatch(positions, values, from, to, getDim());
+        }
+    }
+
+    private IObjective getObjective() {
+        IObjective objective = this.objective;
+        if (objective == null) {
+            synchronized (this) {
+                objective = this.objective;
+                if (objective == null) {
+                    objective = plugin.createObjective(getDim());
+                    if (objective == null) {
+                        throw new IllegalStateException("Plugin function " + plugin.getName() + " created no objective");
+                    }
+                    this.objective = objective;
+                }
+            }
+        }
+        return objective;
+    }
+
+    @Override
+    public String getRegistryName() {
+        return plugin.getName();
+    }
+
+    public ITestFunctionPlugin getPlugin() {
+        return plugin;
+    }
+}
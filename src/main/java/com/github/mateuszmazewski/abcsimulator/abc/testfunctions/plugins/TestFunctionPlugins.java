@@ -0,0 +1,106 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
+
+// Finds the plugins in the jars of the plugins directory (and on the class path) when they are first needed.
+// The directory is "plugins" in the working directory unless the abcsimulator.pluginsDir system property says
+// otherwise. Broken plugins and duplicate names are skipped and reported by getErrors().
+public class TestFunctionPlugins {
+
+    public static final String PLUGINS_DIR_PROPERTY = "abcsimulator.pluginsDir";
+    public static final String DEFAULT_PLUGINS_DIR = "plugins";
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9_.\\-]+");
+
+    private static TestFunctionPlugins instance;
+    private final Map<String, ITestFunctionPlugin> plugins = new LinkedHashMap<>();
+    private final List<String> errors = new ArrayList<>();
+
+    private TestFunctionPlugins() {
+    }
+
+    // reservedNames are the names of the bundled functions - plugins cannot replace them
+    public static synchronized TestFunctionPlugins getInstance(Collection<String> reservedNames) {
+        if (instance == null) {
+            instance = new TestFunctionPlugins();
+            instance.load(new File(System.getProperty(PLUGINS_DIR_PROPERTY, DEFAULT_PLUGINS_DIR)), reservedNames);
+        }
+        return instance;
+    }
+
+    private void load(File pluginsDir, Collection<String> reservedNames) {
+        File[] jars = pluginsDir.listFiles((dir, name) -> name.endsWith(".jar"));
+        List<URL> urls = new ArrayList<>();
+        if (jars != null) {
+            Arrays.sort(jars); // The first of the plugins with the same name wins, whatever the file system order
+            for (File jar : jars) {
+                try {
+                    urls.add(jar.toURI().toURL());
+                } catch (MalformedURLException e) {
+                    errors.add(jar + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // Never closed - the plugins' classes are used until the application exits
+        ClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[0]), TestFunctionPlugins.class.getClassLoader());
+        Iterator<ITestFunctionPlugin> iterator = ServiceLoader.load(ITestFunctionPlugin.class, classLoader).iterator();
+        while (true) {
+            ITestFunctionPlugin plugin;
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                plugin = iterator.next();
+            } catch (ServiceConfigurationError e) {
+                // The iterator moves past the broken provider
+                errors.add(e.getMessage());
+                continue;
+            }
+
+            String name;
+            try {
+                name = plugin.getName();
+            } catch (RuntimeException e) {
+                errors.add(plugin.getClass().getName() + ": " + e);
+                continue;
+            }
+            if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+                errors.add(plugin.getClass().getName() + ": wrong function name " + name);
+            } else if (reservedNames.contains(name) || plugins.containsKey(name)) {
+                errors.add(plugin.getClass().getName() + ": function " + name + " already exists");
+            } else {
+                plugins.put(name, plugin);
+            }
+        }
+    }
+
+    public ITestFunctionPlugin getPlugin(String name) {
+        return plugins.get(name);
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(plugins.keySet());
+    }
+
+    public Collection<ITestFunctionPlugin> getPlugins() {
+        return Collections.unmodifiableCollection(plugins.values());
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,232 @@
+package com.github.mateuszmazewski.abcsimulator.abc.tuning;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.SelectionMode;
+import com.github.mateuszmazewski.abcsimulator.abc.StopCriteria;
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.random.IRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Tunes foodSourcesCount and trialsLimit for one function, with every run limited to the same number of evaluations.
+// Random search samples distinct candidates from the given values, then successive halving races them: each round
+// runs all remaining candidates on the same new seeds, ranks them by the median error of all their runs so far
+// (fewer evaluations until the best food source breaks ties) and keeps the best 1/reductionFactor of them.
+// Every round has reductionFactor times more seeds than the previous one, so the last one left gets the most runs.
+public class ParameterTuner {
+
+    public static final int MIN_REDUCTION_FACTOR = 2;
+
+    private final AbstractTestFunction func;
+    private final int[] foodSourcesCounts;
+    private final int[] trialsLimits;
+    private final int maxIter;
+    private final StopCriteria stopCriteria = new StopCriteria(); // Shared by all runs, only read by the colonies
+    private final IRandomGenerator rng;
+    private int candidatesCount = 32;
+    private int initialSeedsCount = 3;
+    private int reductionFactor = 2;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private SelectionMode selectionMode = SelectionMode.FITNESS;
+    private List<TuningCandidate> candidates = new ArrayList<>();
+    private long runsCount;
+
+    // maxIter only caps the runs - it should be high enough for the evaluation budget to end them
+    public ParameterTuner(AbstractTestFunction func, int[] foodSourcesCounts, int[] trialsLimits, int maxIter,
+                          long maxEvaluations, long seed) {
+        if (func == null) {
+            throw new IllegalArgumentException("function cannot be null");
+        }
+        this.func = func;
+        this.foodSourcesCounts = distinct(foodSourcesCounts);
+        this.trialsLimits = distinct(trialsLimits);
+        this.maxIter = maxIter;
+        stopCriteria.setMaxEvaluations(maxEvaluations);
+        for (int foodSourcesCount : this.foodSourcesCounts) {
+            if (foodSourcesCount < ArtificialBeeColony.MIN_FOOD_SOURCES_COUNT || foodSourcesCount > ArtificialBeeColony.MAX_FOOD_SOURCES_COUNT) {
+                throw new IllegalArgumentException("food sources count must be in range <" + ArtificialBeeColony.MIN_FOOD_SOURCES_COUNT
+                        + ", " + ArtificialBeeColony.MAX_FOOD_SOURCES_COUNT + ">");
+            }
+        }
+        for (int trialsLimit : this.trialsLimits) {
+            if (trialsLimit < ArtificialBeeColony.MIN_TRIALS_LIMIT || trialsLimit > ArtificialBeeColony.MAX_TRIALS_LIMIT) {
+                throw new IllegalArgumentException("trials limit must be in range <" + ArtificialBeeColony.MIN_TRIALS_LIMIT
+                        + ", " + ArtificialBeeColony.MAX_TRIALS_LIMIT + ">");
+            }
+        }
+        if (maxIter < ArtificialBeeColony.MAX_ITER_LOWER_LIMIT || maxIter > ArtificialBeeColony.MAX_ITER_UPPER_LIMIT) {
+            throw new IllegalArgumentException("max iterations must be in range <" + ArtificialBeeColony.MAX_ITER_LOWER_LIMIT
+                    + ", " + ArtificialBeeColony.MAX_ITER_UPPER_LIMIT + ">");
+        }
+        rng = new Xoroshiro128PlusPlusGenerator(seed);
+    }
+
+    private static int[] distinct(int[] values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("values to choose from cannot be empty");
+        }
+        return Arrays.stream(values).distinct().sorted().toArray();
+    }
+
+    public void run() throws InterruptedException {
+        List<TuningCandidate> remaining = sampleCandidates();
+        candidates = new ArrayList<>(remaining);
+        runsCount = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int seedsCount = initialSeedsCount;
+            while (true) {
+                long[] seeds = new long[seedsCount];
+                for (int i = 0; i < seedsCount; i++) {
+                    seeds[i] = rng.nextLong();
+                }
+                runRound(executor, remaining, seeds);
+
+                remaining.sort(rankingComparator());
+                if (remaining.size() == 1) {
+                    break;
+                }
+                remaining = new ArrayList<>(remaining.subList(0, (remaining.size() + reductionFactor - 1) / reductionFactor));
+                seedsCount = (int) Math.min((long) seedsCount * reductionFactor, Integer.MAX_VALUE);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Candidates dropped in the same round keep the order they were ranked in
+        candidates.sort(Comparator.comparingInt(TuningCandidate::getRounds).reversed().thenComparing(rankingComparator()));
+    }
+
+    private List<TuningCandidate> sampleCandidates() {
+        long gridSize = (long) foodSourcesCounts.length * trialsLimits.length;
+        List<TuningCandidate> sampled = new ArrayList<>();
+        if (candidatesCount >= gridSize) {
+            for (int foodSourcesCount : foodSourcesCounts) {
+                for (int trialsLimit : trialsLimits) {
+                    sampled.add(new TuningCandidate(foodSourcesCount, trialsLimit));
+                }
+            }
+            return sampled;
+        }
+
+        // Rejection sampling - at least half of the draws are new while fewer than half of the grid is taken
+        Set<Long> taken = new HashSet<>();
+        while (sampled.size() < candidatesCount) {
+            int i = rng.nextInt(foodSourcesCounts.length);
+            int j = rng.nextInt(trialsLimits.length);
+            if (taken.add((long) i * trialsLimits.length + j)) {
+                sampled.add(new TuningCandidate(foodSourcesCounts[i], trialsLimits[j]));
+            }
+        }
+        return sampled;
+    }
+
+    private void runRound(ExecutorService executor, List<TuningCandidate> remaining, long[] seeds) throws InterruptedException {
+        List<Future<double[]>> futures = new ArrayList<>();
+        for (TuningCandidate candidate : remaining) {
+            for (long seed : seeds) {
+                futures.add(executor.submit(runTask(candidate, seed)));
+            }
+        }
+
+        // Results are added in the order of submission, so they do not depend on thread timing
+        int k = 0;
+        for (TuningCandidate candidate : remaining) {
+            candidate.nextRound();
+            for (int s = 0; s < seeds.length; s++) {
+                try {
+                    double[] result = futures.get(k++).get();
+                    candidate.addRun(result[0], (long) result[1]);
+                    runsCount++;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause
+                            : new IllegalStateException("Tuning run failed: " + cause, cause);
+                }
+            }
+        }
+    }
+
+    // Returns the error and the evaluations made until the best food source was found
+    private Callable<double[]> runTask(TuningCandidate candidate, long seed) {
+        return () -> {
+            ArtificialBeeColony abc = new ArtificialBeeColony(candidate.getFoodSourcesCount(), maxIter, func,
+                    candidate.getTrialsLimit(), seed);
+            abc.setHistoryRecorder(new NoHistoryRecorder());
+            abc.setStopCriteria(stopCriteria);
+            abc.setSelectionMode(selectionMode);
+            abc.run();
+            return new double[]{Math.abs(abc.getBestFxSoFar() - func.getMinValue()), abc.getBestEvaluations()};
+        };
+    }
+
+    private static Comparator<TuningCandidate> rankingComparator() {
+        return Comparator.comparingDouble(TuningCandidate::getMedianError)
+                .thenComparingDouble(TuningCandidate::getMeanBestEvaluations);
+    }
+
+    public void setCandidatesCount(int candidatesCount) {
+        if (candidatesCount <= 0) {
+            throw new IllegalArgumentException("candidates count must be positive");
+        }
+        this.candidatesCount = candidatesCount;
+    }
+
+    public void setInitialSeedsCount(int initialSeedsCount) {
+        if (initialSeedsCount <= 0) {
+            throw new IllegalArgumentException("initial seeds count must be positive");
+        }
+        this.initialSeedsCount = initialSeedsCount;
+    }
+
+    public void setReductionFactor(int reductionFactor) {
+        if (reductionFactor < MIN_REDUCTION_FACTOR) {
+            throw new IllegalArgumentException("reduction factor must be at least " + MIN_REDUCTION_FACTOR);
+        }
+        this.reductionFactor = reductionFactor;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+    }
+
+    public void setSelectionMode(SelectionMode selectionMode) {
+        if (selectionMode == null) {
+            throw new IllegalArgumentException("selection mode cannot be null");
+        }
+        this.selectionMode = selectionMode;
+    }
+
+    // Ranked after run(): the best candidate first, then the ones dropped later before the ones dropped earlier
+    public List<TuningCandidate> getCandidates() {
+        return candidates;
+    }
+
+    public TuningCandidate getBest() {
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    public long getRunsCount() {
+        return runsCount;
+    }
+
+    public long getMaxEvaluations() {
+        return stopCriteria.getMaxEvaluations();
+    }
+}
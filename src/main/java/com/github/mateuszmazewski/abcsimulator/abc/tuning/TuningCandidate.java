@@ -0,0 +1,91 @@
+package com.github.mateuszmazewski.abcsimulator.abc.tuning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// One sampled configuration with the results of all its runs so far, in the order of the seeds
+public class TuningCandidate {
+
+    private final int foodSourcesCount;
+    private final int trialsLimit;
+    private final List<Double> errors = new ArrayList<>();
+    private final List<Long> bestEvaluations = new ArrayList<>();
+    private int rounds; // Rounds of successive halving the candidate took part in
+
+    TuningCandidate(int foodSourcesCount, int trialsLimit) {
+        this.foodSourcesCount = foodSourcesCount;
+        this.trialsLimit = trialsLimit;
+    }
+
+    void addRun(double error, long bestEvaluations) {
+        errors.add(error);
+        this.bestEvaluations.add(bestEvaluations);
+    }
+
+    void nextRound() {
+        rounds++;
+    }
+
+    public int getFoodSourcesCount() {
+        return foodSourcesCount;
+    }
+
+    public int getTrialsLimit() {
+        return trialsLimit;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public int getRuns() {
+        return errors.size();
+    }
+
+    public double[] getSortedErrors() {
+        double[] sorted = errors.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // Values between the sorted errors are interpolated linearly
+    public double getErrorQuantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("quantile must be in range <0, 1>");
+        }
+        double[] sorted = getSortedErrors();
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        double position = q * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    public double getMedianError() {
+        return getErrorQuantile(0.5);
+    }
+
+    public double getMeanError() {
+        return errors.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
+    }
+
+    public double getStdError() {
+        if (errors.size() < 2) {
+            return 0.0;
+        }
+        double mean = getMeanError();
+        double sum = 0.0;
+        for (double error : errors) {
+            sum += (error - mean) * (error - mean);
+        }
+        return Math.sqrt(sum / (errors.size() - 1));
+    }
+
+    // Evaluations made until the best food source was found, a tie-breaker between equally good candidates
+    public double getMeanBestEvaluations() {
+        return bestEvaluations.stream().mapToLong(Long::longValue).average().orElse(Double.NaN);
+    }
+}
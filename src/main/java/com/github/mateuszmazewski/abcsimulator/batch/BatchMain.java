@@ -0,0 +1,38 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Runs a parameter sweep without the GUI:
+// java -jar abc-simulator.jar --batch <sweep spec file> [output file]
+public class BatchMain {
+
+    public static final String BATCH_ARG = "--batch";
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: " + BATCH_ARG + " <sweep spec file> [output file]");
+            System.exit(2);
+        }
+
+        try {
+            SweepSpec spec = SweepSpec.readFromFile(new File(args[0]));
+            System.err.println("Running " + spec.getRunsCount() + " colonies on " + spec.getThreads() + " threads");
+
+            long start = System.nanoTime();
+            long finishedRuns;
+            try (Writer writer = args.length == 2
+                    ? new BufferedWriter(new FileWriter(args[1]))
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                finishedRuns = new BatchRunner(spec, writer).run();
+            }
+
+            long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+            System.err.println("Finished " + finishedRuns + " runs in " + seconds + " s");
+        } catch (IOException | InterruptedException e) {
+            System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
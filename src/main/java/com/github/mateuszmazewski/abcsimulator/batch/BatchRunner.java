@@ -0,0 +1,301 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResults;
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.CheckpointWriter;
+import com.github.mateuszmazewski.abcsimulator.abc.EvaluationCache;
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.IslandModel;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.DelayedFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class BatchRunner {
+
+    public static final String ERROR_COLUMN = "error";
+    public static final String EVALUATIONS_COLUMN = "evaluations";
+    public static final String TIME_COLUMN = "time_ms";
+
+    private final SweepSpec spec;
+    private final Writer writer;
+    private final AtomicLong finishedRuns = new AtomicLong();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    private Consumer<RunResult> resultListener;
+    private boolean skipUnsupportedDimensions;
+    private ForkJoinPool employedPhasePool; // null = sequential employed bee phases
+
+    public BatchRunner(SweepSpec spec, Writer writer) {
+        this.spec = spec;
+        this.writer = writer;
+    }
+
+    // Called after every run while holding the writer's lock, so the listener does not have to be thread-safe
+    public void setResultListener(Consumer<RunResult> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    // Skips dimensions a function cannot be created with (e.g. 2-D only functions in a sweep over dimensions)
+    // instead of failing the whole sweep
+    public void setSkipUnsupportedDimensions(boolean skipUnsupportedDimensions) {
+        this.skipUnsupportedDimensions = skipUnsupportedDimensions;
+    }
+
+    public long run() throws IOException, InterruptedException {
+        // Functions are only read during a run, so every worker can share one instance per function and dimension.
+        // They are created here, because their name bindings must not be set up concurrently.
+        Map<String, AbstractTestFunction> functions = new HashMap<>();
+        for (String name : spec.getFunctionNames()) {
+            for (int dim : spec.getDimensions()) {
+                try {
+                    AbstractTestFunction func = TestFunctionUtils.createTestFunction(name, dim);
+                    if (spec.getEvaluationDelayMicros() > 0) {
+                        func = new DelayedFunction(func, spec.getEvaluationDelayMicros());
+                    }
+                    functions.put(functionKey(name, dim), func);
+                } catch (IllegalArgumentException e) {
+                    if (!skipUnsupportedDimensions || !TestFunctionUtils.getAllTestFunctionNames().contains(name)) {
+                        throw new IOException(e.getMessage(), e);
+                    }
+                }
+            }
+        }
+
+        if (spec.getCheckpointDir() != null) {
+            Files.createDirectories(spec.getCheckpointDir().toPath());
+        }
+        if (spec.getResultsDir() != null) {
+            Files.createDirectories(spec.getResultsDir().toPath());
+        }
+
+        writer.write(String.join("\t",
+                ABCResultsIO.FUNCTION_PARAM,
+                ABCResultsIO.DIMENSION_PARAM,
+                ABCResultsIO.FOOD_SOURCES_COUNT_PARAM,
+                ABCResultsIO.ITERATIONS_PARAM,
+                ABCResultsIO.TRIALS_LIMIT_PARAM,
+                ABCResultsIO.SEED_PARAM,
+                ABCResultsIO.MIN_FOUND_VALUE_PARAM,
+                ERROR_COLUMN,
+                ABCResultsIO.BEST_ITERATION_PARAM,
+                ABCResultsIO.LAST_ITERATION_PARAM,
+                ABCResultsIO.ITERATION_EQUIVALENTS_PARAM,
+                ABCResultsIO.STOP_REASON_PARAM,
+                EVALUATIONS_COLUMN,
+                ABCResultsIO.BEST_EVALUATIONS_PARAM,
+                ABCResultsIO.CACHE_HITS_PARAM,
+                ABCResultsIO.CACHE_MISSES_PARAM,
+                TIME_COLUMN) + "\n");
+        writer.flush();
+
+        int threads = spec.getThreads();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // The runs wait for their employed bee phases, so the pool gets as many threads as there are runs
+        employedPhasePool = spec.isParallelEmployed() ? new ForkJoinPool(threads) : null;
+        // Bounds the number of queued runs, so a sweep of millions of configurations does not fill the heap
+        Semaphore queueSlots = new Semaphore(threads * 2);
+
+        try {
+            submitLoop:
+            for (String name : spec.getFunctionNames()) {
+                for (int dim : spec.getDimensions()) {
+                    AbstractTestFunction func = functions.get(functionKey(name, dim));
+                    if (func == null) {
+                        continue; // Skipped unsupported dimension
+                    }
+                    for (int foodSourcesCount : spec.getFoodSourcesCounts()) {
+                        for (int maxIter : spec.getMaxIters()) {
+                            for (int trialsLimit : spec.getTrialsLimits()) {
+                                for (long seed : spec.getSeeds()) {
+                                    queueSlots.acquire();
+                                    if (failure.get() != null) {
+                                        break submitLoop;
+                                    }
+                                    executor.execute(() -> {
+                                        try {
+                                            runSingle(func, name, foodSourcesCount, maxIter, trialsLimit, seed);
+                                        } catch (Exception e) {
+                                            failure.compareAndSet(null, e);
+                                        } finally {
+                                            queueSlots.release();
+                                        }
+                                    });
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            if (employedPhasePool != null) {
+                employedPhasePool.shutdown();
+            }
+        }
+
+        Exception e = failure.get();
+        if (e instanceof IOException) {
+            throw (IOException) e;
+        } else if (e != null) {
+            throw new IOException("Batch run failed: " + e.getClass().getSimpleName() + ": " + e.getMessage(), e);
+        }
+        return finishedRuns.get();
+    }
+
+    private static String functionKey(String name, int dim) {
+        return name + "/" + dim;
+    }
+
+    private void runSingle(AbstractTestFunction func, String name, int foodSourcesCount, int maxIter,
+                           int trialsLimit, long seed) throws IOException {
+        long start = System.nanoTime();
+        RunResult result = new RunResult();
+        result.functionName = name;
+        result.dim = func.getDim();
+        result.foodSourcesCount = foodSourcesCount;
+        result.maxIter = maxIter;
+        result.trialsLimit = trialsLimit;
+        result.seed = seed;
+
+        if (spec.getIslands() > 1) {
+            // foodSourcesCount is the size of every island
+            IslandModel islandModel = new IslandModel(spec.getIslands(), foodSourcesCount, maxIter, func, trialsLimit, seed);
+            islandModel.setMigrationInterval(spec.getMigrationInterval());
+            islandModel.setTopology(spec.getMigrationTopology());
+            islandModel.setStopCriteria(spec.getStopCriteria());
+            for (ArtificialBeeColony island : islandModel.getIslands()) {
+                island.setHistoryRecorder(new NoHistoryRecorder());
+                island.setSelectionMode(spec.getSelectionMode());
+                island.setParallelEmployedPhase(employedPhasePool);
+                setEvaluationCache(island);
+            }
+            try {
+                islandModel.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Batch run interrupted", e);
+            }
+
+            result.foundMinValue = islandModel.getBestFx();
+            result.bestIter = islandModel.getBestIter();
+            result.lastIter = islandModel.getLastIter();
+            result.iterationEquivalents = result.lastIter;
+            result.stopReason = islandModel.getStopReason();
+            result.evaluations = islandModel.getEvaluations();
+            result.bestEvaluations = islandModel.getBestEvaluations();
+            for (ArtificialBeeColony island : islandModel.getIslands()) {
+                if (island.getEvaluationCache() != null) {
+                    result.cacheHits += island.getEvaluationCache().getHits();
+                    result.cacheMisses += island.getEvaluationCache().getMisses();
+                }
+            }
+        } else {
+            ArtificialBeeColony abc = new ArtificialBeeColony(foodSourcesCount, maxIter, func, trialsLimit, seed);
+            abc.setHistoryRecorder(spec.createHistoryRecorder()); // None unless results files are written
+            abc.setStopCriteria(spec.getStopCriteria());
+            abc.setSelectionMode(spec.getSelectionMode());
+            abc.setParallelEmployedPhase(employedPhasePool);
+            setEvaluationCache(abc);
+            ExecutorService asyncExecutor = null;
+            if (spec.getAsyncEvaluations() > 0) {
+                // Evaluation threads mostly wait for the objective, so they are not limited by the number of cores
+                asyncExecutor = Executors.newFixedThreadPool(spec.getAsyncEvaluations());
+                abc.setAsyncEvaluation(asyncExecutor, spec.getAsyncEvaluations());
+            }
+            String runName = name + "_" + result.dim + "_" + foodSourcesCount + "_" + maxIter + "_" + trialsLimit + "_" + seed;
+            // A sweep started again with the same spec continues the runs it was interrupted in
+            File checkpointFile = null;
+            CheckpointWriter checkpointWriter = null;
+            if (spec.getCheckpointDir() != null) {
+                checkpointFile = new File(spec.getCheckpointDir(), runName + ".ckpt");
+                checkpointWriter = new CheckpointWriter(checkpointFile);
+                abc.setCheckpointWriter(checkpointWriter, spec.getCheckpointInterval());
+            }
+            try {
+                if (checkpointFile != null && checkpointFile.isFile()) {
+                    abc.runFromCheckpoint(checkpointFile);
+                } else {
+                    abc.run();
+                }
+            } finally {
+                if (asyncExecutor != null) {
+                    asyncExecutor.shutdownNow();
+                }
+                if (checkpointWriter != null) {
+                    checkpointWriter.close();
+                }
+            }
+            if (spec.getResultsDir() != null) {
+                new ABCResultsIO(null).writeToFile(new File(spec.getResultsDir(), runName + ".txt"), new ABCResults(abc));
+            }
+            // Only a finished run does not need its checkpoint anymore
+            if (checkpointFile != null) {
+                Files.deleteIfExists(checkpointFile.toPath());
+            }
+
+            result.foundMinValue = abc.getBestFxSoFar();
+            result.bestIter = abc.getBestIter();
+            result.lastIter = abc.getLastIter();
+            result.iterationEquivalents = abc.getIterationEquivalents();
+            result.stopReason = abc.getStopReason();
+            result.evaluations = abc.getEvaluations();
+            result.bestEvaluations = abc.getBestEvaluations();
+            if (abc.getEvaluationCache() != null) {
+                result.cacheHits = abc.getEvaluationCache().getHits();
+                result.cacheMisses = abc.getEvaluationCache().getMisses();
+            }
+        }
+        result.error = Math.abs(result.foundMinValue - func.getMinValue());
+        result.timeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        String row = name
+                + "\t" + result.dim
+                + "\t" + foodSourcesCount
+                + "\t" + maxIter
+                + "\t" + trialsLimit
+                + "\t" + seed
+                + "\t" + result.foundMinValue
+                + "\t" + result.error
+                + "\t" + result.bestIter
+                + "\t" + result.lastIter
+                + "\t" + result.iterationEquivalents
+                + "\t" + result.stopReason
+                + "\t" + result.evaluations
+                + "\t" + result.bestEvaluations
+                + "\t" + result.cacheHits
+                + "\t" + result.cacheMisses
+                + "\t" + result.timeMillis
+                + "\n";
+
+        synchronized (writer) {
+            writer.write(row);
+            writer.flush();
+            if (resultListener != null) {
+                resultListener.accept(result);
+            }
+        }
+        finishedRuns.incrementAndGet();
+    }
+
+    private void setEvaluationCache(ArtificialBeeColony abc) {
+        if (spec.getCacheSize() > 0) {
+            abc.setEvaluationCache(new EvaluationCache(spec.getCacheSize(), spec.getCacheQuantum()));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Statistics of all seeds of one configuration. A run succeeds if its final error is at most the target error.
+// Evaluations to target are counted until the best food source of a successful run was found. Expected evaluations
+// (ERT) are all evaluations of all runs - successful ones only until the target - divided by the number of successes.
+public class ConfigurationStats {
+
+    String functionName;
+    int dim, foodSourcesCount, maxIter, trialsLimit;
+    int runs, successes;
+    double meanError, medianError, stdError, minError, maxError;
+    double meanEvaluationsToTarget, medianEvaluationsToTarget; // NaN without successes
+    double expectedEvaluations; // Infinity without successes
+    double meanTimeMillis;
+
+    ConfigurationStats() {
+    }
+
+    // All runs must share the configuration
+    public static ConfigurationStats of(List<RunResult> runResults, double targetError) {
+        if (runResults.isEmpty()) {
+            throw new IllegalArgumentException("statistics need at least one run");
+        }
+        RunResult first = runResults.get(0);
+        ConfigurationStats stats = new ConfigurationStats();
+        stats.functionName = first.getFunctionName();
+        stats.dim = first.getDim();
+        stats.foodSourcesCount = first.getFoodSourcesCount();
+        stats.maxIter = first.getMaxIter();
+        stats.trialsLimit = first.getTrialsLimit();
+        stats.runs = runResults.size();
+
+        double[] errors = new double[stats.runs];
+        double[] evaluationsToTarget = new double[stats.runs];
+        double totalEvaluations = 0.0, totalTimeMillis = 0.0;
+        for (int i = 0; i < stats.runs; i++) {
+            RunResult runResult = runResults.get(i);
+            errors[i] = runResult.getError();
+            totalTimeMillis += runResult.getTimeMillis();
+            if (runResult.getError() <= targetError) {
+                evaluationsToTarget[stats.successes++] = runResult.getBestEvaluations();
+                totalEvaluations += runResult.getBestEvaluations();
+            } else {
+                totalEvaluations += runResult.getEvaluations();
+            }
+        }
+
+        Arrays.sort(errors);
+        stats.meanError = mean(errors, errors.length);
+        stats.medianError = median(errors, errors.length);
+        stats.stdError = std(errors, stats.meanError);
+        stats.minError = errors[0];
+        stats.maxError = errors[errors.length - 1];
+
+        Arrays.sort(evaluationsToTarget, 0, stats.successes);
+        stats.meanEvaluationsToTarget = mean(evaluationsToTarget, stats.successes);
+        stats.medianEvaluationsToTarget = median(evaluationsToTarget, stats.successes);
+        stats.expectedEvaluations = stats.successes > 0 ? totalEvaluations / stats.successes : Double.POSITIVE_INFINITY;
+        stats.meanTimeMillis = totalTimeMillis / stats.runs;
+        return stats;
+    }
+
+    private static double mean(double[] values, int count) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    // The values must be sorted
+    private static double median(double[] values, int count) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return count % 2 == 1 ? values[count / 2] : (values[count / 2 - 1] + values[count / 2]) / 2.0;
+    }
+
+    // Sample standard deviation, 0 for a single run
+    private static double std(double[] values, double mean) {
+        if (values.length < 2) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / (values.length - 1));
+    }
+
+    // Identifies the configuration across reports
+    public String getKey() {
+        return key(functionName, dim, foodSourcesCount, maxIter, trialsLimit);
+    }
+
+    static String key(String functionName, int dim, int foodSourcesCount, int maxIter, int trialsLimit) {
+        return functionName + "/" + dim + "/" + foodSourcesCount + "/" + maxIter + "/" + trialsLimit;
+    }
+
+    public double getSuccessRate() {
+        return (double) successes / runs;
+    }
+
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    public int getDim() {
+        return dim;
+    }
+
+    public int getFoodSourcesCount() {
+        return foodSourcesCount;
+    }
+
+    public int getMaxIter() {
+        return maxIter;
+    }
+
+    public int getTrialsLimit() {
+        return trialsLimit;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public int getSuccesses() {
+        return successes;
+    }
+
+    public double getMeanError() {
+        return meanError;
+    }
+
+    public double getMedianError() {
+        return medianError;
+    }
+
+    public double getStdError() {
+        return stdError;
+    }
+
+    public double getMinError() {
+        return minError;
+    }
+
+    public double getMaxError() {
+        return maxError;
+    }
+
+    public double getMeanEvaluationsToTarget() {
+        return meanEvaluationsToTarget;
+    }
+
+    public double getMedianEvaluationsToTarget() {
+        return medianEvaluationsToTarget;
+    }
+
+    public double getExpectedEvaluations() {
+        return expectedEvaluations;
+    }
+
+    public double getMeanTimeMillis() {
+        return meanTimeMillis;
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.SuperMain;
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.IslandCoordinator;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.IslandWorker;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Runs one island model with every island in a separate process:
+// java -jar abc-simulator.jar --islands-coordinator <sweep spec file> [port]
+// java -jar abc-simulator.jar --island-worker <host> <port>
+// Without a port the coordinator listens on a free local port and starts all the workers itself.
+// With a port it listens on all interfaces and waits for the workers to be started by hand, e.g. on other machines.
+// The spec must have a single value of every parameter and islands greater than 1.
+public class IslandsMain {
+
+    public static final String COORDINATOR_ARG = "--islands-coordinator";
+    public static final String WORKER_ARG = "--island-worker";
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(WORKER_ARG)) {
+            runWorker(args);
+        } else if (args.length > 0 && args[0].equals(COORDINATOR_ARG)) {
+            runCoordinator(args);
+        } else {
+            printUsage();
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: " + COORDINATOR_ARG + " <sweep spec file> [port]");
+        System.err.println("       " + WORKER_ARG + " <host> <port>");
+        System.exit(2);
+    }
+
+    private static void runWorker(String[] args) {
+        if (args.length != 3) {
+            printUsage();
+        }
+        try {
+            int island = new IslandWorker(args[1], Integer.parseInt(args[2])).run();
+            System.err.println("Island " + island + " finished");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void runCoordinator(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            printUsage();
+        }
+
+        List<Process> workers = new ArrayList<>();
+        try {
+            SweepSpec spec = SweepSpec.readFromFile(new File(args[1]));
+            validateSingleRun(spec);
+            String name = spec.getFunctionNames().get(0);
+            AbstractTestFunction func = TestFunctionUtils.createTestFunction(name, spec.getDimensions()[0]);
+
+            IslandCoordinator coordinator = new IslandCoordinator(spec.getIslands(), spec.getFoodSourcesCounts()[0],
+                    spec.getMaxIters()[0], func, spec.getTrialsLimits()[0], spec.getSeeds()[0]);
+            coordinator.setMigrationInterval(spec.getMigrationInterval());
+            coordinator.setTopology(spec.getMigrationTopology());
+            coordinator.setStopCriteria(spec.getStopCriteria());
+            coordinator.setSelectionMode(spec.getSelectionMode());
+            coordinator.setEvaluationCache(spec.getCacheSize(), spec.getCacheQuantum());
+            coordinator.setHeartbeat(spec.getHeartbeatIntervalMillis(), spec.getHeartbeatTimeoutMillis());
+
+            boolean localWorkers = args.length == 2;
+            long start = System.nanoTime();
+            try (ServerSocket server = localWorkers
+                    ? new ServerSocket(0, spec.getIslands(), InetAddress.getLoopbackAddress())
+                    : new ServerSocket(Integer.parseInt(args[2]), spec.getIslands())) {
+                if (localWorkers) {
+                    for (int i = 0; i < spec.getIslands(); i++) {
+                        workers.add(startLocalWorker(server.getLocalPort()));
+                    }
+                } else {
+                    System.err.println("Waiting for " + spec.getIslands() + " island workers on port " + server.getLocalPort());
+                }
+                coordinator.run(server);
+            }
+            for (Process worker : workers) {
+                worker.waitFor();
+            }
+            long timeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            if (!coordinator.getFailedIslands().isEmpty()) {
+                System.err.println("Failed islands: " + coordinator.getFailedIslands());
+            }
+            System.out.println(String.join("\t",
+                    ABCResultsIO.FUNCTION_PARAM,
+                    ABCResultsIO.DIMENSION_PARAM,
+                    SweepSpec.ISLANDS_PARAM,
+                    ABCResultsIO.FOOD_SOURCES_COUNT_PARAM,
+                    ABCResultsIO.ITERATIONS_PARAM,
+                    ABCResultsIO.TRIALS_LIMIT_PARAM,
+                    ABCResultsIO.SEED_PARAM,
+                    ABCResultsIO.MIN_FOUND_VALUE_PARAM,
+                    BatchRunner.ERROR_COLUMN,
+                    ABCResultsIO.BEST_ITERATION_PARAM,
+                    ABCResultsIO.LAST_ITERATION_PARAM,
+                    ABCResultsIO.STOP_REASON_PARAM,
+                    BatchRunner.EVALUATIONS_COLUMN,
+                    ABCResultsIO.CACHE_HITS_PARAM,
+                    ABCResultsIO.CACHE_MISSES_PARAM,
+                    BatchRunner.TIME_COLUMN));
+            System.out.println(name
+                    + "\t" + func.getDim()
+                    + "\t" + coordinator.getIslandsCount()
+                    + "\t" + spec.getFoodSourcesCounts()[0]
+                    + "\t" + coordinator.getMaxIter()
+                    + "\t" + spec.getTrialsLimits()[0]
+                    + "\t" + coordinator.getSeed()
+                    + "\t" + coordinator.getBestFx()
+                    + "\t" + Math.abs(coordinator.getBestFx() - func.getMinValue())
+                    + "\t" + coordinator.getBestIter()
+                    + "\t" + coordinator.getLastIter()
+                    + "\t" + coordinator.getStopReason()
+                    + "\t" + coordinator.getEvaluations()
+                    + "\t" + coordinator.getCacheHits()
+                    + "\t" + coordinator.getCacheMisses()
+                    + "\t" + timeMillis);
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
+            System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+            workers.forEach(Process::destroy);
+            System.exit(1);
+        }
+    }
+
+    private static void validateSingleRun(SweepSpec spec) throws IOException {
+        if (spec.getFunctionNames().size() != 1 || spec.getDimensions().length != 1
+                || spec.getFoodSourcesCounts().length != 1 || spec.getMaxIters().length != 1
+                || spec.getTrialsLimits().length != 1 || spec.getSeeds().length != 1) {
+            throw new IOException("Every parameter must have a single value for a multi-process island model");
+        }
+        if (spec.getIslands() < 2) {
+            throw new IOException("Parameter " + SweepSpec.ISLANDS_PARAM + " must be greater than 1 for a multi-process island model");
+        }
+    }
+
+    // Runs the worker from the same jar or classpath as the coordinator
+    private static Process startLocalWorker(int port) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SuperMain.class.getName(),
+                WORKER_ARG, InetAddress.getLoopbackAddress().getHostAddress(), Integer.toString(port))
+                .inheritIO()
+                .start();
+    }
+}
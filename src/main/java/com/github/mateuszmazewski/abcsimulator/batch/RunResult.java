@@ -0,0 +1,88 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+
+// Outcome of a single run of a sweep - one row of the batch output
+public class RunResult {
+
+    String functionName;
+    int dim, foodSourcesCount, maxIter, trialsLimit;
+    long seed;
+    double foundMinValue, error;
+    int bestIter, lastIter;
+    double iterationEquivalents;
+    StopReason stopReason;
+    long evaluations, bestEvaluations, cacheHits, cacheMisses;
+    long timeMillis;
+
+    RunResult() {
+    }
+
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    public int getDim() {
+        return dim;
+    }
+
+    public int getFoodSourcesCount() {
+        return foodSourcesCount;
+    }
+
+    public int getMaxIter() {
+        return maxIter;
+    }
+
+    public int getTrialsLimit() {
+        return trialsLimit;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getFoundMinValue() {
+        return foundMinValue;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    public int getBestIter() {
+        return bestIter;
+    }
+
+    public int getLastIter() {
+        return lastIter;
+    }
+
+    public double getIterationEquivalents() {
+        return iterationEquivalents;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getBestEvaluations() {
+        return bestEvaluations;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Runs every configuration of a sweep spec with all its seeds and reports statistics per configuration:
+// java -jar abc-simulator.jar --suite <sweep spec file> <output directory> [baseline summary.csv]
+// The spec must set target_error - a run succeeds if it reaches it (and stops there). Functions defined only
+// in 2 dimensions are skipped in other dimensions. The output directory gets runs.tsv (one row per run, as --batch),
+// summary.csv and report.html. With a baseline the exit code is 3 if any configuration regressed.
+public class SuiteMain {
+
+    public static final String SUITE_ARG = "--suite";
+    public static final String RUNS_FILE = "runs.tsv";
+    public static final String SUMMARY_FILE = "summary.csv";
+    public static final String REPORT_FILE = "report.html";
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: " + SUITE_ARG + " <sweep spec file> <output directory> [baseline " + SUMMARY_FILE + "]");
+            System.exit(2);
+        }
+
+        try {
+            SweepSpec spec = SweepSpec.readFromFile(new File(args[0]));
+            double targetError = spec.getStopCriteria().getTargetError();
+            if (Double.isNaN(targetError)) {
+                throw new IOException("Parameter " + SweepSpec.TARGET_ERROR_PARAM + " is required by the suite");
+            }
+            // Read before the runs, so a wrong baseline does not waste them
+            List<ConfigurationStats> baseline = args.length == 3 ? SuiteReport.readCsv(new File(args[2])) : null;
+            File outputDir = new File(args[1]);
+            if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+                throw new IOException("Cannot create directory " + outputDir);
+            }
+
+            System.err.println("Running up to " + spec.getRunsCount() + " colonies on " + spec.getThreads() + " threads");
+            long start = System.nanoTime();
+            SuiteReport report = new SuiteReport(targetError);
+            long finishedRuns;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(new File(outputDir, RUNS_FILE)), StandardCharsets.UTF_8))) {
+                BatchRunner runner = new BatchRunner(spec, writer);
+                runner.setSkipUnsupportedDimensions(true);
+                runner.setResultListener(report::add);
+                finishedRuns = runner.run();
+            }
+            long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+            List<String> regressions = baseline != null ? report.compareWithBaseline(baseline) : new ArrayList<>();
+            List<String> notes = new ArrayList<>();
+            notes.add(finishedRuns + " runs, " + spec.getSeeds().length + " seeds per configuration, finished in " + seconds + " s on "
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd HH:mm:ss")));
+            if (baseline != null) {
+                notes.add(regressions.isEmpty() ? "No regressions against the baseline"
+                        : regressions.size() + " regressions against the baseline (highlighted): " + String.join("; ", regressions));
+            }
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(new File(outputDir, SUMMARY_FILE)), StandardCharsets.UTF_8))) {
+                report.writeCsv(writer);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(new File(outputDir, REPORT_FILE)), StandardCharsets.UTF_8))) {
+                report.writeHtml(writer, "ABC simulator suite", notes);
+            }
+
+            System.err.println("Finished " + finishedRuns + " runs in " + seconds + " s");
+            for (String regression : regressions) {
+                System.err.println("Regression: " + regression);
+            }
+            if (!regressions.isEmpty()) {
+                System.exit(3);
+            }
+        } catch (IOException | InterruptedException e) {
+            System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
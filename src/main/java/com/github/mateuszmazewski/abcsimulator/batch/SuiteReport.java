@@ -0,0 +1,253 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Aggregates the runs of a suite by configuration and writes the statistics as CSV and as a self-contained HTML page.
+// A previous CSV can be read back as a baseline, so the suite can act as a regression gate.
+public class SuiteReport {
+
+    private static final String[] CSV_COLUMNS = {
+            ABCResultsIO.FUNCTION_PARAM,
+            ABCResultsIO.DIMENSION_PARAM,
+            ABCResultsIO.FOOD_SOURCES_COUNT_PARAM,
+            ABCResultsIO.ITERATIONS_PARAM,
+            ABCResultsIO.TRIALS_LIMIT_PARAM,
+            "runs",
+            "successes",
+            "success_rate",
+            "mean_error",
+            "median_error",
+            "std_error",
+            "min_error",
+            "max_error",
+            "mean_evaluations_to_target",
+            "median_evaluations_to_target",
+            "expected_evaluations",
+            "mean_time_ms"
+    };
+    // A median error this many times worse than the baseline's (plus the target error) is a regression
+    private static final double MEDIAN_ERROR_TOLERANCE_FACTOR = 10.0;
+
+    private final double targetError;
+    private final Map<String, List<RunResult>> runResults = new LinkedHashMap<>();
+    private final Set<String> regressedKeys = new HashSet<>();
+
+    public SuiteReport(double targetError) {
+        if (!(targetError >= 0.0)) {
+            throw new IllegalArgumentException("target error must be non-negative");
+        }
+        this.targetError = targetError;
+    }
+
+    public void add(RunResult runResult) {
+        String key = ConfigurationStats.key(runResult.getFunctionName(), runResult.getDim(),
+                runResult.getFoodSourcesCount(), runResult.getMaxIter(), runResult.getTrialsLimit());
+        runResults.computeIfAbsent(key, k -> new ArrayList<>()).add(runResult);
+    }
+
+    // Sorted by configuration, whatever order the runs finished in
+    public List<ConfigurationStats> getStats() {
+        List<ConfigurationStats> stats = new ArrayList<>();
+        for (List<RunResult> configurationRuns : runResults.values()) {
+            stats.add(ConfigurationStats.of(configurationRuns, targetError));
+        }
+        stats.sort(Comparator.comparing(ConfigurationStats::getFunctionName)
+                .thenComparingInt(ConfigurationStats::getDim)
+                .thenComparingInt(ConfigurationStats::getFoodSourcesCount)
+                .thenComparingInt(ConfigurationStats::getMaxIter)
+                .thenComparingInt(ConfigurationStats::getTrialsLimit));
+        return stats;
+    }
+
+    // A configuration regresses if its success rate drops by more than the baseline's sampling noise
+    // (two standard errors, at least one run) or its median error grows by an order of magnitude.
+    // Configurations missing from either side are not compared.
+    public List<String> compareWithBaseline(List<ConfigurationStats> baseline) {
+        Map<String, ConfigurationStats> baselineByKey = new HashMap<>();
+        for (ConfigurationStats stats : baseline) {
+            baselineByKey.put(stats.getKey(), stats);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        regressedKeys.clear();
+        for (ConfigurationStats stats : getStats()) {
+            ConfigurationStats base = baselineByKey.get(stats.getKey());
+            if (base == null) {
+                continue;
+            }
+            double p = base.getSuccessRate();
+            double tolerance = Math.max(1.0 / stats.getRuns(), 2.0 * Math.sqrt(p * (1.0 - p) / base.getRuns()));
+            if (stats.getSuccessRate() < p - tolerance) {
+                regressions.add(String.format(Locale.ROOT, "%s: success rate %.2f, baseline %.2f",
+                        stats.getKey(), stats.getSuccessRate(), p));
+                regressedKeys.add(stats.getKey());
+            }
+            if (stats.getMedianError() > MEDIAN_ERROR_TOLERANCE_FACTOR * base.getMedianError() + targetError) {
+                regressions.add(String.format(Locale.ROOT, "%s: median error %.3e, baseline %.3e",
+                        stats.getKey(), stats.getMedianError(), base.getMedianError()));
+                regressedKeys.add(stats.getKey());
+            }
+        }
+        return regressions;
+    }
+
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write(String.join(",", CSV_COLUMNS) + "\n");
+        for (ConfigurationStats stats : getStats()) {
+            writer.write(stats.getFunctionName()
+                    + "," + stats.getDim()
+                    + "," + stats.getFoodSourcesCount()
+                    + "," + stats.getMaxIter()
+                    + "," + stats.getTrialsLimit()
+                    + "," + stats.getRuns()
+                    + "," + stats.getSuccesses()
+                    + "," + stats.getSuccessRate()
+                    + "," + stats.getMeanError()
+                    + "," + stats.getMedianError()
+                    + "," + stats.getStdError()
+                    + "," + stats.getMinError()
+                    + "," + stats.getMaxError()
+                    + "," + stats.getMeanEvaluationsToTarget()
+                    + "," + stats.getMedianEvaluationsToTarget()
+                    + "," + stats.getExpectedEvaluations()
+                    + "," + stats.getMeanTimeMillis()
+                    + "\n");
+        }
+        writer.flush();
+    }
+
+    // Reads what writeCsv wrote
+    public static List<ConfigurationStats> readCsv(File file) throws IOException {
+        List<ConfigurationStats> baseline = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            if (line == null || !line.equals(String.join(",", CSV_COLUMNS))) {
+                throw new IOException("Wrong header: line 1");
+            }
+            int lineNumber = 1;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] splitLine = line.split(",");
+                if (splitLine.length != CSV_COLUMNS.length) {
+                    throw new IOException("Wrong line format: line " + lineNumber);
+                }
+
+                try {
+                    ConfigurationStats stats = new ConfigurationStats();
+                    stats.functionName = splitLine[0];
+                    stats.dim = Integer.parseInt(splitLine[1]);
+                    stats.foodSourcesCount = Integer.parseInt(splitLine[2]);
+                    stats.maxIter = Integer.parseInt(splitLine[3]);
+                    stats.trialsLimit = Integer.parseInt(splitLine[4]);
+                    stats.runs = Integer.parseInt(splitLine[5]);
+                    stats.successes = Integer.parseInt(splitLine[6]);
+                    stats.meanError = Double.parseDouble(splitLine[8]);
+                    stats.medianError = Double.parseDouble(splitLine[9]);
+                    stats.stdError = Double.parseDouble(splitLine[10]);
+                    stats.minError = Double.parseDouble(splitLine[11]);
+                    stats.maxError = Double.parseDouble(splitLine[12]);
+                    stats.meanEvaluationsToTarget = Double.parseDouble(splitLine[13]);
+                    stats.medianEvaluationsToTarget = Double.parseDouble(splitLine[14]);
+                    stats.expectedEvaluations = Double.parseDouble(splitLine[15]);
+                    stats.meanTimeMillis = Double.parseDouble(splitLine[16]);
+                    if (stats.runs <= 0 || stats.successes < 0 || stats.successes > stats.runs) {
+                        throw new IOException("Wrong number of runs or successes: line " + lineNumber);
+                    }
+                    baseline.add(stats);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Wrong number " + e.getMessage() + ": line " + lineNumber);
+                }
+            }
+        }
+        return baseline;
+    }
+
+    // No external resources - the page can be archived or attached as it is
+    public void writeHtml(Writer writer, String title, List<String> notes) throws IOException {
+        writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n");
+        writer.write("<title>" + escapeHtml(title) + "</title>\n");
+        writer.write("<style>\n"
+                + "body { font-family: sans-serif; margin: 20px; }\n"
+                + "table { border-collapse: collapse; font-size: 13px; }\n"
+                + "th, td { border: 1px solid #ccc; padding: 3px 6px; text-align: right; }\n"
+                + "th { background: #eee; }\n"
+                + "td.name { text-align: left; }\n"
+                + "tr.regressed td { background: #fdd; }\n"
+                + ".bar { display: inline-block; height: 10px; background: #4a4; vertical-align: middle; }\n"
+                + ".barBackground { display: inline-block; width: 60px; background: #ddd; margin-right: 4px; }\n"
+                + "</style>\n</head>\n<body>\n");
+        writer.write("<h1>" + escapeHtml(title) + "</h1>\n");
+        writer.write("<p>Target error: " + targetError + "</p>\n");
+        for (String note : notes) {
+            writer.write("<p>" + escapeHtml(note) + "</p>\n");
+        }
+
+        writer.write("<table>\n<tr>");
+        String[] headers = {"function", "dim", "food sources", "iterations", "trials limit", "runs", "success rate",
+                "mean error", "median error", "std error", "min error", "max error",
+                "mean evaluations to target", "median evaluations to target", "expected evaluations", "mean time [ms]"};
+        for (String header : headers) {
+            writer.write("<th>" + header + "</th>");
+        }
+        writer.write("</tr>\n");
+
+        for (ConfigurationStats stats : getStats()) {
+            writer.write(regressedKeys.contains(stats.getKey()) ? "<tr class=\"regressed\">" : "<tr>");
+            writer.write("<td class=\"name\">" + escapeHtml(stats.getFunctionName()) + "</td>");
+            writer.write("<td>" + stats.getDim() + "</td>");
+            writer.write("<td>" + stats.getFoodSourcesCount() + "</td>");
+            writer.write("<td>" + stats.getMaxIter() + "</td>");
+            writer.write("<td>" + stats.getTrialsLimit() + "</td>");
+            writer.write("<td>" + stats.getRuns() + "</td>");
+            writer.write(String.format(Locale.ROOT, "<td><span class=\"barBackground\"><span class=\"bar\" style=\"width: %.0fpx\">"
+                    + "</span></span>%.0f%%</td>", 60.0 * stats.getSuccessRate(), 100.0 * stats.getSuccessRate()));
+            writer.write("<td>" + formatError(stats.getMeanError()) + "</td>");
+            writer.write("<td>" + formatError(stats.getMedianError()) + "</td>");
+            writer.write("<td>" + formatError(stats.getStdError()) + "</td>");
+            writer.write("<td>" + formatError(stats.getMinError()) + "</td>");
+            writer.write("<td>" + formatError(stats.getMaxError()) + "</td>");
+            writer.write("<td>" + formatEvaluations(stats.getMeanEvaluationsToTarget()) + "</td>");
+            writer.write("<td>" + formatEvaluations(stats.getMedianEvaluationsToTarget()) + "</td>");
+            writer.write("<td>" + formatEvaluations(stats.getExpectedEvaluations()) + "</td>");
+            writer.write(String.format(Locale.ROOT, "<td>%.1f</td>", stats.getMeanTimeMillis()));
+            writer.write("</tr>\n");
+        }
+        writer.write("</table>\n</body>\n</html>\n");
+        writer.flush();
+    }
+
+    private static String formatError(double error) {
+        return String.format(Locale.ROOT, "%.3e", error);
+    }
+
+    private static String formatEvaluations(double evaluations) {
+        if (Double.isNaN(evaluations) || Double.isInfinite(evaluations)) {
+            return "-"; // No successful runs
+        }
+        return String.format(Locale.ROOT, "%.0f", evaluations);
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
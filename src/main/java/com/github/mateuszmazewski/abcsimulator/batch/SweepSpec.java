@@ -0,0 +1,486 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.SelectionMode;
+import com.github.mateuszmazewski.abcsimulator.abc.StopCriteria;
+import com.github.mateuszmazewski.abcsimulator.abc.history.BestOnlyHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.EveryKthIterationHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.RingHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.IslandCoordinator;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.IslandModel;
+import com.github.mateuszmazewski.abcsimulator.abc.islands.MigrationTopology;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.abc.tuning.ParameterTuner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SweepSpec {
+
+    public static final String SEEDS_PARAM = "seeds";
+    public static final String THREADS_PARAM = "threads";
+    public static final String TARGET_ERROR_PARAM = "target_error";
+    public static final String STAGNATION_ITERATIONS_PARAM = "stagnation_iterations";
+    public static final String MAX_EVALUATIONS_PARAM = "max_evaluations";
+    public static final String TIME_LIMIT_PARAM = "time_limit_ms";
+    public static final String CACHE_SIZE_PARAM = "cache_size";
+    public static final String CACHE_QUANTUM_PARAM = "cache_quantum";
+    public static final String ISLANDS_PARAM = "islands";
+    public static final String MIGRATION_INTERVAL_PARAM = "migration_interval";
+    public static final String MIGRATION_TOPOLOGY_PARAM = "migration_topology";
+    public static final String ASYNC_EVALUATIONS_PARAM = ABCResultsIO.ASYNC_EVALUATIONS_PARAM;
+    public static final String EVALUATION_DELAY_PARAM = "evaluation_delay_us";
+    public static final String HEARTBEAT_INTERVAL_PARAM = "heartbeat_interval_ms";
+    public static final String HEARTBEAT_TIMEOUT_PARAM = "heartbeat_timeout_ms";
+    public static final String TUNING_CANDIDATES_PARAM = "tuning_candidates";
+    public static final String TUNING_INITIAL_SEEDS_PARAM = "tuning_initial_seeds";
+    public static final String TUNING_REDUCTION_FACTOR_PARAM = "tuning_reduction_factor";
+    public static final String CHECKPOINT_DIR_PARAM = "checkpoint_dir";
+    public static final String CHECKPOINT_INTERVAL_PARAM = "checkpoint_interval";
+    public static final String PARALLEL_EMPLOYED_PARAM = "parallel_employed";
+    public static final String HISTORY_PARAM = "history";
+    public static final String RESULTS_DIR_PARAM = "results_dir";
+    public static final String ALL_FUNCTIONS = "all";
+
+    private List<String> functionNames = TestFunctionUtils.getAllTestFunctionNames();
+    private int[] dimensions = new int[]{2};
+    private int[] foodSourcesCounts;
+    private int[] maxIters;
+    private int[] trialsLimits;
+    private long[] seeds = new long[]{0};
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private final StopCriteria stopCriteria = new StopCriteria(); // The same for every run
+    private SelectionMode selectionMode = SelectionMode.FITNESS;
+    private int cacheSize; // 0 = no evaluation cache
+    private double cacheQuantum;
+    private int islands = 1; // 1 = a single colony, more = island model with food_sources_count per island
+    private int migrationInterval = 10;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+    private int asyncEvaluations; // 0 = synchronous bee phases
+    private long evaluationDelayMicros; // Simulates a latency-bound objective
+    private int heartbeatIntervalMillis = IslandCoordinator.DEFAULT_HEARTBEAT_INTERVAL_MILLIS; // Only for worker processes
+    private int heartbeatTimeoutMillis = IslandCoordinator.DEFAULT_HEARTBEAT_TIMEOUT_MILLIS;
+    private int tuningCandidates = 32; // Only for tuning
+    private int tuningInitialSeeds = 3;
+    private int tuningReductionFactor = 2;
+    private File checkpointDir; // null = no checkpoints
+    private int checkpointInterval = 100;
+    private boolean parallelEmployed; // Employed bee phases of all runs share one pool of threads
+    private Supplier<IHistoryRecorder> historyRecorders; // null = no history
+    private File resultsDir; // null = only the summary rows are written
+
+    public static SweepSpec readFromFile(File file) throws IOException {
+        SweepSpec spec = new SweepSpec();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            String[] splitLine;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.startsWith("#") || line.isEmpty()) {
+                    continue;
+                }
+
+                splitLine = line.split("\\s+");
+                if (splitLine.length < 3 || !splitLine[1].equals("=")) {
+                    throw new IOException("Wrong line format: line " + lineNumber);
+                }
+                String[] values = Arrays.copyOfRange(splitLine, 2, splitLine.length);
+
+                try {
+                    switch (splitLine[0]) {
+                        case ABCResultsIO.FUNCTION_PARAM:
+                            spec.functionNames = parseFunctionNames(values);
+                            break;
+                        case ABCResultsIO.DIMENSION_PARAM:
+                            spec.dimensions = parseInts(values);
+                            break;
+                        case ABCResultsIO.FOOD_SOURCES_COUNT_PARAM:
+                            spec.foodSourcesCounts = parseInts(values);
+                            break;
+                        case ABCResultsIO.ITERATIONS_PARAM:
+                            spec.maxIters = parseInts(values);
+                            break;
+                        case ABCResultsIO.TRIALS_LIMIT_PARAM:
+                            spec.trialsLimits = parseInts(values);
+                            break;
+                        case SEEDS_PARAM:
+                            spec.seeds = parseLongs(values);
+                            break;
+                        case THREADS_PARAM:
+                            spec.threads = Integer.parseInt(values[0]);
+                            break;
+                        case TARGET_ERROR_PARAM:
+                            spec.stopCriteria.setTargetError(Double.parseDouble(values[0]));
+                            break;
+                        case STAGNATION_ITERATIONS_PARAM:
+                            spec.stopCriteria.setStagnationIterations(Integer.parseInt(values[0]));
+                            break;
+                        case MAX_EVALUATIONS_PARAM:
+                            spec.stopCriteria.setMaxEvaluations(Long.parseLong(values[0]));
+                            break;
+                        case TIME_LIMIT_PARAM:
+                            spec.stopCriteria.setTimeLimitMillis(Long.parseLong(values[0]));
+                            break;
+                        case ABCResultsIO.SELECTION_MODE_PARAM:
+                            spec.selectionMode = SelectionMode.valueOf(values[0]);
+                            break;
+                        case CACHE_SIZE_PARAM:
+                            spec.cacheSize = Integer.parseInt(values[0]);
+                            break;
+                        case CACHE_QUANTUM_PARAM:
+                            spec.cacheQuantum = Double.parseDouble(values[0]);
+                            break;
+                        case ISLANDS_PARAM:
+                            spec.islands = Integer.parseInt(values[0]);
+                            break;
+                        case MIGRATION_INTERVAL_PARAM:
+                            spec.migrationInterval = Integer.parseInt(values[0]);
+                            break;
+                        case MIGRATION_TOPOLOGY_PARAM:
+                            spec.migrationTopology = MigrationTopology.valueOf(values[0]);
+                            break;
+                        case ASYNC_EVALUATIONS_PARAM:
+                            spec.asyncEvaluations = Integer.parseInt(values[0]);
+                            break;
+                        case EVALUATION_DELAY_PARAM:
+                            spec.evaluationDelayMicros = Long.parseLong(values[0]);
+                            break;
+                        case HEARTBEAT_INTERVAL_PARAM:
+                            spec.heartbeatIntervalMillis = Integer.parseInt(values[0]);
+                            break;
+                        case HEARTBEAT_TIMEOUT_PARAM:
+                            spec.heartbeatTimeoutMillis = Integer.parseInt(values[0]);
+                            break;
+                        case TUNING_CANDIDATES_PARAM:
+                            spec.tuningCandidates = Integer.parseInt(values[0]);
+                            break;
+                        case TUNING_INITIAL_SEEDS_PARAM:
+                            spec.tuningInitialSeeds = Integer.parseInt(values[0]);
+                            break;
+                        case TUNING_REDUCTION_FACTOR_PARAM:
+                            spec.tuningReductionFactor = Integer.parseInt(values[0]);
+                            break;
+                        case CHECKPOINT_DIR_PARAM:
+                            spec.checkpointDir = new File(values[0]);
+                            break;
+                        case CHECKPOINT_INTERVAL_PARAM:
+                            spec.checkpointInterval = Integer.parseInt(values[0]);
+                            break;
+                        case PARALLEL_EMPLOYED_PARAM:
+                            spec.parallelEmployed = parseBoolean(values[0]);
+                            break;
+                        case HISTORY_PARAM:
+                            spec.historyRecorders = parseHistory(values[0]);
+                            break;
+                        case RESULTS_DIR_PARAM:
+                            spec.resultsDir = new File(values[0]);
+                            break;
+                        default:
+                            throw new IOException("Unknown parameter " + splitLine[0] + ": line " + lineNumber);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage() + ": line " + lineNumber);
+                }
+            }
+        }
+
+        spec.validate();
+        return spec;
+    }
+
+    private static List<String> parseFunctionNames(String[] values) {
+        if (values.length == 1 && values[0].equals(ALL_FUNCTIONS)) {
+            return TestFunctionUtils.getAllTestFunctionNames();
+        }
+        List<String> allNames = TestFunctionUtils.getAllTestFunctionNames();
+        for (String name : values) {
+            if (!allNames.contains(name)) {
+                throw new IllegalArgumentException("Unknown function: " + name);
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    // none, best, full, ring:<capacity> (the last iterations) or every:<k> (every k-th iteration)
+    private static Supplier<IHistoryRecorder> parseHistory(String value) {
+        String[] split = value.split(":");
+        Supplier<IHistoryRecorder> historyRecorders;
+        if (split.length == 1 && split[0].equals("none")) {
+            return null;
+        } else if (split.length == 1 && split[0].equals("best")) {
+            historyRecorders = BestOnlyHistoryRecorder::new;
+        } else if (split.length == 1 && split[0].equals("full")) {
+            historyRecorders = FullHistoryRecorder::new;
+        } else if (split.length == 2 && split[0].equals("ring")) {
+            int capacity = Integer.parseInt(split[1]);
+            historyRecorders = () -> new RingHistoryRecorder(capacity);
+        } else if (split.length == 2 && split[0].equals("every")) {
+            int k = Integer.parseInt(split[1]);
+            historyRecorders = () -> new EveryKthIterationHistoryRecorder(k);
+        } else {
+            throw new IllegalArgumentException("Wrong history " + value);
+        }
+        historyRecorders.get(); // Reports a wrong capacity or k
+        return historyRecorders;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("Expected true or false: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    // Every value is either a single number or an inclusive range written as from:to[:step]
+    private static int[] parseInts(String[] values) {
+        long[] longs = parseLongs(values);
+        int[] ints = new int[longs.length];
+        for (int i = 0; i < longs.length; i++) {
+            if (longs[i] < Integer.MIN_VALUE || longs[i] > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Value out of range: " + longs[i]);
+            }
+            ints[i] = (int) longs[i];
+        }
+        return ints;
+    }
+
+    private static long[] parseLongs(String[] values) {
+        List<Long> parsed = new ArrayList<>();
+
+        for (String value : values) {
+            String[] range = value.split(":");
+            if (range.length == 1) {
+                parsed.add(Long.parseLong(range[0]));
+            } else if (range.length == 2 || range.length == 3) {
+                long from = Long.parseLong(range[0]);
+                long to = Long.parseLong(range[1]);
+                long step = range.length == 3 ? Long.parseLong(range[2]) : 1;
+                if (step <= 0 || from > to) {
+                    throw new IllegalArgumentException("Wrong range " + value);
+                }
+                for (long v = from; v <= to; v += step) {
+                    parsed.add(v);
+                }
+            } else {
+                throw new IllegalArgumentException("Wrong range " + value);
+            }
+        }
+
+        return parsed.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void validate() throws IOException {
+        List<String> missingParams = new ArrayList<>();
+        if (foodSourcesCounts == null) {
+            missingParams.add(ABCResultsIO.FOOD_SOURCES_COUNT_PARAM);
+        }
+        if (maxIters == null) {
+            missingParams.add(ABCResultsIO.ITERATIONS_PARAM);
+        }
+        if (trialsLimits == null) {
+            missingParams.add(ABCResultsIO.TRIALS_LIMIT_PARAM);
+        }
+        if (!missingParams.isEmpty()) {
+            throw new IOException("Sweep spec is missing required parameters: " + String.join(", ", missingParams));
+        }
+
+        validateRange(ABCResultsIO.DIMENSION_PARAM, dimensions, 1, Integer.MAX_VALUE);
+        validateRange(ABCResultsIO.FOOD_SOURCES_COUNT_PARAM, foodSourcesCounts,
+                ArtificialBeeColony.MIN_FOOD_SOURCES_COUNT, ArtificialBeeColony.MAX_FOOD_SOURCES_COUNT);
+        validateRange(ABCResultsIO.ITERATIONS_PARAM, maxIters,
+                ArtificialBeeColony.MAX_ITER_LOWER_LIMIT, ArtificialBeeColony.MAX_ITER_UPPER_LIMIT);
+        validateRange(ABCResultsIO.TRIALS_LIMIT_PARAM, trialsLimits,
+                ArtificialBeeColony.MIN_TRIALS_LIMIT, ArtificialBeeColony.MAX_TRIALS_LIMIT);
+
+        if (threads <= 0) {
+            throw new IOException("Parameter " + THREADS_PARAM + " must be positive");
+        }
+        if (islands != 1 && (islands < IslandModel.MIN_ISLANDS_COUNT || islands > IslandModel.MAX_ISLANDS_COUNT)) {
+            throw new IOException("Parameter " + ISLANDS_PARAM + " must be 1 or in range"
+                    + " <" + IslandModel.MIN_ISLANDS_COUNT + ", " + IslandModel.MAX_ISLANDS_COUNT + ">");
+        }
+        if (migrationInterval < IslandModel.MIN_MIGRATION_INTERVAL) {
+            throw new IOException("Parameter " + MIGRATION_INTERVAL_PARAM + " must be at least " + IslandModel.MIN_MIGRATION_INTERVAL);
+        }
+        if (asyncEvaluations < 0) {
+            throw new IOException("Parameter " + ASYNC_EVALUATIONS_PARAM + " cannot be negative");
+        }
+        if (asyncEvaluations > 0 && islands > 1) {
+            throw new IOException("Parameter " + ASYNC_EVALUATIONS_PARAM + " cannot be used with " + ISLANDS_PARAM);
+        }
+        if (evaluationDelayMicros < 0) {
+            throw new IOException("Parameter " + EVALUATION_DELAY_PARAM + " cannot be negative");
+        }
+        if (heartbeatIntervalMillis <= 0 || heartbeatTimeoutMillis <= heartbeatIntervalMillis) {
+            throw new IOException("Parameter " + HEARTBEAT_INTERVAL_PARAM + " must be positive and less than " + HEARTBEAT_TIMEOUT_PARAM);
+        }
+        if (tuningCandidates <= 0 || tuningInitialSeeds <= 0) {
+            throw new IOException("Parameters " + TUNING_CANDIDATES_PARAM + " and " + TUNING_INITIAL_SEEDS_PARAM + " must be positive");
+        }
+        if (tuningReductionFactor < ParameterTuner.MIN_REDUCTION_FACTOR) {
+            throw new IOException("Parameter " + TUNING_REDUCTION_FACTOR_PARAM + " must be at least " + ParameterTuner.MIN_REDUCTION_FACTOR);
+        }
+        if (checkpointInterval <= 0) {
+            throw new IOException("Parameter " + CHECKPOINT_INTERVAL_PARAM + " must be positive");
+        }
+        if (checkpointDir != null && (islands > 1 || asyncEvaluations > 0)) {
+            throw new IOException("Parameter " + CHECKPOINT_DIR_PARAM + " cannot be used with " + ISLANDS_PARAM
+                    + " or " + ASYNC_EVALUATIONS_PARAM);
+        }
+        if (historyRecorders != null && resultsDir == null) {
+            throw new IOException("Parameter " + HISTORY_PARAM + " needs " + RESULTS_DIR_PARAM + " to save the history to");
+        }
+        if (resultsDir != null && islands > 1) {
+            throw new IOException("Parameter " + RESULTS_DIR_PARAM + " cannot be used with " + ISLANDS_PARAM);
+        }
+        if (parallelEmployed && asyncEvaluations > 0) {
+            throw new IOException("Parameter " + PARALLEL_EMPLOYED_PARAM + " cannot be used with " + ASYNC_EVALUATIONS_PARAM);
+        }
+        if (cacheSize < 0) {
+            throw new IOException("Parameter " + CACHE_SIZE_PARAM + " cannot be negative");
+        }
+        if (!(cacheQuantum >= 0.0) || Double.isInfinite(cacheQuantum)) {
+            throw new IOException("Parameter " + CACHE_QUANTUM_PARAM + " must be non-negative and finite");
+        }
+        // A quantised hit returns the value of whichever nearby point was cached first,
+        // which in the parallel employed phase depends on the scheduling of the threads
+        if (parallelEmployed && cacheSize > 0 && cacheQuantum > 0.0) {
+            throw new IOException("Parameter " + PARALLEL_EMPLOYED_PARAM + " cannot be used with a non-zero "
+                    + CACHE_QUANTUM_PARAM);
+        }
+    }
+
+    private static void validateRange(String param, int[] values, int min, int max) throws IOException {
+        for (int value : values) {
+            if (value < min || value > max) {
+                throw new IOException("Parameter " + param + " must be in range <" + min + ", " + max + ">");
+            }
+        }
+    }
+
+    public long getRunsCount() {
+        return (long) functionNames.size() * dimensions.length * foodSourcesCounts.length * maxIters.length * trialsLimits.length * seeds.length;
+    }
+
+    public List<String> getFunctionNames() {
+        return functionNames;
+    }
+
+    public int[] getDimensions() {
+        return dimensions;
+    }
+
+    public int[] getFoodSourcesCounts() {
+        return foodSourcesCounts;
+    }
+
+    public int[] getMaxIters() {
+        return maxIters;
+    }
+
+    public int[] getTrialsLimits() {
+        return trialsLimits;
+    }
+
+    public long[] getSeeds() {
+        return seeds;
+    }
+
+    public StopCriteria getStopCriteria() {
+        return stopCriteria;
+    }
+
+    public SelectionMode getSelectionMode() {
+        return selectionMode;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public double getCacheQuantum() {
+        return cacheQuantum;
+    }
+
+    public int getIslands() {
+        return islands;
+    }
+
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    public int getAsyncEvaluations() {
+        return asyncEvaluations;
+    }
+
+    public long getEvaluationDelayMicros() {
+        return evaluationDelayMicros;
+    }
+
+    public int getHeartbeatIntervalMillis() {
+        return heartbeatIntervalMillis;
+    }
+
+    public int getHeartbeatTimeoutMillis() {
+        return heartbeatTimeoutMillis;
+    }
+
+    public int getTuningCandidates() {
+        return tuningCandidates;
+    }
+
+    public int getTuningInitialSeeds() {
+        return tuningInitialSeeds;
+    }
+
+    public int getTuningReductionFactor() {
+        return tuningReductionFactor;
+    }
+
+    public File getCheckpointDir() {
+        return checkpointDir;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public IHistoryRecorder createHistoryRecorder() {
+        return historyRecorders != null ? historyRecorders.get() : new NoHistoryRecorder();
+    }
+
+    public File getResultsDir() {
+        return resultsDir;
+    }
+
+    public boolean isParallelEmployed() {
+        return parallelEmployed;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResultsIO;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.abc.tuning.ParameterTuner;
+import com.github.mateuszmazewski.abcsimulator.abc.tuning.TuningCandidate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Searches food_sources_count and trials_limit values of a sweep spec for the best ones for a single function:
+// java -jar abc-simulator.jar --tune <sweep spec file> [output file]
+// The spec must have a single function, dimension and iterations value and set max_evaluations - the budget
+// of every run. The first seed seeds the tuner. tuning_candidates, tuning_initial_seeds and tuning_reduction_factor
+// control the search (see ParameterTuner). The output starts with the best configuration and the distribution
+// of its errors, followed by all candidates from the best one.
+public class TuneMain {
+
+    public static final String TUNE_ARG = "--tune";
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: " + TUNE_ARG + " <sweep spec file> [output file]");
+            System.exit(2);
+        }
+
+        try {
+            SweepSpec spec = SweepSpec.readFromFile(new File(args[0]));
+            validateTuningSpec(spec);
+            String name = spec.getFunctionNames().get(0);
+            AbstractTestFunction func = TestFunctionUtils.createTestFunction(name, spec.getDimensions()[0]);
+
+            ParameterTuner tuner = new ParameterTuner(func, spec.getFoodSourcesCounts(), spec.getTrialsLimits(),
+                    spec.getMaxIters()[0], spec.getStopCriteria().getMaxEvaluations(), spec.getSeeds()[0]);
+            tuner.setCandidatesCount(spec.getTuningCandidates());
+            tuner.setInitialSeedsCount(spec.getTuningInitialSeeds());
+            tuner.setReductionFactor(spec.getTuningReductionFactor());
+            tuner.setThreads(spec.getThreads());
+            tuner.setSelectionMode(spec.getSelectionMode());
+
+            System.err.println("Tuning " + name + " with " + spec.getTuningCandidates() + " candidates on " + spec.getThreads() + " threads");
+            long start = System.nanoTime();
+            tuner.run();
+            long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+            System.err.println("Finished " + tuner.getRunsCount() + " runs in " + seconds + " s");
+
+            try (Writer writer = args.length == 2
+                    ? new BufferedWriter(new FileWriter(args[1]))
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                writeResults(writer, name, func.getDim(), tuner);
+            }
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
+            System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void validateTuningSpec(SweepSpec spec) throws IOException {
+        if (spec.getFunctionNames().size() != 1 || spec.getDimensions().length != 1 || spec.getMaxIters().length != 1) {
+            throw new IOException("Parameters " + ABCResultsIO.FUNCTION_PARAM + ", " + ABCResultsIO.DIMENSION_PARAM
+                    + " and " + ABCResultsIO.ITERATIONS_PARAM + " must have a single value for tuning");
+        }
+        if (spec.getStopCriteria().getMaxEvaluations() <= 0) {
+            throw new IOException("Parameter " + SweepSpec.MAX_EVALUATIONS_PARAM + " is required for tuning");
+        }
+        if (spec.getIslands() > 1 || spec.getAsyncEvaluations() > 0) {
+            throw new IOException("Tuning runs single synchronous colonies - parameters " + SweepSpec.ISLANDS_PARAM
+                    + " and " + SweepSpec.ASYNC_EVALUATIONS_PARAM + " cannot be used");
+        }
+    }
+
+    private static void writeResults(Writer writer, String name, int dim, ParameterTuner tuner) throws IOException {
+        TuningCandidate best = tuner.getBest();
+        writer.write("# Best configuration for " + name + " in " + dim + " dimensions, "
+                + tuner.getMaxEvaluations() + " evaluations per run\n");
+        writer.write(ABCResultsIO.FOOD_SOURCES_COUNT_PARAM + " = " + best.getFoodSourcesCount() + "\n");
+        writer.write(ABCResultsIO.TRIALS_LIMIT_PARAM + " = " + best.getTrialsLimit() + "\n");
+        writer.write(String.format(Locale.ROOT, "# Errors of its %d runs: min %.3e, q1 %.3e, median %.3e, q3 %.3e, max %.3e,"
+                        + " mean %.3e, std %.3e\n", best.getRuns(), best.getErrorQuantile(0.0), best.getErrorQuantile(0.25),
+                best.getMedianError(), best.getErrorQuantile(0.75), best.getErrorQuantile(1.0),
+                best.getMeanError(), best.getStdError()));
+
+        writer.write("\n" + String.join("\t",
+                ABCResultsIO.FOOD_SOURCES_COUNT_PARAM,
+                ABCResultsIO.TRIALS_LIMIT_PARAM,
+                "rounds",
+                "runs",
+                "median_error",
+                "mean_error",
+                "std_error",
+                "mean_" + ABCResultsIO.BEST_EVALUATIONS_PARAM) + "\n");
+        for (TuningCandidate candidate : tuner.getCandidates()) {
+            writer.write(candidate.getFoodSourcesCount()
+                    + "\t" + candidate.getTrialsLimit()
+                    + "\t" + candidate.getRounds()
+                    + "\t" + candidate.getRuns()
+                    + "\t" + candidate.getMedianError()
+                    + "\t" + candidate.getMeanError()
+                    + "\t" + candidate.getStdError()
+                    + "\t" + candidate.getMeanBestEvaluations()
+                    + "\n");
+        }
+        writer.flush();
+    }
+}
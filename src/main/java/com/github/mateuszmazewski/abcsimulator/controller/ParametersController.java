@@ -2,14 +2,20 @@ package com.github.mateuszmazewski.abcsimulator.controller;
 
 import com.github.mateuszmazewski.abcsimulator.abc.ABCResults;
 import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.PhaseStats;
+import com.github.mateuszmazewski.abcsimulator.abc.SelectionMode;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
 import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.utils.DialogUtils;
 import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
 import com.github.mateuszmazewski.abcsimulator.utils.TextFieldUtils;
 import com.github.mateuszmazewski.abcsimulator.visualization.FunctionChart2D;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ChangeListener;
@@ -31,6 +37,9 @@ public class ParametersController {
     @FXML
     private ComboBox<AbstractTestFunction> funcComboBox;
 
+    @FXML
+    private TextField expressionTextField;
+
     @FXML
     private TextField xRangeFromTextField;
 
@@ -52,13 +61,31 @@ public class ParametersController {
     @FXML
     private TextField trialsLimitTextField;
 
+    @FXML
+    private CheckBox objectiveSelectionCheckBox;
+
     @FXML
     private Button startButton;
 
+    @FXML
+    private Button pauseButton;
+
+    @FXML
+    private Button cancelButton;
+
+    @FXML
+    private ProgressBar progressBar;
+
+    @FXML
+    private Label progressLabel;
+
     // ---------------------ONLY TO CHANGE THE LANGUAGE----------------------
     @FXML
     private Label funcLabel;
 
+    @FXML
+    private Label expressionLabel;
+
     @FXML
     private Label xRangeLabel;
 
@@ -83,6 +110,9 @@ public class ParametersController {
     @FXML
     private Tooltip functionLabelTooltip;
 
+    @FXML
+    private Tooltip expressionTextFieldTooltip;
+
     @FXML
     private Tooltip foodSourcesCountLabelTooltip;
 
@@ -110,12 +140,16 @@ public class ParametersController {
     @FXML
     private Tooltip yRangeToTextFieldTooltip;
 
+    @FXML
+    private Tooltip objectiveSelectionCheckBoxTooltip;
+
     // -----------------------------------------------------------------
     private final ObservableResourceFactory messagesFactory = ObservableResourceFactory.getInstance();
     private final IControllerMediator controllerMediator = ControllerMediator.getInstance();
     private final ObservableMap<String, AbstractTestFunction> testFunctionObservableMap = TestFunctionUtils.createTestFunctionObservableMap();
     private final ObjectProperty<AbstractTestFunction> func = new SimpleObjectProperty<>();
     private final BooleanProperty wrongParameters = new SimpleBooleanProperty(false);
+    private final SimulationService simulationService = new SimulationService();
 
     // ------------------------------------------------------------------
     private ChangeListener<Number> sliderValueChangeListener;
@@ -142,7 +176,7 @@ public class ParametersController {
         funcComboBox.getSelectionModel().select(testFunctionObservableMap.get(RastriginFunction.class.getSimpleName()));
         onActionFuncComboBox();
 
-        startButton.disableProperty().bind(wrongParameters);
+        initSimulationService();
 
         addValueChangeListenerToTextFields();
 
@@ -153,6 +187,7 @@ public class ParametersController {
 
     private void initLanguageBindings() {
         funcLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.function"));
+        expressionLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.expression"));
         xRangeLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.xRange"));
         yRangeLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.yRange"));
         xToLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.rangeTo"));
@@ -160,9 +195,21 @@ public class ParametersController {
         foodSourcesCountLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.foodSourcesCount"));
         maxIterLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.maxIter"));
         trialsLimitLabel.textProperty().bind(messagesFactory.getStringBinding("parameters.trialsLimit"));
+        objectiveSelectionCheckBox.textProperty().bind(messagesFactory.getStringBinding("parameters.objectiveSelection"));
         startButton.textProperty().bind(messagesFactory.getStringBinding("parameters.startButton"));
+        pauseButton.textProperty().bind(Bindings.when(simulationService.pausedProperty())
+                .then(messagesFactory.getStringBinding("parameters.resumeButton"))
+                .otherwise(messagesFactory.getStringBinding("parameters.pauseButton")));
+        cancelButton.textProperty().bind(messagesFactory.getStringBinding("parameters.cancelButton"));
+        progressLabel.textProperty().bind(Bindings.when(simulationService.runningProperty())
+                .then(Bindings.concat(messagesFactory.getStringBinding("parameters.progress"), " ",
+                        simulationService.iterProperty(), "/", simulationService.maxIterProperty(), ", ",
+                        messagesFactory.getStringBinding("parameters.progressBest"), " ",
+                        simulationService.bestFxProperty().asString("%.6g")))
+                .otherwise(""));
 
         functionLabelTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.funcLabel"));
+        expressionTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.expressionTextField"));
         foodSourcesCountLabelTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.foodSourcesCountLabel"));
         foodSourcesCountTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.foodSourcesCountTextField"));
         maxIterTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.maxIterTextField"));
@@ -172,6 +219,29 @@ public class ParametersController {
         xRangeToTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.xRangeToTextField"));
         yRangeFromTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.yRangeFromTextField"));
         yRangeToTextFieldTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.yRangeToTextField"));
+        objectiveSelectionCheckBoxTooltip.textProperty().bind(messagesFactory.getStringBinding("tooltip.objectiveSelectionCheckBox"));
+    }
+
+    private void initSimulationService() {
+        ReadOnlyBooleanProperty running = simulationService.runningProperty();
+
+        // The colony reads the function and its boundaries during the whole run
+        startButton.disableProperty().bind(wrongParameters.or(running));
+        pauseButton.disableProperty().bind(running.not());
+        cancelButton.disableProperty().bind(running.not());
+        for (Control control : new Control[]{funcComboBox, expressionTextField, xRangeFromTextField, xRangeToTextField,
+                yRangeFromTextField, yRangeToTextField, foodSourcesCountTextField, maxIterTextField,
+                trialsLimitTextField, objectiveSelectionCheckBox}) {
+            control.disableProperty().bind(running);
+        }
+        progressBar.progressProperty().bind(simulationService.progressProperty());
+        progressBar.visibleProperty().bind(running);
+
+        simulationService.setOnSucceeded(e -> showResults(simulationService.getValue()));
+        simulationService.setOnFailed(e -> {
+            Throwable exception = simulationService.getException();
+            DialogUtils.errorDialog(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        });
     }
 
     private void addValueChangeListenerToTextFields() {
@@ -303,6 +373,29 @@ public class ParametersController {
         }
     }
 
+    // Compiles the expression with the current ranges and selects it instead of the previous expression
+    @FXML
+    private void onActionExpressionTextField() {
+        double[] lower = func.getValue().getLowerBoundaries();
+        double[] upper = func.getValue().getUpperBoundaries();
+        ExpressionFunction expressionFunction;
+        try {
+            expressionFunction = new ExpressionFunction(expressionTextField.getText(),
+                    new double[]{lower[0], lower[1]}, new double[]{upper[0], upper[1]});
+        } catch (IllegalArgumentException e) {
+            TextFieldUtils.setInvalid(expressionTextField);
+            DialogUtils.errorDialog(e.getMessage());
+            return;
+        }
+        TextFieldUtils.setValid(expressionTextField);
+
+        testFunctionObservableMap.put(expressionFunction.getRegistryName(), expressionFunction);
+        funcComboBoxChangeListenerActive = false;
+        funcComboBox.setItems(FXCollections.observableArrayList(testFunctionObservableMap.values()));
+        funcComboBoxChangeListenerActive = true;
+        funcComboBox.getSelectionModel().select(expressionFunction);
+    }
+
     private void setRangeTextFields() {
         rangeChangeListenersActive = false;
         xRangeFromTextField.textProperty().setValue(String.valueOf(func.getValue().getLowerBoundaries()[0]));
@@ -331,31 +424,51 @@ public class ParametersController {
         }
 
         ArtificialBeeColony abc = new ArtificialBeeColony(foodSourcesCount, maxIter, func.getValue(), trialsLimit);
-        abc.run();
-        ABCResults results = new ABCResults(abc);
+        abc.setSelectionMode(objectiveSelectionCheckBox.isSelected() ? SelectionMode.OBJECTIVE : SelectionMode.FITNESS);
+        abc.setPhaseStats(new PhaseStats()); // Cheap next to the full history, saved together with it
+
+        // The previous results stay hidden until the new ones are ready
+        controllerMediator.mainControllerGetFunctionChart().clearFoodSources();
+        controllerMediator.mainControllerGetIterSlider().setDisable(true);
+        controllerMediator.resultsControllerSetResultsVisible(false);
+        simulationService.setColony(abc);
+        simulationService.restart();
+    }
+
+    @FXML
+    private void onActionPauseButton() {
+        simulationService.setPaused(!simulationService.isPaused());
+    }
+
+    @FXML
+    private void onActionCancelButton() {
+        simulationService.cancel();
+    }
+
+    private void showResults(ABCResults results) {
         controllerMediator.resultsControllerSetResults(results);
 
         initIterSlider(results);
         controllerMediator.resultsControllerSetResultsVisible(true);
-        controllerMediator.resultsControllerShowResults(maxIter);
+        controllerMediator.resultsControllerShowResults(results.getLastIter());
     }
 
     private void initIterSlider(ABCResults results) {
-        int maxIter = results.getMaxIter();
+        int lastIter = results.getLastIter(); // Less than maxIter if the run was stopped early
         Slider iterSlider = controllerMediator.mainControllerGetIterSlider();
 
         iterSlider.setDisable(false);
         iterSlider.setShowTickMarks(true);
         iterSlider.setShowTickLabels(true);
         iterSlider.setMin(0);
-        iterSlider.setMax(maxIter);
+        iterSlider.setMax(lastIter);
         iterSlider.setBlockIncrement(1);
 
-        if (maxIter < SLIDER_BY_ONE_TICKS_LIMIT) {
+        if (lastIter < SLIDER_BY_ONE_TICKS_LIMIT) {
             iterSlider.setMajorTickUnit(1);
             iterSlider.setMinorTickCount(0);
         } else {
-            iterSlider.setMajorTickUnit((int) ((double) maxIter / SLIDER_MAJOR_TICKS_COUNT));
+            iterSlider.setMajorTickUnit((int) ((double) lastIter / SLIDER_MAJOR_TICKS_COUNT));
             iterSlider.setMinorTickCount((int) iterSlider.getMajorTickUnit() - 1);
         }
 
@@ -364,30 +477,66 @@ public class ParametersController {
         }
         sliderValueChangeListener = (observable, oldValue, newValue) -> {
             int iterNumber = newValue.intValue();
-            controllerMediator.mainControllerGetFunctionChart().drawFoodSources(results.getAllFoodSources()[iterNumber]);
+            drawFoodSources(results, iterNumber);
             controllerMediator.resultsControllerShowResults(iterNumber);
         };
 
         iterSlider.valueProperty().addListener(sliderValueChangeListener);
-        iterSlider.setValue(maxIter);
-        controllerMediator.mainControllerGetFunctionChart().drawFoodSources(results.getAllFoodSources()[maxIter]);
+        iterSlider.setValue(lastIter);
+        drawFoodSources(results, lastIter);
+    }
+
+    private void drawFoodSources(ABCResults results, int iterNumber) {
+        FunctionChart2D chart = controllerMediator.mainControllerGetFunctionChart();
+        if (results.getHistory().hasFoodSources(iterNumber)) {
+            chart.drawFoodSources(results.getHistory().getFoodSources(iterNumber));
+        } else {
+            chart.clearFoodSources(); // Iteration was not recorded
+        }
     }
 
     public void initResults(ABCResults results) throws IOException {
+        simulationService.cancel(); // Its results would replace the loaded ones
         AbstractTestFunction func = testFunctionObservableMap.get(results.getTestFunctionName());
-        if (func == null) {
+        if (results.getExpression() != null) {
+            // Typed by the user, so it is compiled again with the ranges of the results instead of being looked up
+            try {
+                func = new ExpressionFunction(results.getExpression(),
+                        results.getLowerBoundaries().clone(), results.getUpperBoundaries().clone(),
+                        results.getMinValuePos().clone(), results.getMinValue());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            expressionTextField.setText(results.getExpression());
+            TextFieldUtils.setValid(expressionTextField);
+            testFunctionObservableMap.put(func.getRegistryName(), func);
+            funcComboBoxChangeListenerActive = false;
+            funcComboBox.setItems(FXCollections.observableArrayList(testFunctionObservableMap.values()));
+            funcComboBoxChangeListenerActive = true;
+        } else if (func == null) {
             throw new IOException("Unknown function: " + results.getTestFunctionName());
+        } else if (func.getDim() != results.getDim()) {
+            // The chart shows an x-y slice, so the function is replaced with one of the results' dimension
+            try {
+                func = TestFunctionUtils.createTestFunction(results.getTestFunctionName(), results.getDim());
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            testFunctionObservableMap.put(func.getRegistryName(), func);
+            funcComboBoxChangeListenerActive = false;
+            funcComboBox.setItems(FXCollections.observableArrayList(testFunctionObservableMap.values()));
+            funcComboBoxChangeListenerActive = true;
         }
         funcComboBox.getSelectionModel().select(func);
 
-        func.getLowerBoundaries()[0] = results.getLowerBoundaries()[0];
-        func.getLowerBoundaries()[1] = results.getLowerBoundaries()[1];
-        func.getUpperBoundaries()[0] = results.getUpperBoundaries()[0];
-        func.getUpperBoundaries()[1] = results.getUpperBoundaries()[1];
+        for (int i = 0; i < results.getDim(); i++) {
+            func.getLowerBoundaries()[i] = results.getLowerBoundaries()[i];
+            func.getUpperBoundaries()[i] = results.getUpperBoundaries()[i];
+        }
         func.setMinimum(results.getMinValuePos(), results.getMinValue());
         setRangeTextFields();
 
-        controllerMediator.resultsControllerShowResults(results.getMaxIter());
+        controllerMediator.resultsControllerShowResults(results.getLastIter());
 
         maxIterTextField.setText(String.valueOf(results.getMaxIter()));
         foodSourcesCountTextField.setText(String.valueOf(results.getFoodSourcesCount()));
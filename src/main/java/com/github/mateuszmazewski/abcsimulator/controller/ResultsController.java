@@ -15,6 +15,7 @@ public class ResultsController {
 
     private static final int MIN_FOOD_SOURCE_SIZE = 1;
     private static final int MAX_FOOD_SOURCE_SIZE = 30;
+    private static final int MAX_SHOWN_COORDS = 4;
 
     private final ObservableResourceFactory messagesFactory = ObservableResourceFactory.getInstance();
     private final IControllerMediator controllerMediator = ControllerMediator.getInstance();
@@ -136,20 +137,36 @@ public class ResultsController {
 
     public void showFuncBest(double[] globalMinPos, double globalMinValue) {
         this.globalMinValue = globalMinValue;
-        String x = doubleToStringDecimal4(globalMinPos[0]);
-        String y = doubleToStringDecimal4(globalMinPos[1]);
-        String fx = doubleToStringDecimal4(globalMinValue);
-        minimumValueLabel.setText("f(" + x + ", " + y + ") = " + fx);
+        minimumValueLabel.setText(funcValueToString(globalMinPos, globalMinValue));
+    }
+
+    // Positions with many coordinates are shortened to the first two and the last one
+    private String funcValueToString(double[] pos, double fx) {
+        StringBuilder sb = new StringBuilder("f(");
+        for (int i = 0; i < pos.length; i++) {
+            if (pos.length > MAX_SHOWN_COORDS && i == 2) {
+                sb.append(", ...");
+                i = pos.length - 1;
+            }
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(doubleToStringDecimal4(pos[i]));
+        }
+        return sb.append(") = ").append(doubleToStringDecimal4(fx)).toString();
     }
 
     public void showResults(int iterNumber) {
         setResultsVisible(true);
-        double[] bestFoodSource = results.getBestFoodSources()[iterNumber];
-        double fx = results.getBestFx()[iterNumber];
-
-        String xString = doubleToStringDecimal4(bestFoodSource[0]);
-        String yString = doubleToStringDecimal4(bestFoodSource[1]);
-        String fxString = doubleToStringDecimal4(fx);
+        double[] bestFoodSource;
+        double fx;
+        if (results.getHistory().hasBest(iterNumber)) {
+            bestFoodSource = results.getHistory().getBestFoodSource(iterNumber);
+            fx = results.getHistory().getBestFx(iterNumber);
+        } else {
+            bestFoodSource = results.getFoundMinValuePos();
+            fx = results.getFoundMinValue();
+        }
 
         double error = Math.abs(globalMinValue - fx);
         String orderOfMagnitudeOfErrorString = "";
@@ -163,7 +180,7 @@ public class ResultsController {
             orderOfMagnitudeOfErrorValueLabel.textProperty().bind(messagesFactory.getStringBinding("results.maxPrecision"));
         }
 
-        foundMinimumValueLabel.setText("f(" + xString + ", " + yString + ") = " + fxString);
+        foundMinimumValueLabel.setText(funcValueToString(bestFoodSource, fx));
         if (error > 0.0) {
             orderOfMagnitudeOfErrorValueLabel.setText(orderOfMagnitudeOfErrorString);
         }
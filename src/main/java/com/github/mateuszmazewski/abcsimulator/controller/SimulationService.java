@@ -0,0 +1,173 @@
+package com.github.mateuszmazewski.abcsimulator.controller;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ABCResults;
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs a colony on a background thread, so the window stays responsive during long runs. The colony is stepped
+// one iteration at a time, which is where pausing and cancelling take effect. Progress is published at most
+// once per PROGRESS_UPDATE_INTERVAL_MILLIS - a run of thousands of short iterations would otherwise
+// flood the application thread with updates.
+public class SimulationService extends Service<ABCResults> {
+
+    public static final long PROGRESS_UPDATE_INTERVAL_MILLIS = 100;
+
+    private final ReadOnlyIntegerWrapper iter = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper maxIter = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyDoubleWrapper bestFx = new ReadOnlyDoubleWrapper(Double.NaN);
+    private final BooleanProperty paused = new SimpleBooleanProperty(false);
+    private final Object pauseLock = new Object();
+    private volatile boolean pausedFlag; // paused as seen by the background thread
+    private ArtificialBeeColony abc;
+
+    public SimulationService() {
+        paused.addListener((observable, oldValue, newValue) -> {
+            synchronized (pauseLock) {
+                pausedFlag = newValue;
+                pauseLock.notifyAll();
+            }
+        });
+        // A new run never starts paused
+        runningProperty().addListener((observable, oldValue, newValue) -> {
+            if (!newValue) {
+                paused.set(false);
+            }
+        });
+    }
+
+    // Called on the application thread before start() or restart()
+    public void setColony(ArtificialBeeColony abc) {
+        if (isRunning()) {
+            throw new IllegalStateException("colony cannot be changed during a run");
+        }
+        this.abc = abc;
+    }
+
+    @Override
+    protected Task<ABCResults> createTask() {
+        if (abc == null) {
+            throw new IllegalStateException("colony must be set before the service is started");
+        }
+        ArtificialBeeColony colony = abc;
+        iter.set(0);
+        maxIter.set(colony.getMaxIter());
+        bestFx.set(Double.NaN);
+
+        return new Task<ABCResults>() {
+            // Set when an update is waiting for the application thread, so updates are never queued up
+            private final AtomicBoolean updatePending = new AtomicBoolean();
+            // The newest progress, read by the pending update - publishing while an update is pending
+            // only replaces it, so the final state after finish() is never lost
+            private final AtomicReference<Progress> latestProgress = new AtomicReference<>();
+
+            @Override
+            protected ABCResults call() throws InterruptedException {
+                colony.start();
+                long lastUpdate = System.nanoTime();
+                boolean hasNextIter = true;
+                while (hasNextIter) {
+                    waitWhilePaused();
+                    if (isCancelled()) {
+                        return null;
+                    }
+                    hasNextIter = colony.step();
+
+                    long now = System.nanoTime();
+                    if (now - lastUpdate >= PROGRESS_UPDATE_INTERVAL_MILLIS * 1000000L) {
+                        publishProgress(colony.getIter(), colony.getBestFxSoFar());
+                        lastUpdate = now;
+                    }
+                }
+                colony.finish();
+                publishProgress(colony.getLastIter(), colony.getBestFxSoFar());
+                return new ABCResults(colony);
+            }
+
+            private void publishProgress(int currentIter, double currentBestFx) {
+                updateProgress(currentIter, colony.getMaxIter());
+                latestProgress.set(new Progress(currentIter, currentBestFx));
+                if (updatePending.compareAndSet(false, true)) {
+                    Platform.runLater(() -> {
+                        // Cleared before reading, so progress published after the read schedules another update
+                        updatePending.set(false);
+                        Progress progress = latestProgress.get();
+                        iter.set(progress.iter);
+                        bestFx.set(progress.bestFx);
+                    });
+                }
+            }
+
+            private void waitWhilePaused() throws InterruptedException {
+                synchronized (pauseLock) {
+                    while (pausedFlag && !isCancelled()) {
+                        pauseLock.wait();
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void cancelled() {
+        synchronized (pauseLock) {
+            pauseLock.notifyAll(); // Wakes up a paused run, so it can finish
+        }
+    }
+
+    public int getIter() {
+        return iter.get();
+    }
+
+    public ReadOnlyIntegerProperty iterProperty() {
+        return iter.getReadOnlyProperty();
+    }
+
+    public int getMaxIter() {
+        return maxIter.get();
+    }
+
+    public ReadOnlyIntegerProperty maxIterProperty() {
+        return maxIter.getReadOnlyProperty();
+    }
+
+    public double getBestFx() {
+        return bestFx.get();
+    }
+
+    public ReadOnlyDoubleProperty bestFxProperty() {
+        return bestFx.getReadOnlyProperty();
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused.set(paused);
+    }
+
+    public BooleanProperty pausedProperty() {
+        return paused;
+    }
+
+    private static final class Progress {
+        private final int iter;
+        private final double bestFx;
+
+        private Progress(int iter, double bestFx) {
+            this.iter = iter;
+            this.bestFx = bestFx;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.mateuszmazewski.abcsimulator.visualization;
 
 import com.github.mateuszmazewski.abcsimulator.abc.ABCResults;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
 import com.github.mateuszmazewski.abcsimulator.controller.ControllerMediator;
 import com.github.mateuszmazewski.abcsimulator.utils.DialogUtils;
 import com.github.mateuszmazewski.abcsimulator.utils.ObservableResourceFactory;
@@ -36,7 +37,7 @@ public class ErrorChartModel {
         vBox.setPrefSize(chartDialog.getWidth(), chartDialog.getHeight());
         VBox.setVgrow(chart, Priority.ALWAYS);
 
-        if (Math.abs(results.getBestFx()[results.getBestFx().length - 1] - results.getMinValue()) == 0.0) {
+        if (Math.abs(results.getFoundMinValue() - results.getMinValue()) == 0.0) {
             Label infoLabel = new Label();
             infoLabel.textProperty().bind(messagesFactory.getStringBinding("results.errorChart.precisionLimitInfo"));
             infoLabel.setWrapText(true);
@@ -50,7 +51,7 @@ public class ErrorChartModel {
     }
 
     private LineChart<Number, Number> createErrorChart(ABCResults results) {
-        double[] bestFx = results.getBestFx();
+        IHistoryRecorder history = results.getHistory();
         double minValue = results.getMinValue();
 
         NumberAxis xAxis = new NumberAxis();
@@ -63,8 +64,11 @@ public class ErrorChartModel {
         XYChart.Series<Number, Number> dataSeries = new XYChart.Series<>();
         double error;
 
-        for (int iter = 0; iter < bestFx.length; iter++) {
-            error = Math.abs(bestFx[iter] - minValue);
+        for (int iter = 0; iter <= results.getMaxIter(); iter++) {
+            if (!history.hasBest(iter)) {
+                continue;
+            }
+            error = Math.abs(history.getBestFx(iter) - minValue);
             if (error == 0.0) {
                 // Obtained maximum double precision
                 break;
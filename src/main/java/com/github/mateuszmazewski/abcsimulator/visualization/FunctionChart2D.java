@@ -11,11 +11,6 @@ import javafx.scene.image.PixelWriter;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
 
-import java.util.Arrays;
-import java.util.OptionalDouble;
-import java.util.OptionalInt;
-import java.util.stream.IntStream;
-
 public class FunctionChart2D extends GridPane {
 
     private static final double MINIMUM_MARK_SIZE = 12.0;
@@ -34,8 +29,9 @@ public class FunctionChart2D extends GridPane {
 
     // -----------------------------FUNCTION-----------------------------
     private AbstractTestFunction testFunction;
+    private FunctionHeatmap heatmap;
     private double x1, x2, y1, y2; // Function's args range
-    private double[] funcMinValuePos = new double[2];
+    private double[] funcMinValuePos;
     private double funcMinValue = Double.MAX_VALUE;
     private double funcMaxValue = -Double.MAX_VALUE;
     double[] funcValues;
@@ -141,67 +137,11 @@ public class FunctionChart2D extends GridPane {
     }
 
     private void updateFuncValues() {
-        int cch = (int) chartCanvasHeight;
-        int ccw = (int) chartCanvasWidth;
-        funcValues = new double[cch * ccw];
-        funcMinValue = Double.MAX_VALUE;
-        funcMaxValue = -Double.MAX_VALUE;
-
-        IntStream.range(0, cch).parallel().forEach(yCanvas ->
-                IntStream.range(0, ccw).parallel().forEach(xCanvas ->
-                        funcValues[yCanvas * ccw + xCanvas] = getFuncVal(xCanvas, yCanvas) // Might be f(x, y) or log10(f(x, y))
-                ));
-
-        // Find min value index and max value
-        OptionalInt maybeMinValueIdx = IntStream.range(0, funcValues.length).parallel().reduce((a, b) -> funcValues[a] < funcValues[b] ? a : b);
-        OptionalDouble maybeMaxValue = Arrays.stream(funcValues).reduce(Double::max);
-
-        if (maybeMinValueIdx.isPresent() && maybeMaxValue.isPresent()) {
-            int minValueIdx = maybeMinValueIdx.getAsInt();
-
-            int xMinCanvas = minValueIdx % ccw;
-            int yMinCanvas = minValueIdx / ccw;
-
-            funcMinValue = funcValues[minValueIdx];
-            funcMinValuePos = getFuncXY(xMinCanvas, yMinCanvas);
-            funcMaxValue = maybeMaxValue.getAsDouble();
-
-            // If current ranges contain global minimum then the global minimum is exactly known
-            if (!testFunction.isGlobalMinimumInCurrentRanges()) {
-                double funcVal;
-
-                // Find more exact minimum
-                for (double xCanvas = xMinCanvas - 2.0; xCanvas <= xMinCanvas + 2.0; xCanvas += 0.02) {
-                    for (double yCanvas = yMinCanvas - 2.0; yCanvas <= yMinCanvas + 2.0; yCanvas += 0.02) {
-                        try {
-                            funcVal = getFuncVal(xCanvas, yCanvas); // Might be f(x, y) or log10(f(x, y))
-                        } catch (IllegalArgumentException e) {
-                            continue; // Coords are out of boundaries
-                        }
-
-                        if (funcVal < funcMinValue) {
-                            funcMinValue = funcVal;
-                            funcMinValuePos = getFuncXY(xCanvas, yCanvas);
-                        }
-                    }
-                }
-            }
-        }
-
-        testFunction.setMinimum(funcMinValuePos, testFunction.getValue(funcMinValuePos)); // Make sure it's f(x, y), not log10(f(x, y))
-        if (!testFunction.isChartInLogScale()) {
-            funcMinValue = testFunction.getMinValue();
-            funcMinValuePos = testFunction.getMinValuePos();
-        }
-    }
-
-    private double getFuncVal(double xCanvas, double yCanvas) {
-        double[] pos = getFuncXY(xCanvas, yCanvas);
-        if (testFunction.isChartInLogScale()) {
-            return testFunction.getLog10Value(pos);
-        } else {
-            return testFunction.getValue(pos);
-        }
+        heatmap.update(chartCanvasWidth, chartCanvasHeight);
+        funcValues = heatmap.getFuncValues();
+        funcMinValue = heatmap.getFuncMinValue();
+        funcMaxValue = heatmap.getFuncMaxValue();
+        funcMinValuePos = heatmap.getFuncMinValuePos();
     }
 
     private double[] getCanvasXY(double[] xyFunc) {
@@ -211,18 +151,8 @@ public class FunctionChart2D extends GridPane {
         return new double[]{xCanvas, yCanvas};
     }
 
-    private double[] getFuncXY(double xCanvas, double yCanvas) {
-        // Scale canvas coords to function coords
-        double xFunc = xCanvas / chartCanvasWidth * (x2 - x1) + x1;
-        double yFunc = (chartCanvasHeight - yCanvas) / chartCanvasHeight * (y2 - y1) + y1;
-        return new double[]{xFunc, yFunc};
-    }
-
     public void setTestFunction(AbstractTestFunction testFunction) {
-        if (testFunction.getDim() != 2) {
-            throw new IllegalArgumentException("Cannot visualize function with dimension other than 2");
-        }
-
+        heatmap = new FunctionHeatmap(testFunction);
         this.testFunction = testFunction;
         x1 = testFunction.getLowerBoundaries()[0];
         x2 = testFunction.getUpperBoundaries()[0];
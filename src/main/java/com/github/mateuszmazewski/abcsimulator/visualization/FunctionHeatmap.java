@@ -0,0 +1,157 @@
+package com.github.mateuszmazewski.abcsimulator.visualization;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+// Function values behind FunctionChart2D - one per canvas pixel, row by row from the top. Does not use JavaFX,
+// so it can also be computed headless (e.g. in benchmarks).
+public class FunctionHeatmap {
+
+    private static final int REFINEMENT_MAX_POINTS = 202; // Points in one column of the minimum refinement grid
+
+    private final AbstractTestFunction testFunction;
+    private final double x1, x2, y1, y2; // Function's args range
+    // Functions with more than 2 dimensions are drawn as a slice through x and y,
+    // with the remaining coordinates fixed at the global minimum (clamped into current ranges)
+    private final double[] sliceBase;
+    private double width, height;
+    private double[] funcValues = new double[0];
+    private double[] funcMinValuePos;
+    private double funcMinValue = Double.MAX_VALUE;
+    private double funcMaxValue = -Double.MAX_VALUE;
+
+    public FunctionHeatmap(AbstractTestFunction testFunction) {
+        if (testFunction.getDim() < 2) {
+            throw new IllegalArgumentException("Cannot visualize function with dimension less than 2");
+        }
+
+        this.testFunction = testFunction;
+        x1 = testFunction.getLowerBoundaries()[0];
+        x2 = testFunction.getUpperBoundaries()[0];
+        y1 = testFunction.getLowerBoundaries()[1];
+        y2 = testFunction.getUpperBoundaries()[1];
+        sliceBase = new double[testFunction.getDim()];
+        for (int i = 2; i < sliceBase.length; i++) {
+            sliceBase[i] = Math.min(Math.max(testFunction.getGlobalMinValuePos()[i],
+                    testFunction.getLowerBoundaries()[i]), testFunction.getUpperBoundaries()[i]);
+        }
+    }
+
+    // Also sets the function's minimum to the lowest point found in the current ranges
+    public void update(double width, double height) {
+        this.width = width;
+        this.height = height;
+        int cch = (int) height;
+        int ccw = (int) width;
+        funcValues = new double[cch * ccw];
+        funcMinValue = Double.MAX_VALUE;
+        funcMaxValue = -Double.MAX_VALUE;
+
+        // Each row is evaluated as one batch
+        IntStream.range(0, cch).parallel().forEach(yCanvas -> {
+            double[] rowPositions = new double[ccw * sliceBase.length];
+            double[] rowValues = new double[ccw];
+            for (int xCanvas = 0; xCanvas < ccw; xCanvas++) {
+                setFuncXY(rowPositions, xCanvas, xCanvas, yCanvas);
+            }
+            getFuncVals(rowPositions, rowValues, ccw); // Might be f(x, y) or log10(f(x, y))
+            System.arraycopy(rowValues, 0, funcValues, yCanvas * ccw, ccw);
+        });
+
+        // Find min value index and max value
+        OptionalInt maybeMinValueIdx = IntStream.range(0, funcValues.length).parallel().reduce((a, b) -> funcValues[a] < funcValues[b] ? a : b);
+        OptionalDouble maybeMaxValue = Arrays.stream(funcValues).reduce(Double::max);
+
+        if (maybeMinValueIdx.isPresent() && maybeMaxValue.isPresent()) {
+            int minValueIdx = maybeMinValueIdx.getAsInt();
+
+            int xMinCanvas = minValueIdx % ccw;
+            int yMinCanvas = minValueIdx / ccw;
+
+            funcMinValue = funcValues[minValueIdx];
+            funcMinValuePos = getFuncXY(xMinCanvas, yMinCanvas);
+            funcMaxValue = maybeMaxValue.getAsDouble();
+
+            // If current ranges contain global minimum then the global minimum is exactly known
+            if (!testFunction.isGlobalMinimumInCurrentRanges()) {
+                // Find more exact minimum - every column of the refinement grid is evaluated as one batch
+                int dim = sliceBase.length;
+                double[] columnPositions = new double[REFINEMENT_MAX_POINTS * dim];
+                double[] columnValues = new double[REFINEMENT_MAX_POINTS];
+
+                for (double xCanvas = xMinCanvas - 2.0; xCanvas <= xMinCanvas + 2.0; xCanvas += 0.02) {
+                    int count = 0;
+                    for (double yCanvas = yMinCanvas - 2.0; yCanvas <= yMinCanvas + 2.0 && count < REFINEMENT_MAX_POINTS; yCanvas += 0.02) {
+                        setFuncXY(columnPositions, count, xCanvas, yCanvas);
+                        if (isInRanges(columnPositions, count)) {
+                            count++; // Points out of boundaries are overwritten by the next one
+                        }
+                    }
+                    getFuncVals(columnPositions, columnValues, count); // Might be f(x, y) or log10(f(x, y))
+
+                    for (int p = 0; p < count; p++) {
+                        if (columnValues[p] < funcMinValue) {
+                            funcMinValue = columnValues[p];
+                            funcMinValuePos = Arrays.copyOfRange(columnPositions, p * dim, (p + 1) * dim);
+                        }
+                    }
+                }
+            }
+        }
+
+        testFunction.setMinimum(funcMinValuePos, testFunction.getValue(funcMinValuePos)); // Make sure it's f(x, y), not log10(f(x, y))
+        if (!testFunction.isChartInLogScale()) {
+            funcMinValue = testFunction.getMinValue();
+            funcMinValuePos = testFunction.getMinValuePos();
+        }
+    }
+
+    private void getFuncVals(double[] positions, double[] values, int count) {
+        if (testFunction.isChartInLogScale()) {
+            testFunction.getLog10Values(positions, values, 0, count);
+        } else {
+            testFunction.getValues(positions, values, 0, count);
+        }
+    }
+
+    // Writes the function coords of the canvas point as the point with the given index in a flat buffer
+    private void setFuncXY(double[] positions, int pointIndex, double xCanvas, double yCanvas) {
+        int offset = pointIndex * sliceBase.length;
+        System.arraycopy(sliceBase, 0, positions, offset, sliceBase.length);
+        positions[offset] = xCanvas / width * (x2 - x1) + x1;
+        positions[offset + 1] = (height - yCanvas) / height * (y2 - y1) + y1;
+    }
+
+    private boolean isInRanges(double[] positions, int pointIndex) {
+        int offset = pointIndex * sliceBase.length;
+        return positions[offset] >= x1 && positions[offset] <= x2
+                && positions[offset + 1] >= y1 && positions[offset + 1] <= y2;
+    }
+
+    private double[] getFuncXY(double xCanvas, double yCanvas) {
+        // Scale canvas coords to function coords
+        double[] pos = new double[sliceBase.length];
+        setFuncXY(pos, 0, xCanvas, yCanvas);
+        return pos;
+    }
+
+    public double[] getFuncValues() {
+        return funcValues;
+    }
+
+    public double[] getFuncMinValuePos() {
+        return funcMinValuePos;
+    }
+
+    public double getFuncMinValue() {
+        return funcMinValue;
+    }
+
+    public double getFuncMaxValue() {
+        return funcMaxValue;
+    }
+}
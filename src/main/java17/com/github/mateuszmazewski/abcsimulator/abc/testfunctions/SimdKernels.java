@@ -0,0 +1,123 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Points are stored one after another, so the per-coordinate terms are computed with SIMD lanes
+// over the whole flat range regardless of the dimension, and only then summed up point by point
+final class SimdKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double A = 10.0; // Rastrigin
+    private static final double TWO_PI = 2 * Math.PI;
+
+    // Reused between calls, so evaluating the colony in batches does not allocate
+    private static final ThreadLocal<double[][]> SCRATCH = ThreadLocal.withInitial(() -> new double[2][0]);
+
+    private SimdKernels() {
+    }
+
+    static void sphere(double[] positions, double[] values, int from, int to, int dim) {
+        int start = from * dim, end = to * dim;
+        double[] terms = scratch(0, end - start);
+
+        int i = start, k = 0;
+        for (int upper = start + SPECIES.loopBound(end - start); i < upper; i += SPECIES.length(), k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, positions, i);
+            x.mul(x).intoArray(terms, k);
+        }
+        for (; i < end; i++, k++) {
+            terms[k] = positions[i] * positions[i];
+        }
+
+        sumPerPoint(terms, values, from, to, dim, dim, 0.0);
+    }
+
+    static void rastrigin(double[] positions, double[] values, int from, int to, int dim) {
+        int start = from * dim, end = to * dim;
+        double[] terms = scratch(0, end - start);
+
+        int i = start, k = 0;
+        for (int upper = start + SPECIES.loopBound(end - start); i < upper; i += SPECIES.length(), k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, positions, i);
+            DoubleVector cos = x.mul(TWO_PI).lanewise(VectorOperators.COS);
+            x.mul(x).sub(cos.mul(A)).intoArray(terms, k);
+        }
+        for (; i < end; i++, k++) {
+            terms[k] = positions[i] * positions[i] - A * Math.cos(TWO_PI * positions[i]);
+        }
+
+        sumPerPoint(terms, values, from, to, dim, dim, A * dim);
+    }
+
+    static void ackley(double[] positions, double[] values, int from, int to, int dim) {
+        int start = from * dim, end = to * dim;
+        double[] squares = scratch(0, end - start);
+        double[] cosines = scratch(1, end - start);
+
+        int i = start, k = 0;
+        for (int upper = start + SPECIES.loopBound(end - start); i < upper; i += SPECIES.length(), k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, positions, i);
+            x.mul(x).intoArray(squares, k);
+            x.mul(TWO_PI).lanewise(VectorOperators.COS).intoArray(cosines, k);
+        }
+        for (; i < end; i++, k++) {
+            squares[k] = positions[i] * positions[i];
+            cosines[k] = Math.cos(TWO_PI * positions[i]);
+        }
+
+        for (int p = from, offset = 0; p < to; p++, offset += dim) {
+            double sumSquares = 0.0, sumCos = 0.0;
+            for (int j = offset; j < offset + dim; j++) {
+                sumSquares += squares[j];
+                sumCos += cosines[j];
+            }
+            values[p] = -20 * Math.exp(-0.2 * Math.sqrt(sumSquares / dim))
+                    - Math.exp(sumCos / dim)
+                    + Math.E + 20.0;
+        }
+    }
+
+    static void rosenbrock(double[] positions, double[] values, int from, int to, int dim) {
+        int start = from * dim, end = to * dim;
+        double[] terms = scratch(0, end - start);
+
+        // Terms pairing the last coordinate of a point with the first one of the next point are computed too,
+        // but they are skipped when summing up
+        int i = start, k = 0;
+        for (int upper = start + SPECIES.loopBound(end - 1 - start); i < upper; i += SPECIES.length(), k += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, positions, i);
+            DoubleVector next = DoubleVector.fromArray(SPECIES, positions, i + 1);
+            DoubleVector a = next.sub(x.mul(x));
+            DoubleVector b = x.neg().add(1.0);
+            a.mul(a).mul(100.0).add(b.mul(b)).intoArray(terms, k);
+        }
+        for (; i < end - 1; i++, k++) {
+            double a = positions[i + 1] - positions[i] * positions[i];
+            double b = 1 - positions[i];
+            terms[k] = 100 * a * a + b * b;
+        }
+
+        sumPerPoint(terms, values, from, to, dim, dim - 1, 0.0);
+    }
+
+    // Sums the first termsPerPoint terms of every point
+    private static void sumPerPoint(double[] terms, double[] values, int from, int to, int dim, int termsPerPoint, double initial) {
+        for (int p = from, offset = 0; p < to; p++, offset += dim) {
+            double sum = initial;
+            for (int j = offset; j < offset + termsPerPoint; j++) {
+                sum += terms[j];
+            }
+            values[p] = sum;
+        }
+    }
+
+    private static double[] scratch(int index, int length) {
+        double[][] scratch = SCRATCH.get();
+        if (scratch[index].length < length) {
+            scratch[index] = new double[length];
+        }
+        return scratch[index];
+    }
+}
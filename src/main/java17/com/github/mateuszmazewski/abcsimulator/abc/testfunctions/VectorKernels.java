@@ -0,0 +1,49 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+// Java 17 version of the class in the multi-release jar.
+// The incubator module has to be added explicitly (--add-modules jdk.incubator.vector),
+// so SimdKernels is loaded only after checking that it is present.
+public class VectorKernels {
+
+    public static final String ENABLED_PROPERTY = "abcsimulator.vectorKernels";
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    private static final boolean ENABLED = AVAILABLE && Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private VectorKernels() {
+    }
+
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void sphere(double[] positions, double[] values, int from, int to, int dim) {
+        checkAvailable();
+        SimdKernels.sphere(positions, values, from, to, dim);
+    }
+
+    public static void rastrigin(double[] positions, double[] values, int from, int to, int dim) {
+        checkAvailable();
+        SimdKernels.rastrigin(positions, values, from, to, dim);
+    }
+
+    public static void ackley(double[] positions, double[] values, int from, int to, int dim) {
+        checkAvailable();
+        SimdKernels.ackley(positions, values, from, to, dim);
+    }
+
+    public static void rosenbrock(double[] positions, double[] values, int from, int to, int dim) {
+        checkAvailable();
+        SimdKernels.rosenbrock(positions, values, from, to, dim);
+    }
+
+    private static void checkAvailable() {
+        if (!AVAILABLE) {
+            throw new UnsupportedOperationException("Vector kernels need --add-modules jdk.incubator.vector");
+        }
+    }
+}
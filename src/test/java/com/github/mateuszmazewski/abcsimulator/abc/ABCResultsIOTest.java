@@ -0,0 +1,144 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import com.github.mateuszmazewski.abcsimulator.abc.history.EveryKthIterationHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.AbstractTestFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.DelayedFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.TestFunctionUtils;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins.SumOfSquaresTestPlugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ABCResultsIOTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void roundTripsTwoDimensionalRun() throws IOException {
+        assertRoundTrip(run("RastriginFunction", 2, new FullHistoryRecorder()));
+    }
+
+    @Test
+    void roundTripsMultiDimensionalRun() throws IOException {
+        assertRoundTrip(run("RastriginFunction", 5, new FullHistoryRecorder()));
+        assertRoundTrip(run("SphereFunction", 3, new EveryKthIterationHistoryRecorder(7)));
+    }
+
+    @Test
+    void roundTripsPluginFunctionRun() throws IOException {
+        ABCResults results = run(SumOfSquaresTestPlugin.NAME, 3, new FullHistoryRecorder());
+        assertEquals(SumOfSquaresTestPlugin.NAME, results.getTestFunctionName());
+        assertRoundTrip(results);
+    }
+
+    @Test
+    void roundTripsDelayedFunctionRun() throws IOException {
+        ABCResults results = run(new DelayedFunction(TestFunctionUtils.createTestFunction("SphereFunction", 2), 1),
+                new FullHistoryRecorder());
+        assertEquals("SphereFunction", results.getTestFunctionName());
+        assertRoundTrip(results);
+    }
+
+    @Test
+    void roundTripsExpressionFunctionRun() throws IOException {
+        ExpressionFunction func = new ExpressionFunction("x^2 + 10 * sin(y) + abs(z)",
+                new double[]{-5.0, -5.0, -2.0}, new double[]{5.0, 5.0, 2.0});
+        ABCResults results = run(func, new FullHistoryRecorder());
+        assertEquals("x^2 + 10 * sin(y) + abs(z)", results.getExpression());
+        assertRoundTrip(results);
+    }
+
+    @Test
+    void rejectsExpressionFunctionWithoutExpression() throws IOException {
+        ABCResults results = run(new ExpressionFunction("x + y", new double[]{0.0, 0.0}, new double[]{1.0, 1.0}),
+                new FullHistoryRecorder());
+        results.setExpression(null);
+        File file = new File(tempDir, "expression.txt");
+        ABCResultsIO io = new ABCResultsIO(null);
+        io.writeToFile(file, results);
+        assertThrows(IOException.class, () -> io.readFromFile(file));
+    }
+
+    private static ABCResults run(String functionName, int dim, IHistoryRecorder historyRecorder) {
+        return run(TestFunctionUtils.createTestFunction(functionName, dim), historyRecorder);
+    }
+
+    private static ABCResults run(AbstractTestFunction func, IHistoryRecorder historyRecorder) {
+        ArtificialBeeColony abc = new ArtificialBeeColony(10, 50, func, 5, 3L);
+        abc.setHistoryRecorder(historyRecorder);
+        abc.setPhaseStats(new PhaseStats());
+        abc.setSelectionMode(SelectionMode.OBJECTIVE);
+        abc.setEvaluationCache(new EvaluationCache(100, 0.0));
+        abc.run();
+        return new ABCResults(abc);
+    }
+
+    private void assertRoundTrip(ABCResults expected) throws IOException {
+        File file = new File(tempDir, expected.getTestFunctionName() + expected.getDim() + ".txt");
+        ABCResultsIO io = new ABCResultsIO(null);
+        io.writeToFile(file, expected);
+        ABCResults actual = io.readFromFile(file);
+
+        assertEquals(expected.getTestFunctionName(), actual.getTestFunctionName());
+        assertEquals(expected.getExpression(), actual.getExpression());
+        assertEquals(expected.getDim(), actual.getDim());
+        assertArrayEquals(expected.getLowerBoundaries(), actual.getLowerBoundaries());
+        assertArrayEquals(expected.getUpperBoundaries(), actual.getUpperBoundaries());
+        assertEquals(expected.getMaxIter(), actual.getMaxIter());
+        assertEquals(expected.getFoodSourcesCount(), actual.getFoodSourcesCount());
+        assertEquals(expected.getTrialsLimit(), actual.getTrialsLimit());
+        assertEquals(expected.getSeed(), actual.getSeed());
+        assertEquals(expected.getSelectionMode(), actual.getSelectionMode());
+        assertEquals(expected.getMinValue(), actual.getMinValue());
+        assertArrayEquals(expected.getMinValuePos(), actual.getMinValuePos());
+        assertEquals(expected.getStopReason(), actual.getStopReason());
+        assertEquals(expected.getLastIter(), actual.getLastIter());
+        assertEquals(expected.getAsyncEvaluations(), actual.getAsyncEvaluations());
+        assertEquals(expected.getIterationEquivalents(), actual.getIterationEquivalents());
+        assertEquals(expected.getEvaluations(), actual.getEvaluations());
+        assertEquals(expected.getBestEvaluations(), actual.getBestEvaluations());
+        assertEquals(expected.getCacheHits(), actual.getCacheHits());
+        assertEquals(expected.getCacheMisses(), actual.getCacheMisses());
+        assertEquals(expected.getBestIter(), actual.getBestIter());
+        assertEquals(expected.getFoundMinValue(), actual.getFoundMinValue());
+        assertArrayEquals(expected.getFoundMinValuePos(), actual.getFoundMinValuePos());
+
+        IHistoryRecorder expectedHistory = expected.getHistory();
+        IHistoryRecorder actualHistory = actual.getHistory();
+        for (int iter = 0; iter <= expected.getMaxIter(); iter++) {
+            assertEquals(expectedHistory.hasBest(iter), actualHistory.hasBest(iter));
+            if (expectedHistory.hasBest(iter)) {
+                assertArrayEquals(expectedHistory.getBestFoodSource(iter), actualHistory.getBestFoodSource(iter));
+                assertEquals(expectedHistory.getBestFx(iter), actualHistory.getBestFx(iter));
+            }
+            assertEquals(expectedHistory.hasFoodSources(iter), actualHistory.hasFoodSources(iter), "iteration " + iter);
+            if (expectedHistory.hasFoodSources(iter)) {
+                assertArrayEquals(expectedHistory.getFoodSources(iter), actualHistory.getFoodSources(iter));
+                assertArrayEquals(expectedHistory.getFx(iter), actualHistory.getFx(iter));
+            }
+        }
+
+        PhaseStats expectedStats = expected.getPhaseStats();
+        PhaseStats actualStats = actual.getPhaseStats();
+        assertNotNull(actualStats);
+        for (PhaseStats.Phase phase : PhaseStats.Phase.values()) {
+            for (int iter = 0; iter <= expected.getLastIter(); iter++) {
+                assertEquals(expectedStats.getEvaluations(phase, iter), actualStats.getEvaluations(phase, iter));
+                assertEquals(expectedStats.getAcceptances(phase, iter), actualStats.getAcceptances(phase, iter));
+                assertEquals(expectedStats.getScoutResets(phase, iter), actualStats.getScoutResets(phase, iter));
+                assertEquals(expectedStats.getNanos(phase, iter), actualStats.getNanos(phase, iter));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.RingHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Results must not change when the colony they were created from runs again
+class ABCResultsTest {
+
+    @Test
+    void keepHistoryOfTheirRun() {
+        assertHistoryKept(new FullHistoryRecorder());
+        assertHistoryKept(new RingHistoryRecorder(500));
+    }
+
+    @Test
+    void keepPhaseStatsOfTheirRun() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(10, 200, new RastriginFunction(), 5, 1L);
+        PhaseStats phaseStats = new PhaseStats();
+        abc.setPhaseStats(phaseStats);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setMaxEvaluations(300);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+        ABCResults first = new ABCResults(abc);
+        assertSame(phaseStats, first.getPhaseStats());
+        long firstEvaluations = first.getPhaseStats().getTotalEvaluations(PhaseStats.Phase.EMPLOYED);
+
+        abc.setStopCriteria(new StopCriteria());
+        abc.run();
+        ABCResults second = new ABCResults(abc);
+
+        assertNotSame(first.getPhaseStats(), second.getPhaseStats());
+        assertEquals(firstEvaluations, first.getPhaseStats().getTotalEvaluations(PhaseStats.Phase.EMPLOYED));
+        assertTrue(second.getPhaseStats().getTotalEvaluations(PhaseStats.Phase.EMPLOYED) > firstEvaluations);
+    }
+
+    private static void assertHistoryKept(IHistoryRecorder historyRecorder) {
+        ArtificialBeeColony abc = new ArtificialBeeColony(10, 200, new RastriginFunction(), 5, 1L);
+        abc.setHistoryRecorder(historyRecorder);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setMaxEvaluations(300);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+        ABCResults first = new ABCResults(abc);
+        assertSame(historyRecorder, first.getHistory());
+        int firstLastIter = first.getLastIter();
+        assertTrue(firstLastIter < 200);
+        double firstLastBestFx = first.getHistory().getBestFx(firstLastIter);
+
+        abc.setStopCriteria(new StopCriteria());
+        abc.run();
+        ABCResults second = new ABCResults(abc);
+
+        assertNotSame(first.getHistory(), second.getHistory());
+        assertEquals(200, second.getLastIter());
+        assertTrue(first.getHistory().hasFoodSources(firstLastIter));
+        assertFalse(first.getHistory().hasBest(firstLastIter + 1));
+        assertFalse(first.getHistory().hasFoodSources(firstLastIter + 1));
+        assertEquals(firstLastBestFx, first.getHistory().getBestFx(firstLastIter));
+        assertTrue(second.getHistory().hasBest(200));
+    }
+}
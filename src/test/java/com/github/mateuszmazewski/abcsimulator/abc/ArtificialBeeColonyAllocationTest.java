@@ -0,0 +1,52 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import com.github.mateuszmazewski.abcsimulator.abc.history.NoHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArtificialBeeColonyAllocationTest {
+
+    private static final int WARM_UP_ITERATIONS = 4000;
+    private static final int MEASURED_ITERATIONS = 1000;
+    private static final int MEASUREMENTS = 5;
+
+    @Test
+    void steadyStateIterationsDoNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "allocated bytes are not measured by this JVM");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        ArtificialBeeColony abc = new ArtificialBeeColony(50, WARM_UP_ITERATIONS + MEASUREMENTS * MEASURED_ITERATIONS,
+                new RastriginFunction(), 20, 1L);
+        abc.setHistoryRecorder(new NoHistoryRecorder());
+        abc.start();
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            assertTrue(abc.step());
+        }
+
+        // What reading the counter allocates itself
+        long overhead = threadBean.getThreadAllocatedBytes(threadId);
+        overhead = threadBean.getThreadAllocatedBytes(threadId) - overhead;
+
+        // The JVM itself sometimes allocates on this thread once (e.g. when a method gets recompiled). Allocating
+        // iterations would show up in every measurement, so the least allocating one has to be free of them.
+        long allocated = Long.MAX_VALUE;
+        for (int measurement = 0; measurement < MEASUREMENTS; measurement++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                abc.step();
+            }
+            allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId) - before - overhead);
+        }
+        abc.finish();
+
+        assertEquals(0, allocated, "bytes allocated by " + MEASURED_ITERATIONS + " iterations");
+    }
+}
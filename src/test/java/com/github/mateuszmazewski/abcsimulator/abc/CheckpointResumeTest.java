@@ -0,0 +1,145 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import com.github.mateuszmazewski.abcsimulator.abc.history.EveryKthIterationHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.FullHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.IHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.history.RingHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.random.SplittableRandomGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.ExpressionFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A run of X + Y iterations has to be the same, bit for bit, as a run checkpointed at X and resumed for Y
+class CheckpointResumeTest {
+
+    private static final int MAX_ITER = 200;
+    private static final int CHECKPOINT_ITER = 80;
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void resumesXoroshiroRun() throws IOException {
+        assertResumeEqualsFullRun(() -> colony(false, new FullHistoryRecorder()));
+        assertResumeEqualsFullRun(() -> colony(false, new RingHistoryRecorder(30)));
+        assertResumeEqualsFullRun(() -> colony(false, new EveryKthIterationHistoryRecorder(7)));
+    }
+
+    @Test
+    void resumesSplittableRandomRun() throws IOException {
+        assertResumeEqualsFullRun(() -> colony(true, new FullHistoryRecorder()));
+        assertResumeEqualsFullRun(() -> colony(true, new RingHistoryRecorder(30)));
+    }
+
+    @Test
+    void resumesParallelEmployedPhase() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertResumeEqualsFullRun(() -> {
+                ArtificialBeeColony abc = colony(false, new FullHistoryRecorder());
+                abc.setParallelEmployedPhase(pool);
+                return abc;
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsCheckpointOfOtherParameters() throws IOException {
+        File file = checkpoint(colony(false, new FullHistoryRecorder()));
+        ArtificialBeeColony other = new ArtificialBeeColony(31, MAX_ITER, new RastriginFunction(), 15, 5L);
+        assertThrows(IOException.class, () -> other.resume(file));
+    }
+
+    @Test
+    void rejectsCheckpointOfOtherExpression() throws IOException {
+        double[] lower = {-5.0, -5.0};
+        double[] upper = {5.0, 5.0};
+        ArtificialBeeColony abc = new ArtificialBeeColony(30, MAX_ITER,
+                new ExpressionFunction("x^2 + y^2", lower, upper, new double[2], 0.0), 15, 5L);
+        File file = checkpoint(abc);
+        ArtificialBeeColony other = new ArtificialBeeColony(30, MAX_ITER,
+                new ExpressionFunction("x^2 + 2 * y^2", lower, upper, new double[2], 0.0), 15, 5L);
+        assertThrows(IOException.class, () -> other.resume(file));
+
+        ArtificialBeeColony same = new ArtificialBeeColony(30, MAX_ITER,
+                new ExpressionFunction("x^2 + y^2", lower, upper, new double[2], 0.0), 15, 5L);
+        same.resume(file);
+        assertEquals(CHECKPOINT_ITER, same.getIter());
+    }
+
+    private static ArtificialBeeColony colony(boolean splittable, IHistoryRecorder historyRecorder) {
+        ArtificialBeeColony abc = splittable
+                ? new ArtificialBeeColony(30, MAX_ITER, new RastriginFunction(), 15, 5L, SplittableRandomGenerator::new)
+                : new ArtificialBeeColony(30, MAX_ITER, new RastriginFunction(), 15, 5L);
+        abc.setHistoryRecorder(historyRecorder);
+        abc.setPhaseStats(new PhaseStats());
+        return abc;
+    }
+
+    private File checkpoint(ArtificialBeeColony abc) throws IOException {
+        File file = new File(tempDir, "colony.ckpt");
+        CheckpointWriter checkpointWriter = new CheckpointWriter(file);
+        abc.setCheckpointWriter(checkpointWriter, CHECKPOINT_ITER);
+        abc.start();
+        while (abc.getIter() < CHECKPOINT_ITER) {
+            assertTrue(abc.step());
+        }
+        checkpointWriter.close();
+        assertEquals(1, checkpointWriter.getWrittenCount());
+        return file;
+    }
+
+    private void assertResumeEqualsFullRun(Supplier<ArtificialBeeColony> colonies) throws IOException {
+        ArtificialBeeColony full = colonies.get();
+        full.run();
+
+        File file = checkpoint(colonies.get());
+        ArtificialBeeColony resumed = colonies.get();
+        resumed.resume(file);
+        assertEquals(CHECKPOINT_ITER, resumed.getIter());
+        while (resumed.step()) {
+        }
+        resumed.finish();
+
+        assertEquals(full.getBestFxSoFar(), resumed.getBestFxSoFar());
+        assertArrayEquals(full.getBestFoodSourceSoFar(), resumed.getBestFoodSourceSoFar());
+        assertEquals(full.getBestIter(), resumed.getBestIter());
+        assertEquals(full.getLastIter(), resumed.getLastIter());
+        assertEquals(full.getEvaluations(), resumed.getEvaluations());
+        assertEquals(full.getAcceptances(), resumed.getAcceptances());
+
+        IHistoryRecorder expectedHistory = full.getHistoryRecorder();
+        IHistoryRecorder actualHistory = resumed.getHistoryRecorder();
+        for (int iter = 0; iter <= MAX_ITER; iter++) {
+            assertEquals(expectedHistory.hasBest(iter), actualHistory.hasBest(iter));
+            if (expectedHistory.hasBest(iter)) {
+                assertEquals(expectedHistory.getBestFx(iter), actualHistory.getBestFx(iter));
+                assertArrayEquals(expectedHistory.getBestFoodSource(iter), actualHistory.getBestFoodSource(iter));
+            }
+            assertEquals(expectedHistory.hasFoodSources(iter), actualHistory.hasFoodSources(iter));
+            if (expectedHistory.hasFoodSources(iter)) {
+                assertArrayEquals(expectedHistory.getFoodSources(iter), actualHistory.getFoodSources(iter));
+                assertArrayEquals(expectedHistory.getFx(iter), actualHistory.getFx(iter));
+            }
+        }
+
+        for (PhaseStats.Phase phase : PhaseStats.Phase.values()) {
+            assertEquals(full.getPhaseStats().getTotalEvaluations(phase), resumed.getPhaseStats().getTotalEvaluations(phase));
+            assertEquals(full.getPhaseStats().getTotalAcceptances(phase), resumed.getPhaseStats().getTotalAcceptances(phase));
+            assertEquals(full.getPhaseStats().getTotalScoutResets(phase), resumed.getPhaseStats().getTotalScoutResets(phase));
+        }
+    }
+}
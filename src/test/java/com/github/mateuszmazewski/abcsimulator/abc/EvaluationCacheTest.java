@@ -0,0 +1,112 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluationCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedPosition() {
+        EvaluationCache cache = new EvaluationCache(2);
+        double[] a = {1.0, 2.0};
+        double[] b = {3.0, 4.0};
+        double[] c = {5.0, 6.0};
+        cache.put(a, 0, 2, 10.0);
+        cache.put(b, 0, 2, 20.0);
+
+        // Reading a makes b the least recently used one
+        assertEquals(10.0, cache.get(a, 0, 2));
+        cache.put(c, 0, 2, 30.0);
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(b, 0, 2));
+        assertEquals(10.0, cache.get(a, 0, 2));
+        assertEquals(30.0, cache.get(c, 0, 2));
+    }
+
+    @Test
+    void readsPositionAtOffset() {
+        EvaluationCache cache = new EvaluationCache(4);
+        double[] positions = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0};
+        cache.put(positions, 2, 2, 7.0);
+
+        assertEquals(7.0, cache.get(new double[]{3.0, 4.0}, 0, 2));
+        assertNull(cache.get(positions, 0, 2));
+        assertNull(cache.get(positions, 4, 2));
+    }
+
+    @Test
+    void exactCacheTellsApartEveryBit() {
+        EvaluationCache cache = new EvaluationCache(4);
+        cache.put(new double[]{0.5}, 0, 1, 1.0);
+
+        assertNull(cache.get(new double[]{Math.nextUp(0.5)}, 0, 1));
+        assertEquals(1.0, cache.get(new double[]{0.5}, 0, 1));
+    }
+
+    @Test
+    void quantisedCacheSharesValuesOfNearbyPoints() {
+        EvaluationCache cache = new EvaluationCache(4, 0.1);
+        cache.put(new double[]{0.12, -0.31}, 0, 2, 1.0);
+
+        // 0.08 and 0.14 round to the same grid point as 0.12, -0.29 to the same as -0.31
+        assertEquals(1.0, cache.get(new double[]{0.08, -0.29}, 0, 2));
+        assertEquals(1.0, cache.get(new double[]{0.14, -0.31}, 0, 2));
+        // 0.16 is already closer to the next grid point
+        assertNull(cache.get(new double[]{0.16, -0.31}, 0, 2));
+
+        // A nearby point replaces the value of the grid point
+        cache.put(new double[]{0.1, -0.3}, 0, 2, 2.0);
+        assertEquals(1, cache.getSize());
+        assertEquals(2.0, cache.get(new double[]{0.12, -0.31}, 0, 2));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        EvaluationCache cache = new EvaluationCache(1);
+        double[] a = {1.0};
+        double[] b = {2.0};
+
+        assertNull(cache.get(a, 0, 1));
+        cache.put(a, 0, 1, 1.0);
+        cache.get(a, 0, 1);
+        cache.get(a, 0, 1);
+        cache.put(b, 0, 1, 2.0);
+        cache.get(a, 0, 1);
+
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void clearRemovesValuesAndResetsCounters() {
+        EvaluationCache cache = new EvaluationCache(1);
+        double[] a = {1.0};
+        cache.put(a, 0, 1, 1.0);
+        cache.put(new double[]{2.0}, 0, 1, 2.0);
+        cache.get(a, 0, 1);
+        cache.get(new double[]{2.0}, 0, 1);
+
+        cache.clear();
+
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+        assertNull(cache.get(new double[]{2.0}, 0, 1));
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(1, -0.1));
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(1, Double.POSITIVE_INFINITY));
+    }
+}
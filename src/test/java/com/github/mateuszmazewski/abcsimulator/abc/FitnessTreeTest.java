@@ -0,0 +1,104 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FitnessTreeTest {
+
+    @Test
+    void matchesLinearScanAfterRandomUpdates() {
+        Random random = new Random(1);
+        for (int size : new int[]{1, 2, 3, 7, 8, 100, 1000}) {
+            FitnessTree tree = new FitnessTree(size);
+            double[] values = new double[size];
+            double maxValue = 0.0;
+            for (int update = 0; update < 20 * size; update++) {
+                int i = random.nextInt(size);
+                // Fitness values span many orders of magnitude near the optimum
+                values[i] = Math.pow(10.0, random.nextInt(13) - 6) * random.nextDouble();
+                maxValue = Math.max(maxValue, values[i]);
+                tree.set(i, values[i]);
+
+                if (update % 7 == 0) {
+                    assertMatches(tree, values, maxValue, random);
+                }
+            }
+            assertMatches(tree, values, maxValue, random);
+        }
+    }
+
+    // Sums kept only by adding differences must not drift from the values over a long run.
+    // What remains is the rounding of the largest value they held, a fraction of its ulp.
+    @Test
+    void totalDoesNotDriftOverManyUpdates() {
+        Random random = new Random(2);
+        int size = 50;
+        FitnessTree tree = new FitnessTree(size);
+        double[] values = new double[size];
+        for (int update = 0; update < 2000000; update++) {
+            int i = random.nextInt(size);
+            values[i] = random.nextBoolean() ? 1e6 * random.nextDouble() : 1e-6 * random.nextDouble();
+            tree.set(i, values[i]);
+        }
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        assertEquals(sum, tree.total(), 1e-12 * Math.max(sum, 1e6));
+    }
+
+    @Test
+    void snapshotHidesUpdatesUntilItEnds() {
+        FitnessTree tree = new FitnessTree(4);
+        for (int i = 0; i < 4; i++) {
+            tree.set(i, 1.0);
+        }
+        tree.beginSnapshot();
+        tree.set(0, 5.0);
+        tree.set(3, 0.0);
+        tree.set(0, 9.0); // The last update of an index wins
+        assertEquals(4.0, tree.total());
+        assertEquals(3, tree.select(0.9));
+        tree.endSnapshot();
+
+        assertEquals(11.0, tree.total());
+        assertEquals(0, tree.select(0.7));
+        assertEquals(2, tree.select(0.99));
+    }
+
+    private static void assertMatches(FitnessTree tree, double[] values, double maxValue, Random random) {
+        double[] prefixSums = new double[values.length];
+        double sum = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+            prefixSums[i] = sum;
+        }
+        double tolerance = 1e-12 * Math.max(sum, maxValue);
+        assertEquals(sum, tree.total(), tolerance);
+
+        for (int draw = 0; draw < 50; draw++) {
+            double rand = random.nextDouble();
+            double target = rand * sum;
+            int expected = 0;
+            while (expected < values.length - 1 && prefixSums[expected] < target) {
+                expected++;
+            }
+            // Sums added in another order may round the other way right at a boundary
+            if (!nearBoundary(prefixSums, target, tolerance)) {
+                assertEquals(expected, tree.select(rand), "rand " + rand);
+            }
+        }
+    }
+
+    private static boolean nearBoundary(double[] prefixSums, double target, double tolerance) {
+        for (double prefixSum : prefixSums) {
+            if (Math.abs(prefixSum - target) <= tolerance) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.mateuszmazewski.abcsimulator.abc;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.DelayedFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.SphereFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StopCriteriaTest {
+
+    private static final int MAX_ITER = 5000;
+
+    @Test
+    void disabledCriteriaNeverStop() {
+        StopCriteria stopCriteria = new StopCriteria();
+        assertNull(stopCriteria.check(10000, 0, 0.0, 0.0, Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void checksEachCriterion() {
+        StopCriteria targetError = new StopCriteria();
+        targetError.setTargetError(0.5);
+        assertNull(targetError.check(1, 0, 1.6, 1.0, 0, 0));
+        assertEquals(StopReason.TARGET_ERROR, targetError.check(1, 0, 1.5, 1.0, 0, 0));
+        assertEquals(StopReason.TARGET_ERROR, targetError.check(1, 0, 0.5, 1.0, 0, 0));
+
+        StopCriteria stagnation = new StopCriteria();
+        stagnation.setStagnationIterations(10);
+        assertNull(stagnation.check(19, 10, 1.0, 0.0, 0, 0));
+        assertEquals(StopReason.STAGNATION, stagnation.check(20, 10, 1.0, 0.0, 0, 0));
+
+        StopCriteria maxEvaluations = new StopCriteria();
+        maxEvaluations.setMaxEvaluations(100);
+        assertNull(maxEvaluations.check(1, 0, 1.0, 0.0, 99, 0));
+        assertEquals(StopReason.MAX_EVALUATIONS, maxEvaluations.check(1, 0, 1.0, 0.0, 100, 0));
+
+        StopCriteria timeLimit = new StopCriteria();
+        timeLimit.setTimeLimitMillis(2);
+        assertNull(timeLimit.check(1, 0, 1.0, 0.0, 0, 1999999));
+        assertEquals(StopReason.DEADLINE, timeLimit.check(1, 0, 1.0, 0.0, 0, 2000000));
+    }
+
+    // With several criteria met at once the reason is the first one in the order of check()
+    @Test
+    void reportsFirstCriterionMet() {
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setTargetError(0.1);
+        stopCriteria.setStagnationIterations(5);
+        stopCriteria.setMaxEvaluations(100);
+        stopCriteria.setTimeLimitMillis(1);
+
+        assertEquals(StopReason.TARGET_ERROR, stopCriteria.check(10, 0, 0.0, 0.0, 100, 1000000));
+        assertEquals(StopReason.STAGNATION, stopCriteria.check(10, 0, 1.0, 0.0, 100, 1000000));
+        assertEquals(StopReason.MAX_EVALUATIONS, stopCriteria.check(10, 9, 1.0, 0.0, 100, 1000000));
+        assertEquals(StopReason.DEADLINE, stopCriteria.check(10, 9, 1.0, 0.0, 99, 1000000));
+        assertNull(stopCriteria.check(10, 9, 1.0, 0.0, 99, 999999));
+    }
+
+    @Test
+    void rejectsNegativeLimits() {
+        StopCriteria stopCriteria = new StopCriteria();
+        assertThrows(IllegalArgumentException.class, () -> stopCriteria.setTargetError(-1e-9));
+        assertThrows(IllegalArgumentException.class, () -> stopCriteria.setStagnationIterations(-1));
+        assertThrows(IllegalArgumentException.class, () -> stopCriteria.setMaxEvaluations(-1));
+        assertThrows(IllegalArgumentException.class, () -> stopCriteria.setTimeLimitMillis(-1));
+    }
+
+    @Test
+    void colonyRunsUntilMaxIterWithoutCriteria() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(20, 100, new SphereFunction(), 10, 1L);
+        abc.run();
+        assertEquals(StopReason.MAX_ITER, abc.getStopReason());
+        assertEquals(100, abc.getLastIter());
+    }
+
+    @Test
+    void colonyStopsAtTargetError() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(20, MAX_ITER, new SphereFunction(), 10, 1L);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setTargetError(1e-6);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+
+        assertEquals(StopReason.TARGET_ERROR, abc.getStopReason());
+        assertTrue(abc.getBestFxSoFar() <= 1e-6);
+        assertTrue(abc.getLastIter() < MAX_ITER);
+    }
+
+    @Test
+    void colonyStopsAfterStagnation() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(20, MAX_ITER, new RastriginFunction(), 10, 1L);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setStagnationIterations(30);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+
+        assertEquals(StopReason.STAGNATION, abc.getStopReason());
+        assertEquals(abc.getBestIter() + 30, abc.getLastIter());
+    }
+
+    @Test
+    void colonyStopsAfterMaxEvaluations() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(20, MAX_ITER, new RastriginFunction(), 10, 1L);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setMaxEvaluations(1000);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+
+        assertEquals(StopReason.MAX_EVALUATIONS, abc.getStopReason());
+        // Checked after every iteration, so the limit is exceeded by less than the evaluations of one iteration
+        assertTrue(abc.getEvaluations() >= 1000);
+        assertTrue(abc.getEvaluations() < 1000 + 2 * 20 + 20);
+    }
+
+    @Test
+    void colonyStopsAtDeadline() {
+        // A function that takes a millisecond, so the time limit comes long before maxIter
+        ArtificialBeeColony abc = new ArtificialBeeColony(5, MAX_ITER, new DelayedFunction(new SphereFunction(), 1000), 10, 1L);
+        StopCriteria stopCriteria = new StopCriteria();
+        stopCriteria.setTimeLimitMillis(50);
+        abc.setStopCriteria(stopCriteria);
+        abc.run();
+
+        assertEquals(StopReason.DEADLINE, abc.getStopReason());
+        assertTrue(abc.getLastIter() < MAX_ITER);
+    }
+}
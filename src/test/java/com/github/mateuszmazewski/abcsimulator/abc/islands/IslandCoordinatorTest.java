@@ -0,0 +1,193 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The coordinator with workers on loopback sockets. Workers to be killed or to go silent are scripted with
+// the protocol messages, so the test decides exactly when they fail.
+class IslandCoordinatorTest {
+
+    private static final String HOST = InetAddress.getLoopbackAddress().getHostAddress();
+    private static final int HEARTBEAT_INTERVAL_MILLIS = 50;
+    private static final int HEARTBEAT_TIMEOUT_MILLIS = 500;
+    private static final long TEST_TIMEOUT_SECONDS = 30;
+
+    @Test
+    void dropsSilentWorkerAfterHeartbeatTimeout() throws Exception {
+        IslandCoordinator coordinator = coordinator(200);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Future<?> run = executor.submit(() -> {
+                coordinator.run(server);
+                return null;
+            });
+
+            // Connected before the real workers, so it gets island 0
+            try (FakeWorker silent = new FakeWorker(server.getLocalPort())) {
+                assertEquals(0, silent.config.island);
+                Future<Integer> first = executor.submit(() -> new IslandWorker(HOST, server.getLocalPort()).run());
+                Future<Integer> second = executor.submit(() -> new IslandWorker(HOST, server.getLocalPort()).run());
+
+                silent.sendMigrant(0, 10, 200, 100.0);
+                silent.readMigrants(0);
+                // Sends nothing more, not even heartbeats, but keeps the connection open
+
+                run.get(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                assertEquals(new HashSet<>(Arrays.asList(1, 2)), new HashSet<>(Arrays.asList(
+                        first.get(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS), second.get(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Collections.singletonList(0), coordinator.getFailedIslands());
+        assertEquals(StopReason.MAX_ITER, coordinator.getStopReason());
+        assertEquals(200, coordinator.getLastIter());
+        assertNotEquals(0, coordinator.getGlobalBest().getIsland());
+        assertTrue(coordinator.getBestFx() < 100.0);
+    }
+
+    @Test
+    void reappliesTopologyToRemainingIslands() throws Exception {
+        IslandCoordinator coordinator = coordinator(30);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            Future<?> run = executor.submit(() -> {
+                coordinator.run(server);
+                return null;
+            });
+
+            try (FakeWorker island0 = new FakeWorker(server.getLocalPort());
+                 FakeWorker island1 = new FakeWorker(server.getLocalPort());
+                 FakeWorker island2 = new FakeWorker(server.getLocalPort())) {
+                assertEquals(0, island0.config.island);
+                assertEquals(1, island1.config.island);
+                assertEquals(2, island2.config.island);
+
+                island0.sendMigrant(0, 10, 100, 5.0);
+                island1.sendMigrant(0, 10, 100, 1.0);
+                island2.sendMigrant(0, 10, 100, 5.0);
+                // Ring of all three islands
+                assertArrayEquals(new int[]{2}, island0.readMigrants(0));
+                assertArrayEquals(new int[]{0}, island1.readMigrants(0));
+                assertArrayEquals(new int[]{1}, island2.readMigrants(0));
+
+                island1.close(); // Killed
+                island2.sendMigrant(1, 20, 200, 4.0);
+                // A worker busy for longer than the timeout is kept as long as its heartbeats come
+                long end = System.nanoTime() + 2 * HEARTBEAT_TIMEOUT_MILLIS * 1000000L;
+                while (System.nanoTime() < end) {
+                    island0.sendHeartbeat();
+                    Thread.sleep(HEARTBEAT_INTERVAL_MILLIS);
+                }
+                island0.sendMigrant(1, 20, 200, 3.0);
+                // Ring of the two remaining islands
+                assertArrayEquals(new int[]{2}, island0.readMigrants(1));
+                assertArrayEquals(new int[]{0}, island2.readMigrants(1));
+
+                island0.sendMigrant(2, 30, 300, 3.0);
+                island2.sendMigrant(2, 30, 300, 2.0);
+                island0.finish(30, 310);
+                island2.finish(30, 320);
+
+                run.get(TEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Collections.singletonList(1), coordinator.getFailedIslands());
+        assertEquals(StopReason.MAX_ITER, coordinator.getStopReason());
+        assertEquals(30, coordinator.getLastIter());
+        // The last best food source of the killed island still counts, as do its evaluations
+        assertEquals(1, coordinator.getGlobalBest().getIsland());
+        assertEquals(1.0, coordinator.getBestFx());
+        assertEquals(300 + 100 + 300 + 10 + 20, coordinator.getEvaluations());
+    }
+
+    private static IslandCoordinator coordinator(int maxIter) {
+        IslandCoordinator coordinator = new IslandCoordinator(3, 10, maxIter, new RastriginFunction(), 10, 1L);
+        coordinator.setMigrationInterval(10);
+        coordinator.setHeartbeat(HEARTBEAT_INTERVAL_MILLIS, HEARTBEAT_TIMEOUT_MILLIS);
+        coordinator.setAcceptTimeoutMillis((int) TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS));
+        return coordinator;
+    }
+
+    private static final class FakeWorker implements Closeable {
+
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        final IslandProtocol.Config config;
+        double lastFx;
+
+        FakeWorker(int port) throws IOException {
+            socket = new Socket(HOST, port);
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TEST_TIMEOUT_SECONDS));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            IslandProtocol.writeHello(out);
+            config = IslandProtocol.readConfig(in);
+        }
+
+        void sendMigrant(int epoch, int iter, long evaluations, double fx) throws IOException {
+            Migrant migrant = new Migrant(new double[config.dim], fx, iter, config.island);
+            lastFx = fx;
+            IslandProtocol.writeMigrants(out, epoch, iter, evaluations, new Migrant[]{migrant});
+        }
+
+        void sendHeartbeat() throws IOException {
+            IslandProtocol.writeHeartbeat(out);
+        }
+
+        // Returns the islands the migrants come from
+        int[] readMigrants(int epoch) throws IOException {
+            IslandProtocol.expectType(in.readByte(), IslandProtocol.MIGRANTS);
+            IslandProtocol.MigrantsMessage message = IslandProtocol.readMigrants(in, config.dim);
+            assertEquals(epoch, message.epoch);
+            int[] islands = new int[message.migrants.length];
+            for (int i = 0; i < islands.length; i++) {
+                islands[i] = message.migrants[i].getIsland();
+            }
+            return islands;
+        }
+
+        void finish(int lastIter, long evaluations) throws IOException {
+            IslandProtocol.expectType(in.readByte(), IslandProtocol.STOP);
+            assertEquals(StopReason.MAX_ITER, IslandProtocol.readStop(in));
+            IslandProtocol.Result result = new IslandProtocol.Result();
+            result.lastIter = lastIter;
+            result.evaluations = evaluations;
+            result.best = new Migrant(new double[config.dim], lastFx, lastIter, config.island);
+            IslandProtocol.writeResult(out, result);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
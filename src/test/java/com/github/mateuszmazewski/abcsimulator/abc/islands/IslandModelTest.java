@@ -0,0 +1,135 @@
+package com.github.mateuszmazewski.abcsimulator.abc.islands;
+
+import com.github.mateuszmazewski.abcsimulator.abc.ArtificialBeeColony;
+import com.github.mateuszmazewski.abcsimulator.abc.StopReason;
+import com.github.mateuszmazewski.abcsimulator.abc.history.EveryKthIterationHistoryRecorder;
+import com.github.mateuszmazewski.abcsimulator.abc.random.Xoroshiro128PlusPlusGenerator;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.SphereFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IslandModelTest {
+
+    private static final int ISLANDS_COUNT = 4;
+    private static final int MAX_ITER = 200;
+    private static final int STEPS = 5;
+
+    // The islands run on their own threads, but meet at every migration, so a seeded run must not depend on timing
+    @Test
+    void seededRunIsReproducibleForEveryTopology() throws InterruptedException {
+        for (MigrationTopology topology : MigrationTopology.values()) {
+            IslandModel first = run(topology);
+            IslandModel second = run(topology);
+
+            assertEquals(first.getBestFx(), second.getBestFx(), topology.name());
+            assertArrayEquals(first.getBestFoodSource(), second.getBestFoodSource(), topology.name());
+            assertEquals(first.getBestIter(), second.getBestIter(), topology.name());
+            assertEquals(first.getEvaluations(), second.getEvaluations(), topology.name());
+            assertEquals(first.getBestEvaluations(), second.getBestEvaluations(), topology.name());
+            assertEquals(StopReason.MAX_ITER, first.getStopReason(), topology.name());
+            assertEquals(MAX_ITER, first.getLastIter(), topology.name());
+            for (int i = 0; i < ISLANDS_COUNT; i++) {
+                ArtificialBeeColony firstIsland = first.getIslands()[i];
+                ArtificialBeeColony secondIsland = second.getIslands()[i];
+                assertEquals(firstIsland.getBestFxSoFar(), secondIsland.getBestFxSoFar(), topology.name());
+                assertArrayEquals(firstIsland.getBestFoodSourceSoFar(), secondIsland.getBestFoodSourceSoFar(), topology.name());
+            }
+        }
+    }
+
+    @Test
+    void topologiesGiveSourcesOfEveryIsland() {
+        Xoroshiro128PlusPlusGenerator rng = new Xoroshiro128PlusPlusGenerator(1L);
+
+        int[][] ring = MigrationTopology.RING.sources(ISLANDS_COUNT, rng);
+        assertArrayEquals(new int[][]{{3}, {0}, {1}, {2}}, ring);
+
+        int[][] fullyConnected = MigrationTopology.FULLY_CONNECTED.sources(ISLANDS_COUNT, rng);
+        assertArrayEquals(new int[][]{{1, 2, 3}, {0, 2, 3}, {0, 1, 3}, {0, 1, 2}}, fullyConnected);
+
+        for (int migration = 0; migration < 100; migration++) {
+            int[][] random = MigrationTopology.RANDOM.sources(ISLANDS_COUNT, rng);
+            for (int i = 0; i < ISLANDS_COUNT; i++) {
+                assertEquals(1, random[i].length);
+                assertTrue(random[i][0] >= 0 && random[i][0] < ISLANDS_COUNT);
+                assertNotEquals(i, random[i][0]);
+            }
+        }
+    }
+
+    // Two colonies with the same seed, one of which receives a migrant - only its worst food source may differ
+    @Test
+    void migrantReplacesWorstFoodSource() {
+        ArtificialBeeColony expected = colony();
+        ArtificialBeeColony migrated = colony();
+        double[] migrant = {0.5, -0.5};
+        double migrantFx = 0.5;
+        assertTrue(migrated.replaceWorstFoodSource(migrant, migrantFx));
+        finish(expected);
+        finish(migrated);
+
+        double[][] foodSources = expected.getHistoryRecorder().getFoodSources(STEPS);
+        double[] fx = expected.getHistoryRecorder().getFx(STEPS);
+        int worst = 0;
+        for (int i = 1; i < fx.length; i++) {
+            if (fx[i] > fx[worst]) {
+                worst = i;
+            }
+        }
+        assertTrue(fx[worst] > migrantFx);
+
+        double[][] migratedFoodSources = migrated.getHistoryRecorder().getFoodSources(STEPS);
+        double[] migratedFx = migrated.getHistoryRecorder().getFx(STEPS);
+        for (int i = 0; i < fx.length; i++) {
+            if (i == worst) {
+                assertArrayEquals(migrant, migratedFoodSources[i]);
+                assertEquals(migrantFx, migratedFx[i]);
+            } else {
+                assertArrayEquals(foodSources[i], migratedFoodSources[i]);
+                assertEquals(fx[i], migratedFx[i]);
+            }
+        }
+    }
+
+    @Test
+    void worseMigrantIsRejected() {
+        ArtificialBeeColony expected = colony();
+        ArtificialBeeColony migrated = colony();
+        assertFalse(migrated.replaceWorstFoodSource(new double[]{100.0, 100.0}, 20000.0));
+        finish(expected);
+        finish(migrated);
+
+        assertArrayEquals(expected.getHistoryRecorder().getFoodSources(STEPS), migrated.getHistoryRecorder().getFoodSources(STEPS));
+        assertArrayEquals(expected.getHistoryRecorder().getFx(STEPS), migrated.getHistoryRecorder().getFx(STEPS));
+    }
+
+    private static IslandModel run(MigrationTopology topology) throws InterruptedException {
+        IslandModel model = new IslandModel(ISLANDS_COUNT, 20, MAX_ITER, new RastriginFunction(), 10, 7L);
+        model.setTopology(topology);
+        model.setMigrationInterval(15);
+        model.run();
+        return model;
+    }
+
+    // A colony after a few steps, whose food sources are recorded only when it finishes
+    private static ArtificialBeeColony colony() {
+        ArtificialBeeColony abc = new ArtificialBeeColony(10, MAX_ITER, new SphereFunction(), 20, 3L);
+        abc.setHistoryRecorder(new EveryKthIterationHistoryRecorder(MAX_ITER));
+        abc.start();
+        for (int step = 0; step < STEPS; step++) {
+            assertTrue(abc.step());
+        }
+        return abc;
+    }
+
+    private static void finish(ArtificialBeeColony abc) {
+        abc.stop(StopReason.MAX_ITER);
+        abc.finish();
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RandomGeneratorTestUtils {
+
+    private static final int SAMPLES = 20000;
+    // About 7 standard deviations of the correlation of independent samples, so the check never fails by chance
+    private static final double MAX_CORRELATION = 0.05;
+
+    private RandomGeneratorTestUtils() {
+    }
+
+    // Two children of the generator and the generator itself give different, uncorrelated streams,
+    // and the same seed always gives the same children
+    static void assertSplitStreamsIndependent(IRandomGenerator rng) {
+        long[] state = rng.getState();
+        IRandomGenerator first = rng.split();
+        IRandomGenerator second = rng.split();
+
+        double[] parentValues = sample(rng);
+        double[] firstValues = sample(first);
+        double[] secondValues = sample(second);
+        assertUncorrelated(parentValues, firstValues);
+        assertUncorrelated(parentValues, secondValues);
+        assertUncorrelated(firstValues, secondValues);
+        for (double[] values : new double[][]{parentValues, firstValues, secondValues}) {
+            assertEquals(0.5, mean(values), 0.02);
+        }
+
+        rng.setState(state);
+        IRandomGenerator again = rng.split();
+        for (double value : firstValues) {
+            assertEquals(value, again.nextDouble());
+        }
+    }
+
+    private static double[] sample(IRandomGenerator rng) {
+        double[] values = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            values[i] = rng.nextDouble();
+        }
+        return values;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static void assertUncorrelated(double[] x, double[] y) {
+        double meanX = mean(x), meanY = mean(y);
+        double covariance = 0.0, varianceX = 0.0, varianceY = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            covariance += (x[i] - meanX) * (y[i] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        double correlation = covariance / Math.sqrt(varianceX * varianceY);
+        assertTrue(Math.abs(correlation) < MAX_CORRELATION, "correlation " + correlation);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SplittableRandomGeneratorTest {
+
+    // java.util.SplittableRandom is the reference the generator reimplements
+    @Test
+    void matchesJavaUtilSplittableRandom() {
+        for (long seed : new long[]{0L, 1L, -7L, 123456789L}) {
+            SplittableRandom reference = new SplittableRandom(seed);
+            SplittableRandomGenerator rng = new SplittableRandomGenerator(seed);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(reference.nextLong(), rng.nextLong());
+                assertEquals(reference.nextDouble(), rng.nextDouble());
+                int bound = 1 + i * 7919;
+                assertEquals(reference.nextInt(bound), rng.nextInt(bound));
+            }
+        }
+    }
+
+    @Test
+    void splitMatchesJavaUtilSplittableRandom() {
+        SplittableRandom reference = new SplittableRandom(5);
+        SplittableRandomGenerator rng = new SplittableRandomGenerator(5);
+        for (int s = 0; s < 10; s++) {
+            SplittableRandom referenceChild = reference.split();
+            IRandomGenerator child = rng.split();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(referenceChild.nextLong(), child.nextLong());
+            }
+            assertEquals(reference.nextLong(), rng.nextLong());
+        }
+    }
+
+    @Test
+    void continuesStreamAfterSetState() {
+        SplittableRandomGenerator rng = new SplittableRandomGenerator(42);
+        IRandomGenerator child = rng.split();
+        child.nextLong();
+        IRandomGenerator copy = new SplittableRandomGenerator(0);
+        copy.setState(child.getState());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(child.nextLong(), copy.nextLong());
+            assertEquals(child.split().nextLong(), copy.split().nextLong());
+        }
+    }
+
+    @Test
+    void splitStreamsAreIndependent() {
+        RandomGeneratorTestUtils.assertSplitStreamsIndependent(new SplittableRandomGenerator(11));
+    }
+}
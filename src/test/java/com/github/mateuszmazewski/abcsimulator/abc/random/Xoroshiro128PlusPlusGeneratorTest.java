@@ -0,0 +1,83 @@
+package com.github.mateuszmazewski.abcsimulator.abc.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Xoroshiro128PlusPlusGeneratorTest {
+
+    // Outputs of the authors' C implementation (xoroshiro128plusplus.c) started with the same states
+    @Test
+    void matchesReferenceImplementation() {
+        Xoroshiro128PlusPlusGenerator rng = new Xoroshiro128PlusPlusGenerator(0);
+        rng.setState(new long[]{1L, 2L});
+        long[] expected = {0x0000000000060001L, 0x000260c000660007L, 0x180acc04718606d3L,
+                0x9e226d35036fc4c7L, 0x849bc9ac6b960be4L};
+        for (long value : expected) {
+            assertEquals(value, rng.nextLong());
+        }
+
+        rng.setState(new long[]{0x0123456789abcdefL, 0xfedcba9876543210L});
+        expected = new long[]{0x0123456789abcdeeL, 0xa06b17e864202464L, 0xcc9792ef68e54a58L,
+                0xa2ae0ceb8a9b12a3L, 0xfc829cd509944bfcL};
+        for (long value : expected) {
+            assertEquals(value, rng.nextLong());
+        }
+    }
+
+    // The state is the first two outputs of SplitMix64, which is what SplittableRandom computes
+    @Test
+    void seedsStateWithSplitMix64() {
+        for (long seed : new long[]{0L, 1L, -7L, 0x9e3779b97f4a7c15L}) {
+            SplittableRandom splitMix64 = new SplittableRandom(seed);
+            assertArrayEquals(new long[]{splitMix64.nextLong(), splitMix64.nextLong()},
+                    new Xoroshiro128PlusPlusGenerator(seed).getState());
+        }
+    }
+
+    @Test
+    void continuesStreamAfterSetState() {
+        Xoroshiro128PlusPlusGenerator rng = new Xoroshiro128PlusPlusGenerator(42);
+        for (int i = 0; i < 100; i++) {
+            rng.nextLong();
+        }
+        Xoroshiro128PlusPlusGenerator copy = new Xoroshiro128PlusPlusGenerator(0);
+        copy.setState(rng.getState());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(rng.nextLong(), copy.nextLong());
+        }
+    }
+
+    @Test
+    void rejectsAllZeroState() {
+        assertThrows(IllegalArgumentException.class, () -> new Xoroshiro128PlusPlusGenerator(0).setState(new long[]{0L, 0L}));
+    }
+
+    @Test
+    void nextIntStaysWithinBound() {
+        Xoroshiro128PlusPlusGenerator rng = new Xoroshiro128PlusPlusGenerator(3);
+        for (int bound : new int[]{1, 2, 7, 64, 1000, Integer.MAX_VALUE}) {
+            for (int i = 0; i < 1000; i++) {
+                int value = rng.nextInt(bound);
+                assertTrue(value >= 0 && value < bound);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            double value = rng.nextDouble();
+            assertTrue(value >= 0.0 && value < 1.0);
+        }
+    }
+
+    @Test
+    void splitStreamsAreIndependent() {
+        RandomGeneratorTestUtils.assertSplitStreamsIndependent(new Xoroshiro128PlusPlusGenerator(11));
+        assertNotEquals(new Xoroshiro128PlusPlusGenerator(11).split().nextLong(),
+                new Xoroshiro128PlusPlusGenerator(12).split().nextLong());
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionCompilerTest {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\b(x[1-9][0-9]*|x|y|z)\\b");
+
+    private static final String[] EXPRESSIONS = {
+            "x",
+            "-x^2",
+            "x^2 + y^2",
+            "x^3 - 2*x*y + y^4",
+            "2^3^2 + x^0.5",
+            "(x - 1)^2 + 100*(y - x^2)^2",
+            "20 + x^2 - 10*cos(2*pi*x) + y^2 - 10*cos(2*pi*y)",
+            "-20*exp(-0.2*sqrt(0.5*(x^2 + y^2))) - exp(0.5*(cos(2*pi*x) + cos(2*pi*y))) + e + 20",
+            "atan2(y, x) + hypot(x, y) - min(x, y) * max(x, 3)",
+            "abs(x) / (1 + abs(y)) - floor(x) + ceil(y) * signum(x - y)",
+            "sinh(x/10) + cosh(y/10) - tanh(x*y) + asin(sin(x)) + acos(cos(y)) + atan(x)",
+            "log(1 + x^2) + log10(1 + y^2) + cbrt(x*y) + pow(abs(x), 1.5) + tan(y/3)",
+            "x1 + 2*x2 - 3*x3 + x4^2 / 1.5e-1",
+            "1.5E+2 * .5 - 3. + x",
+    };
+
+    // Every expression is also folded by the parser after its variables are replaced with numbers.
+    // The compiled code must give exactly the folded value, as both must compute the same operations.
+    @Test
+    void compiledValueEqualsFoldedValue() {
+        Random random = new Random(1);
+        for (String expression : EXPRESSIONS) {
+            ICompiledExpression compiled = ExpressionCompiler.compile(expression, 4);
+            for (int sample = 0; sample < 20; sample++) {
+                double[] pos = new double[4];
+                for (int i = 0; i < pos.length; i++) {
+                    pos[i] = sample == 0 ? i - 1.0 : (random.nextDouble() - 0.5) * 20.0;
+                }
+                assertEquals(fold(expression, pos), compiled.evaluate(pos, 0), expression + " at " + Arrays.toString(pos));
+            }
+        }
+    }
+
+    @Test
+    void evaluatesAtOffset() {
+        ICompiledExpression compiled = ExpressionCompiler.compile("x - 2*y", 2);
+        double[] positions = {1.0, 2.0, 3.0, 5.0, 7.0, 11.0};
+        assertEquals(-3.0, compiled.evaluate(positions, 0));
+        assertEquals(-7.0, compiled.evaluate(positions, 2));
+        assertEquals(-15.0, compiled.evaluate(positions, 4));
+    }
+
+    @Test
+    void foldsConstantSubexpressions() {
+        ExpressionParser parser = new ExpressionParser("2^3^2 - sqrt(16) * pi + -(3)");
+        ExpressionParser.Node root = parser.parse();
+        assertInstanceOf(ExpressionParser.Constant.class, root);
+        assertEquals(512.0 - 4.0 * Math.PI - 3.0, ((ExpressionParser.Constant) root).value);
+        assertEquals(0, parser.getVariablesCount());
+    }
+
+    @Test
+    void reportsErrorsWithPosition() {
+        assertErrorAt("x + foo(y)", "Unknown function 'foo'", 5);
+        assertErrorAt("x + 2e", "Unexpected 'e'", 6);
+        assertErrorAt("(x + y", "Expected ')' at the end of expression", 7);
+        assertErrorAt("min(x)", "takes 2 arguments", 1);
+        assertErrorAt("x * w", "Unknown variable or constant 'w'", 5);
+        assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile("x + z", 2));
+    }
+
+    private static void assertErrorAt(String expression, String message, int position) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ExpressionCompiler.compile(expression, 3));
+        assertTrue(e.getMessage().contains(message) && e.getMessage().endsWith("position " + position), e.getMessage());
+    }
+
+    private static double fold(String expression, double[] pos) {
+        Matcher matcher = VARIABLE.matcher(expression);
+        StringBuffer substituted = new StringBuffer();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            int index = name.length() > 1 ? Integer.parseInt(name.substring(1)) - 1 : "xyz".indexOf(name.charAt(0));
+            // Parenthesized, so a negative number keeps its precedence
+            matcher.appendReplacement(substituted, "(" + pos[index] + ")");
+        }
+        matcher.appendTail(substituted);
+
+        ExpressionParser.Node root = new ExpressionParser(substituted.toString()).parse();
+        assertInstanceOf(ExpressionParser.Constant.class, root, substituted.toString());
+        return ((ExpressionParser.Constant) root).value;
+    }
+}
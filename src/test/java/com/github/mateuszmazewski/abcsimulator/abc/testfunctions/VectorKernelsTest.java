@@ -0,0 +1,51 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VectorKernelsTest {
+
+    private static final int DIM = 7;
+    private static final int COUNT = 20;
+
+    private interface IKernel {
+        void apply(double[] positions, double[] values, int from, int to, int dim);
+    }
+
+    // Whatever version of the class is loaded, its kernels must be callable and give the values of the functions
+    @Test
+    void kernelsGiveValuesOfFunctions() {
+        assertKernelGivesValues(new SphereFunction(DIM), VectorKernels::sphere);
+        assertKernelGivesValues(new RastriginFunction(DIM), VectorKernels::rastrigin);
+        assertKernelGivesValues(new AckleyFunction(DIM), VectorKernels::ackley);
+        assertKernelGivesValues(new RosenbrockFunction(DIM), VectorKernels::rosenbrock);
+    }
+
+    private static void assertKernelGivesValues(AbstractTestFunction func, IKernel kernel) {
+        Random random = new Random(1);
+        double[] positions = new double[COUNT * DIM];
+        for (int i = 0; i < positions.length; i++) {
+            double lower = func.getLowerBoundaries()[i % DIM];
+            double upper = func.getUpperBoundaries()[i % DIM];
+            positions[i] = lower + (upper - lower) * random.nextDouble();
+        }
+        double[] values = new double[COUNT];
+        Arrays.fill(values, Double.NaN);
+
+        // Only a part of the buffer, to check the from/to offsets
+        kernel.apply(positions, values, 3, COUNT - 2, DIM);
+
+        for (int p = 0; p < COUNT; p++) {
+            if (p < 3 || p >= COUNT - 2) {
+                assertEquals(Double.NaN, values[p]);
+            } else {
+                double expected = func.getValue(Arrays.copyOfRange(positions, p * DIM, (p + 1) * DIM));
+                assertEquals(expected, values[p], 1e-12 * Math.max(1.0, Math.abs(expected)));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.mateuszmazewski.abcsimulator.abc.testfunctions.plugins;
+
+import java.util.Arrays;
+
+// Registered on the test class path, so tests can run a plugin function like one from the plugins directory
+public class SumOfSquaresTestPlugin implements ITestFunctionPlugin {
+
+    public static final String NAME = "SumOfSquares-test";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supportsDim(int dim) {
+        return dim > 0;
+    }
+
+    @Override
+    public double[] getLowerBoundaries(int dim) {
+        return filledArray(dim, -5.0);
+    }
+
+    @Override
+    public double[] getUpperBoundaries(int dim) {
+        return filledArray(dim, 5.0);
+    }
+
+    @Override
+    public double[] getGlobalMinValuePos(int dim) {
+        return new double[dim];
+    }
+
+    @Override
+    public double getGlobalMinValue(int dim) {
+        return 0.0;
+    }
+
+    @Override
+    public IObjective createObjective(int dim) {
+        return pos -> {
+            double sum = 0.0;
+            for (double x : pos) {
+                sum += x * x;
+            }
+            return sum;
+        };
+    }
+
+    private static double[] filledArray(int dim, double value) {
+        double[] array = new double[dim];
+        Arrays.fill(array, value);
+        return array;
+    }
+}
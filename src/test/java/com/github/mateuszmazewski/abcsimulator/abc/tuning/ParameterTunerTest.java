@@ -0,0 +1,100 @@
+package com.github.mateuszmazewski.abcsimulator.abc.tuning;
+
+import com.github.mateuszmazewski.abcsimulator.abc.testfunctions.RastriginFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParameterTunerTest {
+
+    private static final int[] FOOD_SOURCES_COUNTS = {10, 20, 30, 40};
+    private static final int[] TRIALS_LIMITS = {5, 20};
+
+    // The whole grid of 8 candidates with 3 initial seeds: 8, 4, 2 and 1 candidates run on 3, 6, 12 and 24 new seeds
+    @Test
+    void halvesCandidatesAndDoublesSeeds() throws InterruptedException {
+        ParameterTuner tuner = tuner(100, 1);
+        tuner.run();
+
+        List<TuningCandidate> candidates = tuner.getCandidates();
+        assertEquals(8, candidates.size());
+        assertEquals(8 * 3 + 4 * 6 + 2 * 12 + 24, tuner.getRunsCount());
+
+        int[] expectedRounds = {4, 3, 2, 2, 1, 1, 1, 1};
+        int[] expectedRuns = {3 + 6 + 12 + 24, 3 + 6 + 12, 3 + 6, 3 + 6, 3, 3, 3, 3};
+        for (int i = 0; i < candidates.size(); i++) {
+            assertEquals(expectedRounds[i], candidates.get(i).getRounds());
+            assertEquals(expectedRuns[i], candidates.get(i).getRuns());
+        }
+        assertSame(candidates.get(0), tuner.getBest());
+
+        // Candidates dropped in the same round are ranked by their median error
+        for (int i = 1; i < candidates.size(); i++) {
+            if (candidates.get(i - 1).getRounds() == candidates.get(i).getRounds()) {
+                assertTrue(candidates.get(i - 1).getMedianError() <= candidates.get(i).getMedianError());
+            }
+        }
+    }
+
+    @Test
+    void samplesDistinctCandidatesFromGrid() throws InterruptedException {
+        ParameterTuner tuner = tuner(5, 1);
+        tuner.run();
+
+        // 5, 3, 2 and 1 candidates run on 3, 6, 12 and 24 new seeds
+        assertEquals(5 * 3 + 3 * 6 + 2 * 12 + 24, tuner.getRunsCount());
+        Set<String> sampled = new HashSet<>();
+        for (TuningCandidate candidate : tuner.getCandidates()) {
+            assertTrue(contains(FOOD_SOURCES_COUNTS, candidate.getFoodSourcesCount()));
+            assertTrue(contains(TRIALS_LIMITS, candidate.getTrialsLimit()));
+            assertTrue(sampled.add(candidate.getFoodSourcesCount() + "/" + candidate.getTrialsLimit()));
+        }
+        assertEquals(5, sampled.size());
+    }
+
+    // Runs are collected in the order they were submitted in, so the threads only change how fast the tuning is
+    @Test
+    void resultDoesNotDependOnThreads() throws InterruptedException {
+        ParameterTuner single = tuner(5, 1);
+        single.run();
+        ParameterTuner multi = tuner(5, 4);
+        multi.run();
+
+        assertEquals(single.getRunsCount(), multi.getRunsCount());
+        assertEquals(single.getCandidates().size(), multi.getCandidates().size());
+        for (int i = 0; i < single.getCandidates().size(); i++) {
+            TuningCandidate expected = single.getCandidates().get(i);
+            TuningCandidate actual = multi.getCandidates().get(i);
+            assertEquals(expected.getFoodSourcesCount(), actual.getFoodSourcesCount());
+            assertEquals(expected.getTrialsLimit(), actual.getTrialsLimit());
+            assertEquals(expected.getRounds(), actual.getRounds());
+            assertArrayEquals(expected.getSortedErrors(), actual.getSortedErrors());
+            assertEquals(expected.getMeanBestEvaluations(), actual.getMeanBestEvaluations());
+        }
+    }
+
+    private static ParameterTuner tuner(int candidatesCount, int threads) {
+        ParameterTuner tuner = new ParameterTuner(new RastriginFunction(), FOOD_SOURCES_COUNTS, TRIALS_LIMITS, 10000, 1000, 7L);
+        tuner.setCandidatesCount(candidatesCount);
+        tuner.setInitialSeedsCount(3);
+        tuner.setReductionFactor(2);
+        tuner.setThreads(threads);
+        return tuner;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
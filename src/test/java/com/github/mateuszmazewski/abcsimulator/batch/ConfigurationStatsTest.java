@@ -0,0 +1,104 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfigurationStatsTest {
+
+    private static final double TARGET_ERROR = 1.0;
+
+    // Errors 4, 1, 0.5, 2 - the runs with 1 and 0.5 reach the target
+    @Test
+    void computesStatisticsOfEvenNumberOfRuns() {
+        ConfigurationStats stats = ConfigurationStats.of(Arrays.asList(
+                run(4.0, 1000, 900, 10),
+                run(1.0, 1000, 300, 20),
+                run(0.5, 1000, 500, 30),
+                run(2.0, 800, 700, 40)), TARGET_ERROR);
+
+        assertEquals("SphereFunction/2/10/100/20", stats.getKey());
+        assertEquals(4, stats.getRuns());
+        assertEquals(2, stats.getSuccesses());
+        assertEquals(0.5, stats.getSuccessRate());
+        assertEquals(1.875, stats.getMeanError());
+        assertEquals(1.5, stats.getMedianError()); // (1 + 2) / 2
+        // Squared deviations 1.890625 + 0.765625 + 0.015625 + 4.515625, divided by n - 1
+        assertEquals(Math.sqrt(7.1875 / 3), stats.getStdError(), 1e-15);
+        assertEquals(0.5, stats.getMinError());
+        assertEquals(4.0, stats.getMaxError());
+        assertEquals(400.0, stats.getMeanEvaluationsToTarget());
+        assertEquals(400.0, stats.getMedianEvaluationsToTarget());
+        // All evaluations of the failed runs, those until the target of the successful ones: (1000 + 300 + 500 + 800) / 2
+        assertEquals(1300.0, stats.getExpectedEvaluations());
+        assertEquals(25.0, stats.getMeanTimeMillis());
+    }
+
+    @Test
+    void computesStatisticsOfOddNumberOfRuns() {
+        ConfigurationStats stats = ConfigurationStats.of(Arrays.asList(
+                run(0.25, 600, 600, 5),
+                run(3.0, 600, 100, 5),
+                run(0.75, 600, 200, 5)), TARGET_ERROR);
+
+        assertEquals(2, stats.getSuccesses());
+        assertEquals(2.0 / 3.0, stats.getSuccessRate());
+        assertEquals(0.75, stats.getMedianError());
+        assertEquals(4.0 / 3.0, stats.getMeanError());
+        // Squared deviations 13/12 squared + 5/3 squared + 7/12 squared, divided by n - 1
+        assertEquals(Math.sqrt((169.0 / 144.0 + 400.0 / 144.0 + 49.0 / 144.0) / 2), stats.getStdError(), 1e-15);
+        assertEquals(400.0, stats.getMeanEvaluationsToTarget());
+        assertEquals(400.0, stats.getMedianEvaluationsToTarget());
+        assertEquals((600.0 + 600.0 + 200.0) / 2, stats.getExpectedEvaluations());
+    }
+
+    @Test
+    void runsWithoutSuccessHaveNoEvaluationsToTarget() {
+        ConfigurationStats stats = ConfigurationStats.of(Arrays.asList(
+                run(2.0, 1000, 500, 10),
+                run(3.0, 1000, 500, 10)), TARGET_ERROR);
+
+        assertEquals(0, stats.getSuccesses());
+        assertEquals(0.0, stats.getSuccessRate());
+        assertEquals(Double.NaN, stats.getMeanEvaluationsToTarget());
+        assertEquals(Double.NaN, stats.getMedianEvaluationsToTarget());
+        assertEquals(Double.POSITIVE_INFINITY, stats.getExpectedEvaluations());
+    }
+
+    @Test
+    void singleRunHasNoDeviation() {
+        ConfigurationStats stats = ConfigurationStats.of(Collections.singletonList(run(0.5, 1000, 300, 10)), TARGET_ERROR);
+
+        assertEquals(0.5, stats.getMedianError());
+        assertEquals(0.0, stats.getStdError());
+        assertEquals(1.0, stats.getSuccessRate());
+        assertEquals(300.0, stats.getExpectedEvaluations());
+    }
+
+    @Test
+    void rejectsNoRuns() {
+        assertThrows(IllegalArgumentException.class, () -> ConfigurationStats.of(Collections.emptyList(), TARGET_ERROR));
+    }
+
+    static RunResult run(String functionName, int dim, double error, long evaluations, long bestEvaluations, long timeMillis) {
+        RunResult runResult = new RunResult();
+        runResult.functionName = functionName;
+        runResult.dim = dim;
+        runResult.foodSourcesCount = 10;
+        runResult.maxIter = 100;
+        runResult.trialsLimit = 20;
+        runResult.error = error;
+        runResult.evaluations = evaluations;
+        runResult.bestEvaluations = bestEvaluations;
+        runResult.timeMillis = timeMillis;
+        return runResult;
+    }
+
+    private static RunResult run(double error, long evaluations, long bestEvaluations, long timeMillis) {
+        return run("SphereFunction", 2, error, evaluations, bestEvaluations, timeMillis);
+    }
+}
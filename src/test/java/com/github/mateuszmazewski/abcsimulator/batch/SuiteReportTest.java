@@ -0,0 +1,129 @@
+package com.github.mateuszmazewski.abcsimulator.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.mateuszmazewski.abcsimulator.batch.ConfigurationStatsTest.run;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuiteReportTest {
+
+    private static final double TARGET_ERROR = 1e-3;
+
+    @Test
+    void groupsRunsByConfigurationInOrder() {
+        SuiteReport report = new SuiteReport(TARGET_ERROR);
+        report.add(run("SphereFunction", 5, 0.0, 100, 50, 1));
+        report.add(run("AckleyFunction", 2, 0.0, 100, 50, 1));
+        report.add(run("SphereFunction", 2, 0.0, 100, 50, 1));
+        report.add(run("SphereFunction", 5, 1.0, 100, 50, 1));
+
+        List<ConfigurationStats> stats = report.getStats();
+        assertEquals(3, stats.size());
+        assertEquals("AckleyFunction/2/10/100/20", stats.get(0).getKey());
+        assertEquals("SphereFunction/2/10/100/20", stats.get(1).getKey());
+        assertEquals("SphereFunction/5/10/100/20", stats.get(2).getKey());
+        assertEquals(2, stats.get(2).getRuns());
+        assertEquals(0.5, stats.get(2).getSuccessRate());
+    }
+
+    // Baseline 8 of 10: tolerance max(1 / 10, 2 * sqrt(0.8 * 0.2 / 10)) = 0.253, so 6 of 10 passes and 5 of 10 fails
+    @Test
+    void successRateRegressesBeyondTwoStandardErrors() {
+        List<ConfigurationStats> baseline = Collections.singletonList(baseline(10, 8, 1.0));
+
+        assertTrue(report(6, 0.5).compareWithBaseline(baseline).isEmpty());
+        assertEquals(Collections.singletonList("SphereFunction/2/10/100/20: success rate 0.50, baseline 0.80"),
+                report(5, 0.5).compareWithBaseline(baseline));
+    }
+
+    // Without variance in the baseline the tolerance is one run: 9 of 10 passes, 8 of 10 fails
+    @Test
+    void successRateToleratesOneRun() {
+        List<ConfigurationStats> baseline = Collections.singletonList(baseline(10, 10, 0.0));
+
+        assertTrue(report(9, 0.5).compareWithBaseline(baseline).isEmpty());
+        assertEquals(1, report(8, 0.5).compareWithBaseline(baseline).size());
+    }
+
+    // Baseline median 0.01: a median above 10 * 0.01 + 1e-3 = 0.101 regresses
+    @Test
+    void medianErrorRegressesByOrderOfMagnitude() {
+        List<ConfigurationStats> baseline = Collections.singletonList(baseline(10, 0, 0.01));
+
+        assertTrue(report(0, 0.1).compareWithBaseline(baseline).isEmpty());
+        assertEquals(Collections.singletonList("SphereFunction/2/10/100/20: median error 2.000e-01, baseline 1.000e-02"),
+                report(0, 0.2).compareWithBaseline(baseline));
+    }
+
+    @Test
+    void configurationsMissingInBaselineAreNotCompared() {
+        ConfigurationStats other = baseline(10, 10, 0.0);
+        other.functionName = "AckleyFunction";
+
+        assertTrue(report(0, 100.0).compareWithBaseline(Collections.singletonList(other)).isEmpty());
+    }
+
+    @Test
+    void readsWrittenCsv(@TempDir File tempDir) throws IOException {
+        SuiteReport report = report(3, 0.5);
+        File file = new File(tempDir, "suite.csv");
+        try (Writer writer = new FileWriter(file)) {
+            report.writeCsv(writer);
+        }
+
+        List<ConfigurationStats> read = SuiteReport.readCsv(file);
+        assertEquals(1, read.size());
+        ConfigurationStats expected = report.getStats().get(0);
+        ConfigurationStats actual = read.get(0);
+        assertEquals(expected.getKey(), actual.getKey());
+        assertEquals(10, actual.getRuns());
+        assertEquals(3, actual.getSuccesses());
+        assertEquals(expected.getMeanError(), actual.getMeanError());
+        assertEquals(0.5, actual.getMedianError());
+        assertEquals(expected.getStdError(), actual.getStdError());
+        assertEquals(expected.getExpectedEvaluations(), actual.getExpectedEvaluations());
+        assertTrue(report.compareWithBaseline(read).isEmpty());
+    }
+
+    @Test
+    void rejectsCsvWithWrongHeader(@TempDir File tempDir) throws IOException {
+        File file = new File(tempDir, "suite.csv");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("function,dim\n");
+        }
+        IOException e = assertThrows(IOException.class, () -> SuiteReport.readCsv(file));
+        assertEquals("Wrong header: line 1", e.getMessage());
+    }
+
+    // 10 runs, the first successes of them with no error and the others with the given one
+    private static SuiteReport report(int successes, double error) {
+        SuiteReport report = new SuiteReport(TARGET_ERROR);
+        for (int i = 0; i < 10; i++) {
+            report.add(run("SphereFunction", 2, i < successes ? 0.0 : error, 1000, 500, 10));
+        }
+        return report;
+    }
+
+    private static ConfigurationStats baseline(int runs, int successes, double medianError) {
+        ConfigurationStats stats = new ConfigurationStats();
+        stats.functionName = "SphereFunction";
+        stats.dim = 2;
+        stats.foodSourcesCount = 10;
+        stats.maxIter = 100;
+        stats.trialsLimit = 20;
+        stats.runs = runs;
+        stats.successes = successes;
+        stats.medianError = medianError;
+        return stats;
+    }
+}